@@ -0,0 +1,63 @@
+package net.minichip.minecraftnickname.benchmarks;
+
+import net.minichip.minecraftnickname.NicknameJsonWriter;
+import net.minichip.minecraftnickname.NicknameRecord;
+import net.minichip.minecraftnickname.NicknameStore;
+import org.bukkit.entity.Player;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+// 벤치마크용 가짜 닉네임 데이터
+// 같은 개수면 항상 같은 데이터가 만들어지므로 실행 결과끼리 비교할 수 있습니다.
+final class BenchmarkData {
+
+    private BenchmarkData() {
+    }
+
+    static UUID uuid(int i) {
+        return new UUID(0x4d696e6563726166L, i);
+    }
+
+    static String playerName(int i) {
+        return "Player" + i;
+    }
+
+    // 한글/영문 닉네임을 섞어 대소문자 접기(NicknameKeys.fold)의 빠른 경로와 느린 경로를 모두 거치게 합니다.
+    static String nick(int i) {
+        return (i % 2 == 0) ? "닉네임" + i : "Nick_" + i;
+    }
+
+    static List<NicknameRecord> records(int count) {
+        List<NicknameRecord> records = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            records.add(new NicknameRecord(uuid(i), playerName(i), nick(i)));
+        }
+        return records;
+    }
+
+    static NicknameStore store(int count) {
+        NicknameStore store = new NicknameStore();
+        store.replaceAll(records(count));
+        return store;
+    }
+
+    // 접속 중인 플레이어 대역. 앞쪽 online 명은 닉네임이 있는 플레이어, 나머지 없음.
+    static Player[] onlinePlayers(int online) {
+        Player[] players = new Player[online];
+        for (int i = 0; i < online; i++) {
+            players[i] = StandInPlayer.create(uuid(i), playerName(i));
+        }
+        return players;
+    }
+
+    static File writeNicknameFile(int count) throws IOException {
+        File file = File.createTempFile("nicknames-" + count + "-", ".json");
+        file.deleteOnExit();
+        NicknameJsonWriter.writeAtomically(records(count), file.toPath());
+        return file;
+    }
+}
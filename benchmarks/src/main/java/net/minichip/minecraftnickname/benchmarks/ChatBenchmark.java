@@ -0,0 +1,74 @@
+package net.minichip.minecraftnickname.benchmarks;
+
+import net.minichip.minecraftnickname.ChatFormatStage;
+import net.minichip.minecraftnickname.DisplayCache;
+import net.minichip.minecraftnickname.NicknameStore;
+import org.bukkit.entity.Player;
+import org.bukkit.event.player.AsyncPlayerChatEvent;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+// onPlayerChat 경로: 실제 ChatFormatStage 에 AsyncPlayerChatEvent 를 넘기고, Bukkit 이 하듯 메시지와 합칩니다.
+// (이벤트는 서버 없이 만들 수 있고, 플레이어는 StandInPlayer 를 씁니다)
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ChatBenchmark {
+
+    @Param({"1000", "10000", "100000", "1000000"})
+    public int entries;
+
+    @Param({"20", "200", "1000"})
+    public int online;
+
+    private static final String MESSAGE = "안녕하세요 hello 100%";
+
+    private ChatFormatStage chatFormatStage;
+    private Player[] players;
+    private int cursor;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        NicknameStore store = BenchmarkData.store(entries);
+        chatFormatStage = new ChatFormatStage(new DisplayCache(store));
+        players = BenchmarkData.onlinePlayers(Math.min(online, entries));
+    }
+
+    private AsyncPlayerChatEvent nextEvent() {
+        Player player = players[cursor];
+        cursor = (cursor + 1 == players.length) ? 0 : cursor + 1;
+        return new AsyncPlayerChatEvent(true, player, MESSAGE, Collections.emptySet());
+    }
+
+    // 이벤트 처리 본문: ChatFormatStage.apply 가 이벤트에 형식을 설정합니다.
+    @Benchmark
+    public String chatFormat() {
+        AsyncPlayerChatEvent event = nextEvent();
+        chatFormatStage.apply(event);
+        return event.getFormat();
+    }
+
+    // 형식 적용 후 Bukkit 이 만드는 최종 채팅 문자열까지
+    @Benchmark
+    public String chatMessage() {
+        AsyncPlayerChatEvent event = nextEvent();
+        chatFormatStage.apply(event);
+        return String.format(event.getFormat(), event.getPlayer().getDisplayName(), event.getMessage());
+    }
+}
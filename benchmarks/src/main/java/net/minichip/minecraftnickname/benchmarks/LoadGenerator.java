@@ -0,0 +1,54 @@
+package net.minichip.minecraftnickname.benchmarks;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.Result;
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.Collection;
+import java.util.Map;
+
+// 접속/채팅 폭주 시나리오(StormBenchmark)를 GC 프로파일러와 함께 실행하고 작업별 처리량과 할당량을 요약합니다.
+// 사용법: java -cp benchmarks/target/benchmarks.jar net.minichip.minecraftnickname.benchmarks.LoadGenerator [entries] [online]
+public final class LoadGenerator {
+
+    private LoadGenerator() {
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        ChainedOptionsBuilder options = new OptionsBuilder()
+                .include(StormBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class);
+        if (args.length > 0) {
+            options.param("entries", args[0]);
+        }
+        if (args.length > 1) {
+            options.param("online", args[1]);
+        }
+        Collection<RunResult> results = new Runner(options.build()).run();
+
+        System.out.println();
+        System.out.println("=== 접속/채팅 폭주 요약 ===");
+        for (RunResult run : results) {
+            System.out.println(run.getParams().getParam("entries") + "개 / 접속 " + run.getParams().getParam("online") + "명");
+            Map<String, Result> secondary = run.getSecondaryResults();
+            for (String operation : new String[]{"join", "chat"}) {
+                Result throughput = secondary.get(operation);
+                if (throughput != null) {
+                    System.out.printf("  %-5s %,.0f ops/s%n", operation, throughput.getScore());
+                }
+            }
+            Result allocRate = secondary.get("gc.alloc.rate");
+            Result allocNorm = secondary.get("gc.alloc.rate.norm");
+            if (allocRate != null) {
+                System.out.printf("  할당 속도 %,.1f MB/s%n", allocRate.getScore());
+            }
+            if (allocNorm != null) {
+                System.out.printf("  작업당 할당 %,.1f B/op%n", allocNorm.getScore());
+            }
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package net.minichip.minecraftnickname.benchmarks;
+
+import net.minichip.minecraftnickname.NicknameRecord;
+import net.minichip.minecraftnickname.NicknameStore;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+// 닉네임 중복 검사와 닉네임/이름 검색 (예전에는 전체 순회, 지금은 색인 조회)
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class NickLookupBenchmark {
+
+    @Param({"1000", "10000", "100000", "1000000"})
+    public int entries;
+
+    private NicknameStore store;
+    private int cursor;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        store = BenchmarkData.store(entries);
+    }
+
+    private int next() {
+        cursor = (cursor + 1 == entries) ? 0 : cursor + 1;
+        return cursor;
+    }
+
+    @Benchmark
+    public boolean isNickTakenHit() {
+        return store.isNickTaken(BenchmarkData.nick(next()), null);
+    }
+
+    @Benchmark
+    public boolean isNickTakenMiss() {
+        return store.isNickTaken("없는닉네임" + next(), null);
+    }
+
+    // /nickmodify, /nickdel 의 대상 검색 (닉네임 먼저, 없으면 이름)
+    @Benchmark
+    public NicknameRecord findByNickOrName() {
+        String target = BenchmarkData.playerName(next());
+        NicknameRecord record = store.findByNick(target);
+        return (record != null) ? record : store.findByName(target);
+    }
+}
@@ -0,0 +1,66 @@
+package net.minichip.minecraftnickname.benchmarks;
+
+import net.minichip.minecraftnickname.NicknameJsonReader;
+import net.minichip.minecraftnickname.NicknameJsonWriter;
+import net.minichip.minecraftnickname.NicknameRecord;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
+
+// saveNicknames/loadNicknames 경로: nicknames.json 전체 쓰기(fsync + 원자적 교체)와 스트리밍 읽기
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 2)
+@Fork(1)
+public class PersistenceBenchmark {
+
+    private static final Logger LOGGER = Logger.getLogger("MinecraftNickname-benchmarks");
+
+    @Param({"1000", "10000", "100000", "1000000"})
+    public int entries;
+
+    private List<NicknameRecord> records;
+    private File readFile;
+    private File writeFile;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        records = BenchmarkData.records(entries);
+        readFile = BenchmarkData.writeNicknameFile(entries);
+        writeFile = File.createTempFile("nicknames-save-", ".json");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        readFile.delete();
+        writeFile.delete();
+    }
+
+    @Benchmark
+    public long save() throws IOException {
+        return NicknameJsonWriter.writeAtomically(records, writeFile.toPath());
+    }
+
+    @Benchmark
+    public int load() throws IOException {
+        return NicknameJsonReader.read(readFile, LOGGER).records().size();
+    }
+}
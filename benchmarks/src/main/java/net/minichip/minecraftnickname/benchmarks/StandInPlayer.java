@@ -0,0 +1,81 @@
+package net.minichip.minecraftnickname.benchmarks;
+
+import org.bukkit.entity.Player;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.UUID;
+
+// 서버 없이 실행하기 위한 가벼운 Player 대역
+// 플러그인이 사용하는 메서드(getUniqueId, getName, getDisplayName, setPlayerListName, getPlayerListName)만 동작하고
+// 나머지는 기본값(null, 0, false)을 돌려줍니다.
+final class StandInPlayer implements InvocationHandler {
+
+    private final UUID uuid;
+    private final String name;
+    private String playerListName;
+
+    private StandInPlayer(UUID uuid, String name) {
+        this.uuid = uuid;
+        this.name = name;
+        this.playerListName = name;
+    }
+
+    static Player create(UUID uuid, String name) {
+        return (Player) Proxy.newProxyInstance(Player.class.getClassLoader(), new Class<?>[]{Player.class},
+                new StandInPlayer(uuid, name));
+    }
+
+    @Override
+    public Object invoke(Object proxy, Method method, Object[] args) {
+        switch (method.getName()) {
+            case "getUniqueId":
+                return uuid;
+            case "getName":
+            case "getDisplayName":
+                return name;
+            case "getPlayerListName":
+                return playerListName;
+            case "setPlayerListName":
+                playerListName = (String) args[0];
+                return null;
+            case "hashCode":
+                return uuid.hashCode();
+            case "equals":
+                return proxy == args[0];
+            case "toString":
+                return "StandInPlayer{" + name + "}";
+            default:
+                return defaultValue(method.getReturnType());
+        }
+    }
+
+    static Object defaultValue(Class<?> type) {
+        if (!type.isPrimitive() || type == void.class) {
+            return null;
+        }
+        if (type == boolean.class) {
+            return false;
+        }
+        if (type == char.class) {
+            return '\0';
+        }
+        if (type == long.class) {
+            return 0L;
+        }
+        if (type == float.class) {
+            return 0f;
+        }
+        if (type == double.class) {
+            return 0d;
+        }
+        if (type == int.class) {
+            return 0;
+        }
+        if (type == short.class) {
+            return (short) 0;
+        }
+        return (byte) 0;
+    }
+}
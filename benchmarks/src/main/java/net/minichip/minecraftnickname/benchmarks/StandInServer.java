@@ -0,0 +1,119 @@
+package net.minichip.minecraftnickname.benchmarks;
+
+import org.bukkit.Bukkit;
+import org.bukkit.Server;
+import org.bukkit.entity.Player;
+import org.bukkit.plugin.Plugin;
+import org.bukkit.scheduler.BukkitScheduler;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.logging.Logger;
+
+// 서버 없이 TabListUpdater 같은 실제 클래스를 돌리기 위한 Server / BukkitScheduler / Plugin 대역
+// - runTask 는 예약하지 않고 호출한 스레드에서 바로 실행합니다. (다음 틱 처리까지 한 번의 호출로 측정)
+// - getOnlinePlayers, getPlayer(UUID) 는 setOnlinePlayers 로 넣은 StandInPlayer 를 돌려줍니다.
+// 나머지 메서드는 StandInPlayer 와 같이 기본값(null, 0, false)을 돌려줍니다.
+final class StandInServer implements InvocationHandler {
+
+    private static final Logger LOGGER = Logger.getLogger("StandInServer");
+    private static final StandInServer INSTANCE = new StandInServer();
+    private static final Plugin PLUGIN = (Plugin) Proxy.newProxyInstance(Plugin.class.getClassLoader(),
+            new Class<?>[]{Plugin.class}, (proxy, method, args) -> {
+                switch (method.getName()) {
+                    case "isEnabled":
+                        return true;
+                    case "getLogger":
+                        return LOGGER;
+                    case "getName":
+                        return "MinecraftNickname";
+                    case "hashCode":
+                        return System.identityHashCode(proxy);
+                    case "equals":
+                        return proxy == args[0];
+                    default:
+                        return StandInPlayer.defaultValue(method.getReturnType());
+                }
+            });
+
+    private final BukkitScheduler scheduler = (BukkitScheduler) Proxy.newProxyInstance(BukkitScheduler.class.getClassLoader(),
+            new Class<?>[]{BukkitScheduler.class}, this::invokeScheduler);
+    private volatile Collection<Player> onlinePlayers = Collections.emptyList();
+    private volatile Map<UUID, Player> playersById = Collections.emptyMap();
+
+    private StandInServer() {
+    }
+
+    // Bukkit 서버는 JVM 에 한 번만 설정할 수 있으므로 처음 한 번만 등록하고, 접속 중인 플레이어만 바꿉니다.
+    static synchronized void install(Player[] players) {
+        if (Bukkit.getServer() == null) {
+            Bukkit.setServer((Server) Proxy.newProxyInstance(Server.class.getClassLoader(), new Class<?>[]{Server.class},
+                    INSTANCE));
+        }
+        INSTANCE.setOnlinePlayers(players);
+    }
+
+    static Plugin plugin() {
+        return PLUGIN;
+    }
+
+    private void setOnlinePlayers(Player[] players) {
+        Map<UUID, Player> byId = new HashMap<>(players.length * 2);
+        for (Player player : players) {
+            byId.put(player.getUniqueId(), player);
+        }
+        onlinePlayers = Collections.unmodifiableList(Arrays.asList(players.clone()));
+        playersById = byId;
+    }
+
+    @Override
+    public Object invoke(Object proxy, Method method, Object[] args) {
+        switch (method.getName()) {
+            case "getScheduler":
+                return scheduler;
+            case "getOnlinePlayers":
+                return onlinePlayers;
+            case "getPlayer":
+                return (args[0] instanceof UUID) ? playersById.get(args[0]) : null;
+            case "getLogger":
+                return LOGGER;
+            case "getName":
+                return "StandInServer";
+            case "getVersion":
+            case "getBukkitVersion":
+                return "benchmark";
+            case "isPrimaryThread":
+                return true;
+            case "hashCode":
+                return System.identityHashCode(proxy);
+            case "equals":
+                return proxy == args[0];
+            default:
+                return StandInPlayer.defaultValue(method.getReturnType());
+        }
+    }
+
+    private Object invokeScheduler(Object proxy, Method method, Object[] args) {
+        switch (method.getName()) {
+            case "runTask":
+            case "runTaskAsynchronously":
+                if (args.length == 2 && args[1] instanceof Runnable) {
+                    ((Runnable) args[1]).run();
+                }
+                return null;
+            case "hashCode":
+                return System.identityHashCode(proxy);
+            case "equals":
+                return proxy == args[0];
+            default:
+                return StandInPlayer.defaultValue(method.getReturnType());
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package net.minichip.minecraftnickname.benchmarks;
+
+import net.minichip.minecraftnickname.DisplayCache;
+import net.minichip.minecraftnickname.NicknameRecord;
+import net.minichip.minecraftnickname.NicknameStore;
+import net.minichip.minecraftnickname.UuidCache;
+import org.bukkit.entity.Player;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// 접속/채팅 폭주 시나리오: 접속 처리 스레드 1개와 비동기 채팅 스레드 여러 개가 같은 저장소를 동시에 사용합니다.
+// 접속 64번 중 1번은 이름이 바뀐 플레이어로 보고 저장소에 쓰기(스냅샷 교체)가 일어납니다.
+// LoadGenerator 로 실행하면 작업별 처리량과 할당량(gc.alloc.rate.norm)을 함께 보여줍니다.
+@State(Scope.Group)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class StormBenchmark {
+
+    @Param({"10000", "100000", "1000000"})
+    public int entries;
+
+    @Param({"200", "1000"})
+    public int online;
+
+    private NicknameStore store;
+    private DisplayCache displayCache;
+    private UuidCache uuidCache;
+    private Player[] players;
+    private final AtomicInteger joins = new AtomicInteger();
+    private final AtomicInteger chats = new AtomicInteger();
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        store = BenchmarkData.store(entries);
+        displayCache = new DisplayCache(store);
+        uuidCache = new UuidCache(10000, TimeUnit.DAYS.toMillis(1), TimeUnit.MINUTES.toMillis(10));
+        players = BenchmarkData.onlinePlayers(Math.min(online, entries));
+    }
+
+    // onPlayerJoin 본문: UUID 캐시 갱신, 이름 변경 확인, 입장 메시지
+    @Benchmark
+    @Group("storm")
+    @GroupThreads(1)
+    public String join() {
+        int seq = joins.getAndIncrement();
+        Player player = players[Math.floorMod(seq, players.length)];
+        UUID uuid = player.getUniqueId();
+        String name = ((seq & 63) == 0) ? player.getName() + "_" + (seq >>> 6) % 2 : player.getName();
+        uuidCache.put(name, uuid);
+        NicknameRecord record = store.get(uuid);
+        if (record != null && !name.equals(record.name())) {
+            store.put(record.withName(name));
+        }
+        return displayCache.get(uuid, name).joinMessage();
+    }
+
+    // onPlayerChat 본문
+    @Benchmark
+    @Group("storm")
+    @GroupThreads(4)
+    public String chat() {
+        Player player = players[Math.floorMod(chats.getAndIncrement(), players.length)];
+        return displayCache.get(player.getUniqueId(), player.getName()).chatFormat();
+    }
+}
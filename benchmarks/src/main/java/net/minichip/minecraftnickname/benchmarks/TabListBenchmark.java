@@ -0,0 +1,69 @@
+package net.minichip.minecraftnickname.benchmarks;
+
+import net.minichip.minecraftnickname.DisplayCache;
+import net.minichip.minecraftnickname.NicknameRecord;
+import net.minichip.minecraftnickname.NicknameStore;
+import net.minichip.minecraftnickname.TabListUpdater;
+import org.bukkit.entity.Player;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+// 탭 리스트 이름 적용 경로: 실제 TabListUpdater 를 StandInServer 위에서 실행합니다.
+// (StandInServer 의 runTask 는 바로 실행되므로 한 번의 호출에 다음 틱 처리까지 포함됩니다)
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TabListBenchmark {
+
+    @Param({"1000", "10000", "100000", "1000000"})
+    public int entries;
+
+    @Param({"20", "200", "1000"})
+    public int online;
+
+    private NicknameStore store;
+    private TabListUpdater tabListUpdater;
+    private Player[] players;
+    private int changes;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        store = BenchmarkData.store(entries);
+        players = BenchmarkData.onlinePlayers(Math.min(online, entries));
+        StandInServer.install(players);
+        tabListUpdater = new TabListUpdater(StandInServer.plugin(), new DisplayCache(store));
+        store.addListener(tabListUpdater);
+        // 처음 한 번은 모두 보내고, 측정은 바뀐 것이 없는 상태에서 시작합니다.
+        tabListUpdater.markAllDirty();
+    }
+
+    // 접속 중인 모든 플레이어 확인 (markAllDirty). 바뀐 것이 없으면 패킷을 보내지 않습니다.
+    @Benchmark
+    public void applyAll() {
+        tabListUpdater.markAllDirty();
+    }
+
+    // 한 플레이어의 닉네임 변경(저장소 스냅샷 교체 포함) 후 리스너를 거쳐 그 플레이어만 갱신
+    @Benchmark
+    public String nickChangeAndApply() {
+        Player player = players[changes % players.length];
+        NicknameRecord record = store.get(player.getUniqueId());
+        store.put(record.withNick("변경" + changes++));
+        return player.getPlayerListName();
+    }
+}
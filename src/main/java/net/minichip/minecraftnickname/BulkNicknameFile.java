@@ -0,0 +1,252 @@
+package net.minichip.minecraftnickname;
+
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+import org.json.JSONTokener;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import java.util.UUID;
+
+// /nickimport, /nickexport 에서 쓰는 CSV/JSON 파일 형식
+// - CSV: uuid,name,nick (첫 줄이 머리글이면 열 이름으로 순서를 정하고, 없으면 name,nick,uuid 순서)
+// - JSON: [{ "uuid": "...", "name": "...", "nick": "..." }, ...]
+//   또는 nicknames.json 형식({ "uuid": { "name": "...", "nick": "..." } }) 그대로
+// uuid 는 비워 둘 수 있으며, 그러면 name 으로 조회합니다.
+public final class BulkNicknameFile {
+
+    // line: CSV 는 줄 번호, JSON 은 항목 번호 (1부터)
+    public record Row(int line, String name, String nick, UUID uuid) {
+    }
+
+    public record RowError(int line, String message) {
+    }
+
+    private BulkNicknameFile() {
+    }
+
+    public static boolean isCsv(File file) {
+        return file.getName().toLowerCase(Locale.ROOT).endsWith(".csv");
+    }
+
+    // 파일을 읽습니다. 형식이 잘못된 줄은 errors 에 넣고 건너뜁니다.
+    public static List<Row> read(File file, List<RowError> errors) throws IOException {
+        try (BufferedReader reader = Files.newBufferedReader(file.toPath(), StandardCharsets.UTF_8)) {
+            return isCsv(file) ? readCsv(reader, errors) : readJson(reader, errors);
+        } catch (JSONException e) {
+            throw new IOException("JSON 형식 오류: " + e.getMessage(), e);
+        }
+    }
+
+    private static List<Row> readCsv(BufferedReader reader, List<RowError> errors) throws IOException {
+        List<Row> rows = new ArrayList<>();
+        int nameColumn = 0;
+        int nickColumn = 1;
+        int uuidColumn = 2;
+        String line;
+        int lineNumber = 0;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            if (lineNumber == 1 && !line.isEmpty() && line.charAt(0) == '\uFEFF') {
+                line = line.substring(1);
+            }
+            if (line.isBlank()) {
+                continue;
+            }
+            List<String> fields = splitCsv(line);
+            if (lineNumber == 1 && isHeader(fields)) {
+                nameColumn = fields.indexOf("name");
+                nickColumn = fields.indexOf("nick");
+                uuidColumn = fields.indexOf("uuid");
+                continue;
+            }
+            String name = field(fields, nameColumn);
+            String nick = field(fields, nickColumn);
+            String uuidText = field(fields, uuidColumn);
+            UUID uuid = null;
+            if (uuidText != null) {
+                uuid = parseUuid(uuidText);
+                if (uuid == null) {
+                    errors.add(new RowError(lineNumber, "UUID 형식이 잘못되었습니다: " + uuidText));
+                    continue;
+                }
+            }
+            rows.add(new Row(lineNumber, name, nick, uuid));
+        }
+        return rows;
+    }
+
+    private static boolean isHeader(List<String> fields) {
+        for (int i = 0; i < fields.size(); i++) {
+            fields.set(i, fields.get(i).trim().toLowerCase(Locale.ROOT));
+        }
+        return fields.contains("nick");
+    }
+
+    private static String field(List<String> fields, int column) {
+        if (column < 0 || column >= fields.size()) {
+            return null;
+        }
+        String value = fields.get(column).trim();
+        return value.isEmpty() ? null : value;
+    }
+
+    // 따옴표로 감싼 필드와 "" 이스케이프를 지원하는 CSV 한 줄 분리
+    static List<String> splitCsv(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"') {
+                    if (i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                        current.append('"');
+                        i++;
+                    } else {
+                        quoted = false;
+                    }
+                } else {
+                    current.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(current.toString());
+                current.setLength(0);
+            } else {
+                current.append(c);
+            }
+        }
+        fields.add(current.toString());
+        return fields;
+    }
+
+    private static List<Row> readJson(Reader reader, List<RowError> errors) {
+        Object root = new JSONTokener(reader).nextValue();
+        List<Row> rows = new ArrayList<>();
+        if (root instanceof JSONArray) {
+            JSONArray array = (JSONArray) root;
+            for (int i = 0; i < array.length(); i++) {
+                JSONObject item = array.optJSONObject(i);
+                if (item == null) {
+                    errors.add(new RowError(i + 1, "객체가 아닙니다."));
+                    continue;
+                }
+                addJsonRow(rows, errors, i + 1, item.optString("uuid", null), item.optString("name", null), item.optString("nick", null));
+            }
+        } else if (root instanceof JSONObject) {
+            // nicknames.json 형식
+            JSONObject object = (JSONObject) root;
+            int index = 0;
+            for (String key : object.keySet()) {
+                index++;
+                JSONObject item = object.optJSONObject(key);
+                if (item == null) {
+                    errors.add(new RowError(index, key + ": 객체가 아닙니다."));
+                    continue;
+                }
+                addJsonRow(rows, errors, index, key, item.optString("name", null), item.optString("nick", null));
+            }
+        } else {
+            throw new JSONException("배열이나 객체가 아닙니다.");
+        }
+        return rows;
+    }
+
+    private static void addJsonRow(List<Row> rows, List<RowError> errors, int index, String uuidText, String name, String nick) {
+        UUID uuid = null;
+        if (uuidText != null && !uuidText.isBlank()) {
+            uuid = parseUuid(uuidText.trim());
+            if (uuid == null) {
+                errors.add(new RowError(index, "UUID 형식이 잘못되었습니다: " + uuidText));
+                return;
+            }
+        }
+        rows.add(new Row(index, blankToNull(name), blankToNull(nick), uuid));
+    }
+
+    private static String blankToNull(String value) {
+        return (value == null || value.isBlank()) ? null : value.trim();
+    }
+
+    // 하이픈이 있거나 없는 UUID
+    private static UUID parseUuid(String text) {
+        if (text.length() == 32) {
+            return MojangAPI.parseUUID(text);
+        }
+        try {
+            return UUID.fromString(text);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    // 기록을 파일로 씁니다. (임시 파일에 쓴 뒤 교체하므로 중간에 실패해도 기존 파일이 남습니다)
+    public static void write(Collection<NicknameRecord> records, File file) throws IOException {
+        Path target = file.toPath();
+        Path temp = target.resolveSibling(target.getFileName() + ".tmp");
+        try (BufferedWriter writer = Files.newBufferedWriter(temp, StandardCharsets.UTF_8)) {
+            if (isCsv(file)) {
+                writeCsv(records, writer);
+            } else {
+                writeJson(records, writer);
+            }
+        }
+        Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    private static void writeCsv(Collection<NicknameRecord> records, Writer out) throws IOException {
+        out.write("uuid,name,nick\n");
+        for (NicknameRecord record : records) {
+            out.write(record.uuid().toString());
+            out.write(',');
+            out.write(csvField(record.name()));
+            out.write(',');
+            out.write(csvField(record.nick()));
+            out.write('\n');
+        }
+    }
+
+    private static String csvField(String value) {
+        if (value == null) {
+            return "";
+        }
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+
+    private static void writeJson(Collection<NicknameRecord> records, Writer out) throws IOException {
+        out.write("[\n");
+        boolean first = true;
+        for (NicknameRecord record : records) {
+            if (!first) {
+                out.write(",\n");
+            }
+            first = false;
+            out.write("  { \"uuid\": \"");
+            out.write(record.uuid().toString());
+            out.write("\", \"name\": ");
+            out.write(record.name() != null ? JSONObject.quote(record.name()) : "null");
+            out.write(", \"nick\": ");
+            out.write(record.nick() != null ? JSONObject.quote(record.nick()) : "null");
+            out.write(" }");
+        }
+        out.write("\n]\n");
+    }
+}
@@ -0,0 +1,215 @@
+package net.minichip.minecraftnickname;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.logging.Logger;
+
+// 일괄 가져오기 (/nickimport)
+// 1. prepare (비동기 스레드): 파일을 읽고 묶음 전체를 한 번에 검증한 뒤, UUID 가 없는 행은
+//    UUID 캐시 -> 대량 조회(동시 요청, 요청 한도에 맞춰 대기) 순서로 채웁니다.
+// 2. commit (메인 스레드): 최신 스냅샷으로 닉네임 충돌을 다시 확인하고 putAll 로 한 번에 반영합니다.
+//    저장소와 탭 리스트는 리스너를 통해 각각 한 번에 모아서 처리됩니다.
+// 문제가 있는 행은 건너뛰고 줄 번호와 함께 오류로 보고합니다.
+public final class BulkNicknameImport {
+
+    // lines: UUID -> 파일의 줄 번호 (commit 단계의 오류 보고용)
+    public record Plan(List<NicknameRecord> records, List<BulkNicknameFile.RowError> errors, int rows, Map<UUID, Integer> lines) {
+    }
+
+    private final NicknameStore store;
+    private final UuidCache uuidCache;
+    private final BulkProfileResolver resolver;
+    private final File checkpointFile;
+    private final int concurrency;
+    private final int maxAttempts;
+    private final Logger logger;
+
+    public BulkNicknameImport(NicknameStore store, UuidCache uuidCache, BulkProfileResolver resolver, File checkpointFile,
+                              int concurrency, int maxAttempts, Logger logger) {
+        this.store = store;
+        this.uuidCache = uuidCache;
+        this.resolver = resolver;
+        this.checkpointFile = checkpointFile;
+        this.concurrency = concurrency;
+        this.maxAttempts = maxAttempts;
+        this.logger = logger;
+    }
+
+    public Plan prepare(File file) throws IOException, InterruptedException {
+        List<BulkNicknameFile.RowError> errors = new ArrayList<>();
+        List<BulkNicknameFile.Row> rows = BulkNicknameFile.read(file, errors);
+        NicknameSnapshot snapshot = store.snapshot();
+
+        // 1차 검증: 값 자체와 파일 안의 중복 (색인 조회만 하므로 행 수에 비례)
+        Map<String, Integer> nickLines = new HashMap<>();
+        Map<String, Integer> playerLines = new HashMap<>();
+        List<BulkNicknameFile.Row> valid = new ArrayList<>();
+        Map<String, String> toResolve = new HashMap<>();
+        for (BulkNicknameFile.Row row : rows) {
+            if (row.nick() == null) {
+                errors.add(new BulkNicknameFile.RowError(row.line(), "닉네임이 비어 있습니다."));
+                continue;
+            }
+            if (!NicknameRecord.isValidNick(row.nick())) {
+                errors.add(new BulkNicknameFile.RowError(row.line(),
+                        "닉네임은 " + NicknameRecord.MAX_NICK_LENGTH + "자 이하여야 합니다: " + row.nick()));
+                continue;
+            }
+            if (!NicknameRecord.isValidName(row.name())) {
+                errors.add(new BulkNicknameFile.RowError(row.line(),
+                        "플레이어 이름은 " + NicknameRecord.MAX_NAME_LENGTH + "자 이하여야 합니다: " + row.name()));
+                continue;
+            }
+            if (row.uuid() == null && (row.name() == null || !MojangAPI.isValidName(row.name()))) {
+                errors.add(new BulkNicknameFile.RowError(row.line(), "UUID가 없고 플레이어 이름도 올바르지 않습니다: " + row.name()));
+                continue;
+            }
+            Integer sameNick = nickLines.putIfAbsent(NicknameKeys.fold(row.nick()), row.line());
+            if (sameNick != null) {
+                errors.add(new BulkNicknameFile.RowError(row.line(), sameNick + "번째 줄과 닉네임이 겹칩니다: " + row.nick()));
+                continue;
+            }
+            String playerKey = (row.uuid() != null) ? row.uuid().toString() : NicknameKeys.fold(row.name());
+            Integer samePlayer = playerLines.putIfAbsent(playerKey, row.line());
+            if (samePlayer != null) {
+                errors.add(new BulkNicknameFile.RowError(row.line(), samePlayer + "번째 줄과 같은 플레이어입니다."));
+                continue;
+            }
+            if (row.uuid() == null) {
+                UuidCache.Entry cached = uuidCache.get(row.name());
+                if (cached != null && cached.isMiss()) {
+                    errors.add(new BulkNicknameFile.RowError(row.line(), "UUID를 찾을 수 없는 플레이어입니다: " + row.name()));
+                    continue;
+                }
+                if (cached == null) {
+                    toResolve.put(row.name(), row.nick());
+                }
+            }
+            valid.add(row);
+        }
+
+        // UUID 가 없는 행을 한 번에 조회합니다.
+        Map<String, UUID> resolved = new HashMap<>();
+        Set<String> missing = new HashSet<>();
+        Set<String> failed = new HashSet<>();
+        if (!toResolve.isEmpty()) {
+            logger.info("일괄 가져오기: " + toResolve.size() + "명의 UUID를 조회합니다.");
+            LegacyMigration lookup = new LegacyMigration(resolver, checkpointFile, concurrency, maxAttempts, logger);
+            LegacyMigration.Result result = lookup.run(toResolve);
+            lookup.deleteCheckpoint();
+            for (NicknameRecord record : result.records()) {
+                resolved.put(NicknameKeys.fold(record.name()), record.uuid());
+                uuidCache.put(record.name(), record.uuid());
+            }
+            for (String name : result.missing()) {
+                missing.add(NicknameKeys.fold(name));
+                uuidCache.putMiss(name);
+            }
+            for (String name : result.failed()) {
+                failed.add(NicknameKeys.fold(name));
+            }
+        }
+
+        // 2차 검증: UUID 기준 중복과 현재 색인과의 닉네임 충돌
+        List<NicknameRecord> records = new ArrayList<>();
+        Map<UUID, Integer> uuidLines = new HashMap<>();
+        for (BulkNicknameFile.Row row : valid) {
+            UUID uuid = row.uuid();
+            if (uuid == null) {
+                String key = NicknameKeys.fold(row.name());
+                if (failed.contains(key)) {
+                    errors.add(new BulkNicknameFile.RowError(row.line(), "UUID 조회에 실패했습니다. 잠시 후 다시 시도하세요: " + row.name()));
+                    continue;
+                }
+                if (missing.contains(key)) {
+                    errors.add(new BulkNicknameFile.RowError(row.line(), "UUID를 찾을 수 없는 플레이어입니다: " + row.name()));
+                    continue;
+                }
+                uuid = resolved.get(key);
+                if (uuid == null) {
+                    UuidCache.Entry cached = uuidCache.get(row.name());
+                    uuid = (cached != null) ? cached.uuid() : null;
+                }
+                if (uuid == null) {
+                    errors.add(new BulkNicknameFile.RowError(row.line(), "UUID를 찾을 수 없는 플레이어입니다: " + row.name()));
+                    continue;
+                }
+            }
+            Integer sameUuid = uuidLines.putIfAbsent(uuid, row.line());
+            if (sameUuid != null) {
+                errors.add(new BulkNicknameFile.RowError(row.line(), sameUuid + "번째 줄과 같은 플레이어입니다. (" + uuid + ")"));
+                continue;
+            }
+            records.add(new NicknameRecord(uuid, row.name(), row.nick()));
+        }
+        List<NicknameRecord> accepted = withoutConflicts(snapshot, records, errors, uuidLines);
+        return new Plan(accepted, errors, rows.size(), uuidLines);
+    }
+
+    // 메인 스레드에서 최신 상태로 다시 확인한 뒤 한 번에 반영합니다. 반영된 기록을 반환합니다.
+    public static List<NicknameRecord> commit(NicknameStore store, Plan plan, List<BulkNicknameFile.RowError> errors) {
+        NicknameSnapshot snapshot = store.snapshot();
+        List<NicknameRecord> records = new ArrayList<>(plan.records().size());
+        for (NicknameRecord record : plan.records()) {
+            // 이름 없이 UUID 만 준 행은 저장된 이름을 유지합니다. 변경 대기 시간 기록도 그대로 둡니다.
+            NicknameRecord existing = snapshot.get(record.uuid());
+            if (existing != null) {
+                record = record.withChangedAt(existing.changedAt());
+                if (record.name() == null) {
+                    record = record.withName(existing.name());
+                }
+            }
+            records.add(record);
+        }
+        List<NicknameRecord> accepted = withoutConflicts(snapshot, records, errors, plan.lines());
+        store.putAll(accepted);
+        return accepted;
+    }
+
+    // 현재 닉네임 주인이 이 묶음에서 다른 닉네임으로 바뀌는 경우는 충돌로 보지 않습니다. (닉네임 맞바꾸기)
+    // 단, 주인의 행도 받아들여져야 하므로 거절된 행이 생기면 그 행에 기대던 행을 다시 확인합니다.
+    // (예: A 가 x, C 가 y 를 가진 상태에서 B->x, A->y 이면 A->y 가 거절되므로 B->x 도 거절됩니다)
+    private static List<NicknameRecord> withoutConflicts(NicknameSnapshot snapshot, List<NicknameRecord> records,
+                                                        List<BulkNicknameFile.RowError> errors, Map<UUID, Integer> lines) {
+        Map<UUID, String> batchNicks = new HashMap<>();
+        for (NicknameRecord record : records) {
+            batchNicks.put(record.uuid(), NicknameKeys.fold(record.nick()));
+        }
+        Set<UUID> rejected = new HashSet<>();
+        boolean changed = true;
+        while (changed) {
+            changed = false;
+            for (NicknameRecord record : records) {
+                if (rejected.contains(record.uuid())) {
+                    continue;
+                }
+                String key = batchNicks.get(record.uuid());
+                UUID owner = snapshot.ownerOfNick(key);
+                boolean ownerMoves = owner != null && batchNicks.containsKey(owner) && !key.equals(batchNicks.get(owner));
+                if (owner != null && !owner.equals(record.uuid()) && !ownerMoves) {
+                    Integer line = lines.get(record.uuid());
+                    errors.add(new BulkNicknameFile.RowError(line != null ? line : 0,
+                            "이미 다른 플레이어가 사용 중인 닉네임입니다: " + record.nick()));
+                    // 거절된 행은 묶음에서 빼서, 이 플레이어가 닉네임을 비워 줄 것이라고 보지 않게 합니다.
+                    rejected.add(record.uuid());
+                    batchNicks.remove(record.uuid());
+                    changed = true;
+                }
+            }
+        }
+        List<NicknameRecord> accepted = new ArrayList<>(records.size() - rejected.size());
+        for (NicknameRecord record : records) {
+            if (!rejected.contains(record.uuid())) {
+                accepted.add(record);
+            }
+        }
+        return accepted;
+    }
+}
@@ -0,0 +1,34 @@
+package net.minichip.minecraftnickname;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+// 여러 플레이어 이름을 한 번에 UUID 로 바꾸는 조회기
+// 구현을 바꿔 끼울 수 있도록 분리했습니다. (Mojang 대량 조회 API, 테스트용 로컬 서버 등)
+public interface BulkProfileResolver {
+
+    // 한 번의 resolve 호출에 넣을 수 있는 최대 이름 수
+    int maxBatchSize();
+
+    // 찾은 이름만 결과에 담아 반환합니다. 키는 NicknameKeys.fold 로 접힌 이름입니다.
+    // 결과에 없는 이름은 존재하지 않는 계정으로 봅니다.
+    // 요청 한도에 걸리면 RateLimitedException 을, 그 밖의 통신 오류는 IOException 을 던집니다.
+    Map<String, UUID> resolve(List<String> names) throws IOException;
+
+    // 요청 한도 초과 (HTTP 429)
+    class RateLimitedException extends IOException {
+        private final long retryAfterMillis;
+
+        public RateLimitedException(long retryAfterMillis) {
+            super("요청 한도 초과");
+            this.retryAfterMillis = retryAfterMillis;
+        }
+
+        // 서버가 알려준 대기 시간 (알 수 없으면 0)
+        public long getRetryAfterMillis() {
+            return retryAfterMillis;
+        }
+    }
+}
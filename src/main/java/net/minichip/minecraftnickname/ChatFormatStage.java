@@ -0,0 +1,29 @@
+package net.minichip.minecraftnickname;
+
+import org.bukkit.entity.Player;
+import org.bukkit.event.player.AsyncPlayerChatEvent;
+
+// 채팅 형식 단계 (AsyncPlayerChatEvent, 비동기 채팅 스레드에서 실행)
+// - 플레이어별로 미리 만들어 둔 형식 문자열을 DisplayCache 에서 꺼내 쓰기만 합니다.
+//   읽는 것은 불변 스냅샷, ConcurrentHashMap, volatile 필드뿐이라 메인 스레드와 잠금 없이 안전하게 함께 돌아갑니다.
+// - 메시지는 형식의 %2$s 자리에 인자로 들어가므로 메시지를 이스케이프하거나 이어 붙이지 않습니다.
+//   닉네임, 이름, 치환자 값의 % 는 캐시를 만들 때 한 번만 이스케이프하며, % 가 없으면 아무 작업도 하지 않습니다.
+public final class ChatFormatStage {
+
+    private final DisplayCache displayCache;
+
+    public ChatFormatStage(DisplayCache displayCache) {
+        this.displayCache = displayCache;
+    }
+
+    public void apply(AsyncPlayerChatEvent event) {
+        long startedAt = System.nanoTime();
+        Player player = event.getPlayer();
+        String format = displayCache.get(player.getUniqueId(), player.getName()).chatFormat();
+        // setFormat 은 형식이 올바른지 확인하려고 String.format 을 한 번 실행하므로, 이미 같은 형식이면 건너뜁니다.
+        if (!format.equals(event.getFormat())) {
+            event.setFormat(format);
+        }
+        PluginMetrics.CHAT_FORMAT.recordSince(startedAt);
+    }
+}
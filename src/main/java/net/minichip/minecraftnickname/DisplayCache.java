@@ -0,0 +1,72 @@
+package net.minichip.minecraftnickname;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.logging.Logger;
+
+// 플레이어별 표시 문자열 캐시
+// 닉네임 기록은 불변 객체이므로, 캐시된 source 가 저장소의 현재 기록과 같은 객체인지만 비교하면
+// 닉네임이 바뀌었는지 알 수 있습니다. 바뀌지 않았다면 아무것도 새로 만들지 않고 그대로 돌려줍니다.
+// 다른 플러그인 치환자 값도 렌더링할 때 한 번만 만들어 함께 캐시되며, 치환자 목록의 generation 이 바뀌면 다시 만듭니다.
+public final class DisplayCache {
+
+    private final NicknameStore store;
+    private final PlaceholderHooks placeholders;
+    private final Map<UUID, DisplayNames> cache = new ConcurrentHashMap<>();
+    private volatile DisplayFormat format = DisplayFormat.defaults();
+
+    public DisplayCache(NicknameStore store) {
+        this(store, new PlaceholderHooks(Logger.getLogger(DisplayCache.class.getName())));
+    }
+
+    public DisplayCache(NicknameStore store, PlaceholderHooks placeholders) {
+        this.store = store;
+        this.placeholders = placeholders;
+    }
+
+    // 형식이 바뀌면 기존 캐시는 모두 버립니다.
+    public void setFormat(DisplayFormat format) {
+        this.format = format;
+        cache.clear();
+    }
+
+    public DisplayNames get(UUID uuid, String playerName) {
+        NicknameRecord record = store.get(uuid);
+        long generation = placeholders.generation();
+        DisplayNames cached = cache.get(uuid);
+        if (cached != null && cached.source() == record && cached.generation() == generation
+                && cached.playerName().equals(playerName)) {
+            PluginMetrics.DISPLAY_CACHE_HITS.increment();
+            return cached;
+        }
+        PluginMetrics.DISPLAY_CACHE_MISSES.increment();
+        DisplayNames rendered = render(format, uuid, record, playerName, generation);
+        cache.put(uuid, rendered);
+        return rendered;
+    }
+
+    public void remove(UUID uuid) {
+        cache.remove(uuid);
+    }
+
+    private DisplayNames render(DisplayFormat format, UUID uuid, NicknameRecord record, String playerName, long generation) {
+        String nick = (record != null) ? record.nick() : null;
+        Map<String, String> values = (format.placeholderKeys.isEmpty() || placeholders.isEmpty())
+                ? Map.of()
+                : placeholders.resolve(format.placeholderKeys, uuid, playerName, nick);
+        if (nick == null) {
+            // 닉네임 기록이 있으면 저장된 이름을, 없으면 현재 접속 이름을 사용합니다.
+            String shownName = (record != null && record.name() != null) ? record.name() : playerName;
+            return new DisplayNames(record, playerName, generation,
+                    format.chatNoNick.renderChatFormat(null, playerName, values),
+                    format.tabNoNick.render(null, shownName, values),
+                    format.joinNoNick.render(null, shownName, values));
+        }
+        String actualName = (record.name() != null) ? record.name() : playerName;
+        return new DisplayNames(record, playerName, generation,
+                format.chat.renderChatFormat(nick, playerName, values),
+                format.tab.render(nick, actualName, values),
+                format.join.render(nick, actualName, values));
+    }
+}
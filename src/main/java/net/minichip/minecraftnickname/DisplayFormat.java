@@ -0,0 +1,60 @@
+package net.minichip.minecraftnickname;
+
+import org.bukkit.configuration.file.YamlConfiguration;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+// config.yml 의 format 항목을 불러와 컴파일한 표시 형식 묶음
+public final class DisplayFormat {
+
+    static final String DEFAULT_CHAT = "&b[{nick}] &6<{name}> &f{message}";
+    static final String DEFAULT_CHAT_NO_NICK = "&6<{name}> &f{message}";
+    static final String DEFAULT_TAB = "&b[{nick}] &r{name}";
+    static final String DEFAULT_TAB_NO_NICK = "&r{name}";
+    static final String DEFAULT_JOIN = "&b[{nick}] &r{name}&a 님이 접속하셨습니다.";
+    static final String DEFAULT_JOIN_NO_NICK = "{name}&a 님이 접속하셨습니다.";
+
+    final NameTemplate chat;
+    final NameTemplate chatNoNick;
+    final NameTemplate tab;
+    final NameTemplate tabNoNick;
+    final NameTemplate join;
+    final NameTemplate joinNoNick;
+    // 여섯 형식에 쓰인 다른 플러그인 치환자 키 (없으면 치환자 값을 만들지 않습니다)
+    final List<String> placeholderKeys;
+
+    private DisplayFormat(String chat, String chatNoNick, String tab, String tabNoNick, String join, String joinNoNick) {
+        this.chat = NameTemplate.compile(chat);
+        this.chatNoNick = NameTemplate.compile(chatNoNick);
+        this.tab = NameTemplate.compile(tab);
+        this.tabNoNick = NameTemplate.compile(tabNoNick);
+        this.join = NameTemplate.compile(join);
+        this.joinNoNick = NameTemplate.compile(joinNoNick);
+        List<String> keys = new ArrayList<>();
+        for (NameTemplate template : new NameTemplate[] {this.chat, this.chatNoNick, this.tab, this.tabNoNick, this.join, this.joinNoNick}) {
+            for (String key : template.placeholderKeys()) {
+                if (!keys.contains(key)) {
+                    keys.add(key);
+                }
+            }
+        }
+        this.placeholderKeys = Collections.unmodifiableList(keys);
+    }
+
+    public static DisplayFormat defaults() {
+        return new DisplayFormat(DEFAULT_CHAT, DEFAULT_CHAT_NO_NICK, DEFAULT_TAB, DEFAULT_TAB_NO_NICK,
+                DEFAULT_JOIN, DEFAULT_JOIN_NO_NICK);
+    }
+
+    public static DisplayFormat load(YamlConfiguration config) {
+        return new DisplayFormat(
+                config.getString("format.chat", DEFAULT_CHAT),
+                config.getString("format.chat-no-nick", DEFAULT_CHAT_NO_NICK),
+                config.getString("format.tab", DEFAULT_TAB),
+                config.getString("format.tab-no-nick", DEFAULT_TAB_NO_NICK),
+                config.getString("format.join", DEFAULT_JOIN),
+                config.getString("format.join-no-nick", DEFAULT_JOIN_NO_NICK));
+    }
+}
@@ -0,0 +1,7 @@
+package net.minichip.minecraftnickname;
+
+// 한 플레이어에 대해 미리 렌더링해 둔 표시 문자열
+// source, playerName, generation(치환자 목록 버전)은 캐시가 아직 유효한지 확인하는 데 사용합니다.
+public record DisplayNames(NicknameRecord source, String playerName, long generation,
+                           String chatFormat, String tabName, String joinMessage) {
+}
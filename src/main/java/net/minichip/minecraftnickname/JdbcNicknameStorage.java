@@ -0,0 +1,536 @@
+package net.minichip.minecraftnickname;
+
+import java.io.File;
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLDataException;
+import java.sql.SQLException;
+import java.sql.SQLIntegrityConstraintViolationException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
+
+// 여러 서버가 함께 쓰는 데이터베이스(JDBC) 저장 방식
+// - 닉네임 중복은 데이터베이스의 UNIQUE 제약(nick_key)으로 막습니다.
+// - 변경은 모아 두었다가 batchIntervalMillis 마다 한 트랜잭션으로 기록합니다. 같은 플레이어의 연속 변경은 마지막 것만 씁니다.
+// - 트랜잭션마다 nickname_meta 의 전역 버전을 1 올려 기록하고, 다른 서버는 pollIntervalMillis 마다
+//   마지막으로 본 버전 이후의 행만 읽어 메모리(NicknameStore)에 반영합니다. 삭제는 deleted 표시로 남깁니다.
+// - 메모리의 NicknameStore 가 로컬 캐시 역할을 하며, 접속 직전에는 해당 플레이어 행만 따로 읽어 최신 상태로 맞춥니다.
+// 데이터베이스 작업은 모두 전용 스레드 하나에서 실행되므로 연결 하나만 사용합니다.
+public final class JdbcNicknameStorage implements NicknameStorage {
+
+    private static final String RECORDS_TABLE = "nickname_records";
+    private static final String META_TABLE = "nickname_meta";
+
+    // null 값을 담을 수 없는 ConcurrentHashMap 에서 "삭제" 를 나타내기 위한 값
+    private record PendingWrite(NicknameRecord record) {
+    }
+
+    private final NicknameStore store;
+    private final String url;
+    private final String username;
+    private final String password;
+    private final long batchIntervalMillis;
+    private final long pollIntervalMillis;
+    private final File importFile;
+    private final Logger logger;
+    private final ScheduledExecutorService executor;
+
+    // 아직 기록하지 않은 변경 (UUID 별 마지막 상태)
+    private final Map<UUID, PendingWrite> pending = new ConcurrentHashMap<>();
+
+    // 데이터베이스 스레드 전용
+    private Connection connection;
+    private long lastSeenVersion;
+    private boolean polling;
+
+    public JdbcNicknameStorage(NicknameStore store, String url, String username, String password,
+                               long batchIntervalMillis, long pollIntervalMillis, File importFile, Logger logger) {
+        this.store = store;
+        this.url = url;
+        this.username = username;
+        this.password = password;
+        this.batchIntervalMillis = Math.max(50L, batchIntervalMillis);
+        this.pollIntervalMillis = Math.max(500L, pollIntervalMillis);
+        this.importFile = importFile;
+        this.logger = logger;
+        this.executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "MinecraftNickname-jdbc");
+            thread.setDaemon(true);
+            return thread;
+        });
+        executor.scheduleWithFixedDelay(this::flushQuietly, this.batchIntervalMillis, this.batchIntervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public List<NicknameRecord> load() throws IOException {
+        return call(() -> {
+            flushPending();
+            Connection conn = connection();
+            lastSeenVersion = currentVersion(conn);
+            List<NicknameRecord> records = selectAll(conn);
+            // 읽기 트랜잭션을 끝내 다른 서버의 기록을 막지 않게 합니다. (SQLite 는 열린 읽기가 쓰기를 막고,
+            // MySQL 등은 트랜잭션이 열려 있는 동안 같은 시점의 내용만 보입니다)
+            conn.commit();
+            if (records.isEmpty() && lastSeenVersion == 0L) {
+                records = importFromJson();
+            }
+            // 처음 불러온 뒤부터 다른 서버의 변경을 확인합니다.
+            if (!polling) {
+                polling = true;
+                executor.scheduleWithFixedDelay(this::pollQuietly, pollIntervalMillis, pollIntervalMillis, TimeUnit.MILLISECONDS);
+            }
+            return records;
+        });
+    }
+
+    // 전체 기록을 읽기만 합니다. 변경 확인 위치(lastSeenVersion)는 건드리지 않으므로
+    // 아직 반영하지 않은 다른 서버의 변경은 다음 poll 에서 그대로 반영됩니다. (/nickexport)
+    @Override
+    public List<NicknameRecord> readAll() throws IOException {
+        return call(() -> {
+            flushPending();
+            List<NicknameRecord> records = selectAll(connection());
+            connection().commit();
+            return records;
+        });
+    }
+
+    private static List<NicknameRecord> selectAll(Connection conn) throws SQLException {
+        List<NicknameRecord> records = new ArrayList<>();
+        try (Statement statement = conn.createStatement();
+             ResultSet rs = statement.executeQuery("SELECT uuid, name, nick, changed_at FROM " + RECORDS_TABLE + " WHERE deleted = 0")) {
+            while (rs.next()) {
+                records.add(new NicknameRecord(UUID.fromString(rs.getString(1)), rs.getString(2), rs.getString(3), rs.getLong(4)));
+            }
+        }
+        return records;
+    }
+
+    // 데이터베이스가 비어 있고 기존 nicknames.json 이 있으면 한 번 가져옵니다. (json 저장 방식에서 옮겨 올 때)
+    private List<NicknameRecord> importFromJson() throws IOException, SQLException {
+        if (importFile == null || !importFile.exists()) {
+            return new ArrayList<>();
+        }
+        List<NicknameRecord> records = JsonNicknameStorage.readFile(importFile, logger);
+        if (records.isEmpty()) {
+            return records;
+        }
+        Map<UUID, PendingWrite> writes = new HashMap<>();
+        for (NicknameRecord record : records) {
+            writes.put(record.uuid(), new PendingWrite(record));
+        }
+        writeBatch(writes);
+        logger.info(importFile.getName() + " 에서 " + records.size() + "개의 닉네임을 데이터베이스로 가져왔습니다.");
+        return records;
+    }
+
+    // 한 플레이어의 행만 읽어 옵니다. 없거나 삭제되었으면 null. (접속 직전 최신 상태 확인용, 비동기 스레드에서 호출)
+    public NicknameRecord fetch(UUID uuid) throws IOException {
+        return call(() -> fetchNow(uuid));
+    }
+
+    // fetch 의 비동기 버전 (데이터베이스 스레드에서 읽고 완료됩니다)
+    public CompletableFuture<NicknameRecord> fetchAsync(UUID uuid) {
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                return fetchNow(uuid);
+            } catch (SQLException e) {
+                resetConnection();
+                throw new CompletionException(new IOException("데이터베이스 오류: " + e.getMessage(), e));
+            }
+        }, executor);
+    }
+
+    private NicknameRecord fetchNow(UUID uuid) throws SQLException {
+        // 아직 기록하지 않은 변경이 더 최신입니다.
+        PendingWrite write = pending.get(uuid);
+        if (write != null) {
+            return write.record();
+        }
+        try (PreparedStatement statement = connection().prepareStatement(
+                "SELECT name, nick, deleted, changed_at FROM " + RECORDS_TABLE + " WHERE uuid = ?")) {
+            statement.setString(1, uuid.toString());
+            NicknameRecord record = null;
+            try (ResultSet rs = statement.executeQuery()) {
+                if (rs.next() && rs.getInt(3) == 0) {
+                    record = new NicknameRecord(uuid, rs.getString(1), rs.getString(2), rs.getLong(4));
+                }
+            }
+            connection().commit();
+            return record;
+        }
+    }
+
+    // 아직 기록하지 않은 로컬 변경이 있는지 (있으면 원격 값으로 덮어쓰지 않습니다)
+    public boolean hasPendingWrite(UUID uuid) {
+        return pending.containsKey(uuid);
+    }
+
+    @Override
+    public void recordChanged(UUID uuid, NicknameRecord before, NicknameRecord after) {
+        pending.put(uuid, new PendingWrite(after));
+    }
+
+    @Override
+    public void saveAll() {
+        for (NicknameRecord record : store.snapshot().records()) {
+            pending.put(record.uuid(), new PendingWrite(record));
+        }
+    }
+
+    @Override
+    public void flush() {
+        try {
+            call(() -> {
+                flushPending();
+                return null;
+            });
+        } catch (IOException e) {
+            logger.severe("데이터베이스 저장 중 오류 발생: " + e.getMessage());
+        }
+    }
+
+    @Override
+    public void close() {
+        flush();
+        executor.shutdownNow();
+        try {
+            executor.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (connection != null) {
+            try {
+                connection.close();
+            } catch (SQLException e) {
+                logger.warning("데이터베이스 연결 종료 중 오류 발생: " + e.getMessage());
+            }
+        }
+    }
+
+    private interface DatabaseTask<T> {
+        T run() throws IOException, SQLException;
+    }
+
+    // 데이터베이스 스레드에서 작업을 실행하고 결과를 기다립니다.
+    private <T> T call(DatabaseTask<T> task) throws IOException {
+        try {
+            return executor.submit(() -> {
+                try {
+                    return task.run();
+                } catch (SQLException e) {
+                    resetConnection();
+                    throw new IOException("데이터베이스 오류: " + e.getMessage(), e);
+                }
+            }).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("데이터베이스 작업 중 인터럽트 발생", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException) {
+                throw (IOException) e.getCause();
+            }
+            throw new IOException(e.getCause());
+        } catch (RejectedExecutionException e) {
+            throw new IOException("데이터베이스 저장소가 이미 종료되었습니다.", e);
+        }
+    }
+
+    private void flushQuietly() {
+        try {
+            flushPending();
+        } catch (SQLException e) {
+            resetConnection();
+            logger.severe("데이터베이스 저장 중 오류 발생 (다음 주기에 다시 시도합니다): " + e.getMessage());
+        }
+    }
+
+    private void pollQuietly() {
+        try {
+            poll();
+        } catch (SQLException e) {
+            resetConnection();
+            logger.warning("데이터베이스 변경 확인 중 오류 발생: " + e.getMessage());
+        }
+    }
+
+    // 쌓인 변경을 한 트랜잭션으로 기록합니다. (데이터베이스 스레드 전용)
+    private void flushPending() throws SQLException {
+        if (pending.isEmpty()) {
+            return;
+        }
+        Map<UUID, PendingWrite> writes = new HashMap<>(pending);
+        long startedAt = System.nanoTime();
+        try {
+            writeBatch(writes);
+        } catch (SQLException e) {
+            if (!isRowError(e)) {
+                PluginMetrics.SAVE_ERRORS.increment();
+                throw e;
+            }
+            // 다른 서버가 먼저 같은 닉네임을 가져갔거나 열에 맞지 않는 값이 있는 경우:
+            // 한 건씩 나눠 기록해 문제가 된 항목만 되돌립니다. (나머지 변경이 계속 막히지 않도록)
+            writeOneByOne(writes);
+        }
+        PluginMetrics.SAVE.recordSince(startedAt);
+        PluginMetrics.SAVE_ROWS.add(writes.size());
+        for (Map.Entry<UUID, PendingWrite> entry : writes.entrySet()) {
+            // 기록하는 동안 새로 들어온 변경은 남겨 둡니다.
+            pending.remove(entry.getKey(), entry.getValue());
+        }
+    }
+
+    private void writeBatch(Map<UUID, PendingWrite> writes) throws SQLException {
+        Connection conn = connection();
+        try {
+            long version = nextVersion(conn);
+            List<NicknameRecord> inserts = new ArrayList<>();
+            List<UUID> order = new ArrayList<>(writes.keySet());
+            try (PreparedStatement update = conn.prepareStatement("UPDATE " + RECORDS_TABLE
+                    + " SET name = ?, nick = ?, nick_key = ?, deleted = ?, version = ?, changed_at = ? WHERE uuid = ?")) {
+                for (UUID uuid : order) {
+                    bindUpdate(update, uuid, writes.get(uuid).record(), version);
+                    update.addBatch();
+                }
+                int[] counts = update.executeBatch();
+                for (int i = 0; i < counts.length; i++) {
+                    NicknameRecord record = writes.get(order.get(i)).record();
+                    if (counts[i] == 0 && record != null) {
+                        inserts.add(record);
+                    }
+                }
+            }
+            if (!inserts.isEmpty()) {
+                try (PreparedStatement insert = conn.prepareStatement("INSERT INTO " + RECORDS_TABLE
+                        + " (uuid, name, nick, nick_key, deleted, version, changed_at) VALUES (?, ?, ?, ?, 0, ?, ?)")) {
+                    for (NicknameRecord record : inserts) {
+                        bindInsert(insert, record, version);
+                        insert.addBatch();
+                    }
+                    insert.executeBatch();
+                }
+            }
+            conn.commit();
+            // 자신이 쓴 버전은 다시 읽어 올 필요가 없습니다. (그 사이 다른 서버가 쓴 것은 더 낮은 버전이므로 poll 에서 먼저 처리됨)
+        } catch (SQLException e) {
+            conn.rollback();
+            throw e;
+        }
+    }
+
+    private void writeOneByOne(Map<UUID, PendingWrite> writes) throws SQLException {
+        for (Map.Entry<UUID, PendingWrite> entry : writes.entrySet()) {
+            try {
+                writeBatch(Map.of(entry.getKey(), entry.getValue()));
+            } catch (SQLException e) {
+                NicknameRecord rejected = entry.getValue().record();
+                if (isConstraintViolation(e)) {
+                    logger.warning("다른 서버에서 이미 사용 중인 닉네임이라 저장하지 못했습니다: "
+                            + (rejected != null ? rejected.nick() : null) + " (" + entry.getKey() + ")");
+                } else if (isDataError(e)) {
+                    PluginMetrics.SAVE_ERRORS.increment();
+                    logger.severe("데이터베이스에 저장할 수 없는 값이라 변경을 버립니다: "
+                            + (rejected != null ? rejected.nick() : null) + " (" + entry.getKey() + "): " + e.getMessage());
+                } else {
+                    throw e;
+                }
+                revert(entry.getKey());
+            }
+        }
+    }
+
+    // 충돌한 항목을 데이터베이스의 현재 값으로 되돌립니다.
+    private void revert(UUID uuid) throws SQLException {
+        pending.remove(uuid);
+        Map<UUID, NicknameRecord> change = new HashMap<>();
+        change.put(uuid, fetchNow(uuid));
+        store.applyExternal(change, id -> true);
+    }
+
+    // 다른 서버가 기록한 변경을 읽어 메모리에 반영합니다. (데이터베이스 스레드 전용)
+    private void poll() throws SQLException {
+        Connection conn = connection();
+        long version = currentVersion(conn);
+        if (version <= lastSeenVersion) {
+            return;
+        }
+        Map<UUID, NicknameRecord> changes = new HashMap<>();
+        try (PreparedStatement statement = conn.prepareStatement(
+                "SELECT uuid, name, nick, deleted, changed_at FROM " + RECORDS_TABLE + " WHERE version > ? AND version <= ?")) {
+            statement.setLong(1, lastSeenVersion);
+            statement.setLong(2, version);
+            try (ResultSet rs = statement.executeQuery()) {
+                while (rs.next()) {
+                    UUID uuid = UUID.fromString(rs.getString(1));
+                    changes.put(uuid, rs.getInt(4) != 0 ? null : new NicknameRecord(uuid, rs.getString(2), rs.getString(3), rs.getLong(5)));
+                }
+            }
+        }
+        conn.commit();
+        lastSeenVersion = version;
+        if (changes.isEmpty()) {
+            return;
+        }
+        // 아직 기록하지 않은 로컬 변경은 덮어쓰지 않습니다. (곧 기록되어 다른 서버로 전달됩니다)
+        int applied = store.applyExternal(changes, uuid -> !pending.containsKey(uuid)).size();
+        if (applied > 0) {
+            logger.info("다른 서버의 닉네임 변경 " + applied + "건을 반영했습니다.");
+        }
+    }
+
+    private Connection connection() throws SQLException {
+        if (connection != null && connection.isValid(2)) {
+            return connection;
+        }
+        resetConnection();
+        connection = (username == null || username.isEmpty())
+                ? DriverManager.getConnection(url)
+                : DriverManager.getConnection(url, username, password);
+        connection.setAutoCommit(false);
+        createTables(connection);
+        return connection;
+    }
+
+    private void resetConnection() {
+        if (connection == null) {
+            return;
+        }
+        try {
+            connection.close();
+        } catch (SQLException e) {
+            // 이미 끊긴 연결
+        }
+        connection = null;
+    }
+
+    private static void createTables(Connection conn) throws SQLException {
+        try (Statement statement = conn.createStatement()) {
+            statement.executeUpdate("CREATE TABLE IF NOT EXISTS " + RECORDS_TABLE + " ("
+                    + "uuid CHAR(36) NOT NULL PRIMARY KEY, "
+                    + "name VARCHAR(32), "
+                    + "nick VARCHAR(64), "
+                    + "nick_key VARCHAR(64) UNIQUE, "
+                    + "deleted INT NOT NULL DEFAULT 0, "
+                    + "version BIGINT NOT NULL, "
+                    + "changed_at BIGINT NOT NULL DEFAULT 0)");
+            statement.executeUpdate("CREATE TABLE IF NOT EXISTS " + META_TABLE + " ("
+                    + "id INT NOT NULL PRIMARY KEY, "
+                    + "version BIGINT NOT NULL)");
+            try (ResultSet rs = statement.executeQuery("SELECT COUNT(*) FROM " + META_TABLE)) {
+                rs.next();
+                if (rs.getInt(1) == 0) {
+                    statement.executeUpdate("INSERT INTO " + META_TABLE + " (id, version) VALUES (1, 0)");
+                }
+            }
+            conn.commit();
+        } catch (SQLException e) {
+            conn.rollback();
+            // 다른 서버가 동시에 초기 행을 넣은 경우는 무시합니다.
+            if (!isConstraintViolation(e)) {
+                throw e;
+            }
+        }
+        addChangedAtColumn(conn);
+    }
+
+    // changed_at 열이 없던 예전 테이블에 열을 추가합니다. (다른 서버가 먼저 추가했으면 무시)
+    private static void addChangedAtColumn(Connection conn) throws SQLException {
+        try (Statement statement = conn.createStatement()) {
+            statement.executeQuery("SELECT changed_at FROM " + RECORDS_TABLE + " WHERE 1 = 0").close();
+            conn.commit();
+            return;
+        } catch (SQLException e) {
+            conn.rollback();
+        }
+        try (Statement statement = conn.createStatement()) {
+            statement.executeUpdate("ALTER TABLE " + RECORDS_TABLE + " ADD COLUMN changed_at BIGINT NOT NULL DEFAULT 0");
+            conn.commit();
+        } catch (SQLException e) {
+            conn.rollback();
+            try (Statement statement = conn.createStatement()) {
+                statement.executeQuery("SELECT changed_at FROM " + RECORDS_TABLE + " WHERE 1 = 0").close();
+            }
+        }
+    }
+
+    // 전역 버전을 1 올리고 새 버전을 반환합니다. 행 잠금 덕분에 트랜잭션끼리 버전 순서가 보장됩니다.
+    private static long nextVersion(Connection conn) throws SQLException {
+        try (Statement statement = conn.createStatement()) {
+            statement.executeUpdate("UPDATE " + META_TABLE + " SET version = version + 1 WHERE id = 1");
+        }
+        return currentVersion(conn);
+    }
+
+    private static long currentVersion(Connection conn) throws SQLException {
+        try (Statement statement = conn.createStatement();
+             ResultSet rs = statement.executeQuery("SELECT version FROM " + META_TABLE + " WHERE id = 1")) {
+            return rs.next() ? rs.getLong(1) : 0L;
+        }
+    }
+
+    private static void bindUpdate(PreparedStatement statement, UUID uuid, NicknameRecord record, long version) throws SQLException {
+        statement.setString(1, record != null ? record.name() : null);
+        statement.setString(2, record != null ? record.nick() : null);
+        statement.setString(3, record != null ? NicknameKeys.fold(record.nick()) : null);
+        statement.setInt(4, record != null ? 0 : 1);
+        statement.setLong(5, version);
+        statement.setLong(6, record != null ? record.changedAt() : 0L);
+        statement.setString(7, uuid.toString());
+    }
+
+    private static void bindInsert(PreparedStatement statement, NicknameRecord record, long version) throws SQLException {
+        statement.setString(1, record.uuid().toString());
+        statement.setString(2, record.name());
+        statement.setString(3, record.nick());
+        statement.setString(4, NicknameKeys.fold(record.nick()));
+        statement.setLong(5, version);
+        statement.setLong(6, record.changedAt());
+    }
+
+    // 드라이버마다 제약 위반을 알리는 방식이 달라 SQLState(23xxx)와 메시지를 함께 확인합니다. (SQLite 는 SQLState 가 없음)
+    // 특정 행 때문에 생긴 오류인지 (연결 문제 등은 다음 주기에 다시 시도합니다)
+    private static boolean isRowError(SQLException e) {
+        return isConstraintViolation(e) || isDataError(e);
+    }
+
+    // 값이 열에 맞지 않는 경우 (SQLState 22xxx: 길이 초과 등)
+    private static boolean isDataError(SQLException e) {
+        if (e instanceof SQLDataException) {
+            return true;
+        }
+        String state = e.getSQLState();
+        if (state != null && state.startsWith("22")) {
+            return true;
+        }
+        String message = e.getMessage();
+        return message != null && (message.contains("too long") || message.contains("truncat"));
+    }
+
+    private static boolean isConstraintViolation(SQLException e) {
+        if (e instanceof SQLIntegrityConstraintViolationException) {
+            return true;
+        }
+        String state = e.getSQLState();
+        if (state != null && state.startsWith("23")) {
+            return true;
+        }
+        String message = e.getMessage();
+        return message != null && (message.contains("UNIQUE") || message.contains("constraint"));
+    }
+}
@@ -0,0 +1,332 @@
+package net.minichip.minecraftnickname;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.logging.Logger;
+import java.util.zip.CRC32;
+
+// 변경 내역을 저널 파일에 덧붙이는 저장 방식
+// - 스냅샷: nicknames.json 과 같은 형식의 파일 (다른 도구와 그대로 주고받을 수 있습니다)
+// - 저널: 스냅샷 이후의 추가/수정/삭제를 한 건씩 FileChannel 로 덧붙이는 바이너리 파일 (<스냅샷>.journal)
+// 한 건을 바꿀 때 파일 전체를 다시 쓰지 않으므로 저장 비용이 데이터 크기가 아닌 변경 크기에 비례합니다.
+// 시작할 때 스냅샷 위에 저널을 재생하고, 저널이 일정 크기를 넘으면 백그라운드에서 새 스냅샷으로 합칩니다.
+// 모든 파일 작업은 저널 전용 스레드 하나에서만 실행됩니다.
+public final class JournalNicknameStorage implements NicknameStorage {
+
+    private static final byte OP_PUT = 1;
+    private static final byte OP_DELETE = 2;
+    // 한 항목의 최대 크기 (깨진 길이 값을 걸러내기 위한 값)
+    private static final int MAX_ENTRY_BYTES = 64 * 1024;
+
+    private final NicknameStore store;
+    private final File snapshotFile;
+    private final File journalFile;
+    private final long compactThresholdBytes;
+    private final Logger logger;
+    private final ExecutorService executor;
+
+    private final ConcurrentLinkedQueue<ByteBuffer> pending = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean scheduled = new AtomicBoolean();
+
+    // 저널 스레드 전용
+    private FileChannel channel;
+
+    public JournalNicknameStorage(NicknameStore store, File snapshotFile, long compactThresholdBytes, Logger logger) {
+        this.store = store;
+        this.snapshotFile = snapshotFile;
+        this.journalFile = new File(snapshotFile.getPath() + ".journal");
+        this.compactThresholdBytes = Math.max(1024L, compactThresholdBytes);
+        this.logger = logger;
+        this.executor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "MinecraftNickname-journal");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @Override
+    public List<NicknameRecord> load() throws IOException {
+        try {
+            return executor.submit(this::loadOnWriter).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("저널 로드 중 인터럽트 발생", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException) {
+                throw (IOException) e.getCause();
+            }
+            throw new IOException(e.getCause());
+        }
+    }
+
+    private List<NicknameRecord> loadOnWriter() throws IOException {
+        // 아직 쓰지 않은 변경이 있으면 먼저 기록한 뒤 파일을 다시 읽습니다.
+        drain();
+        if (!snapshotFile.exists()) {
+            logger.warning("nicknames.json 파일이 존재하지 않습니다. 빈 파일을 생성합니다.");
+            snapshotFile.createNewFile();
+            Files.write(snapshotFile.toPath(), "{}".getBytes(StandardCharsets.UTF_8));
+        }
+        Map<UUID, NicknameRecord> records = new LinkedHashMap<>();
+        for (NicknameRecord record : JsonNicknameStorage.readFile(snapshotFile, logger)) {
+            records.put(record.uuid(), record);
+        }
+
+        openChannel();
+        long validLength = replay(records);
+        if (validLength < channel.size()) {
+            logger.warning("저널 끝부분이 손상되어 잘라냅니다. (" + (channel.size() - validLength) + "바이트)");
+            channel.truncate(validLength);
+        }
+        channel.position(validLength);
+        return new ArrayList<>(records.values());
+    }
+
+    // 저널을 처음부터 읽어 records 에 적용하고, 온전히 읽은 마지막 위치를 반환합니다.
+    private long replay(Map<UUID, NicknameRecord> records) throws IOException {
+        channel.position(0);
+        DataInputStream in = new DataInputStream(new BufferedInputStream(Channels.newInputStream(channel), 64 * 1024));
+        long position = 0;
+        int replayed = 0;
+        CRC32 crc = new CRC32();
+        while (true) {
+            int length;
+            int checksum;
+            byte[] body;
+            try {
+                length = in.readInt();
+                checksum = in.readInt();
+                if (length <= 0 || length > MAX_ENTRY_BYTES) {
+                    break;
+                }
+                body = new byte[length];
+                in.readFully(body);
+            } catch (EOFException e) {
+                break;
+            }
+            crc.reset();
+            crc.update(body);
+            if ((int) crc.getValue() != checksum) {
+                break;
+            }
+            apply(records, ByteBuffer.wrap(body));
+            position += 8 + length;
+            replayed++;
+        }
+        if (replayed > 0) {
+            logger.info("저널 " + replayed + "건을 재생했습니다.");
+        }
+        return position;
+    }
+
+    private void openChannel() throws IOException {
+        if (channel != null) {
+            channel.close();
+        }
+        channel = FileChannel.open(journalFile.toPath(), StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+    }
+
+    private static void apply(Map<UUID, NicknameRecord> records, ByteBuffer body) {
+        byte op = body.get();
+        UUID uuid = new UUID(body.getLong(), body.getLong());
+        if (op == OP_DELETE) {
+            records.remove(uuid);
+        } else if (op == OP_PUT) {
+            String name = readString(body);
+            String nick = readString(body);
+            // 변경 시각이 없던 예전 항목은 0 으로 읽습니다.
+            long changedAt = (body.remaining() >= 8) ? body.getLong() : 0L;
+            records.put(uuid, new NicknameRecord(uuid, name, nick, changedAt));
+        }
+    }
+
+    @Override
+    public void recordChanged(UUID uuid, NicknameRecord before, NicknameRecord after) {
+        pending.add(encode(uuid, after));
+        // 이미 기록 작업이 예약되어 있으면 그 작업이 함께 기록합니다.
+        if (scheduled.compareAndSet(false, true)) {
+            schedule(() -> {
+                scheduled.set(false);
+                drainQuietly();
+            });
+        }
+    }
+
+    @Override
+    public void saveAll() {
+        schedule(() -> {
+            drainQuietly();
+            compactQuietly();
+        });
+    }
+
+    @Override
+    public void flush() {
+        try {
+            executor.submit(this::drainQuietly).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException | RejectedExecutionException e) {
+            logger.severe("저널 기록 중 오류 발생: " + e.getMessage());
+        }
+    }
+
+    @Override
+    public void close() {
+        flush();
+        executor.shutdown();
+        try {
+            executor.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        try {
+            if (channel != null) {
+                channel.close();
+            }
+        } catch (IOException e) {
+            logger.warning("저널 파일 닫기 중 오류 발생: " + e.getMessage());
+        }
+    }
+
+    private void schedule(Runnable task) {
+        try {
+            executor.execute(task);
+        } catch (RejectedExecutionException e) {
+            // 이미 종료됨
+        }
+    }
+
+    private void drainQuietly() {
+        try {
+            drain();
+        } catch (IOException e) {
+            PluginMetrics.SAVE_ERRORS.increment();
+            logger.severe("저널 기록 중 오류 발생: " + e.getMessage());
+        }
+    }
+
+    private void compactQuietly() {
+        try {
+            compact();
+        } catch (IOException e) {
+            PluginMetrics.SAVE_ERRORS.increment();
+            logger.severe("저널 정리 중 오류 발생: " + e.getMessage());
+        }
+    }
+
+    // 쌓인 변경을 한 번의 쓰기로 덧붙입니다. (저널 스레드 전용)
+    private void drain() throws IOException {
+        if (channel == null || pending.isEmpty()) {
+            return;
+        }
+        List<ByteBuffer> buffers = new ArrayList<>();
+        ByteBuffer buffer;
+        while ((buffer = pending.poll()) != null) {
+            buffers.add(buffer);
+        }
+        long startedAt = System.nanoTime();
+        ByteBuffer[] array = buffers.toArray(new ByteBuffer[0]);
+        long remaining = 0;
+        for (ByteBuffer b : array) {
+            remaining += b.remaining();
+        }
+        PluginMetrics.SAVE_BYTES.add(remaining);
+        while (remaining > 0) {
+            remaining -= channel.write(array);
+        }
+        channel.force(false);
+        PluginMetrics.SAVE.recordSince(startedAt);
+        if (channel.size() >= compactThresholdBytes) {
+            compact();
+        }
+    }
+
+    // 현재 메모리 내용을 새 스냅샷으로 쓰고 저널을 비웁니다. (저널 스레드 전용)
+    // 스냅샷을 읽은 뒤 덧붙여지는 변경은 모두 "전체 기록 교체/삭제" 이므로 다시 재생해도 결과가 같습니다.
+    private void compact() throws IOException {
+        if (channel == null) {
+            // 이전 버전 파일 변환 직후처럼 저널을 아직 열지 않은 경우
+            openChannel();
+        }
+        long before = channel.size();
+        long startedAt = System.nanoTime();
+        PluginMetrics.SAVE_BYTES.add(NicknameJsonWriter.writeAtomically(store.snapshot().records(), snapshotFile.toPath()));
+        channel.truncate(0);
+        channel.position(0);
+        channel.force(true);
+        PluginMetrics.SAVE.recordSince(startedAt);
+        logger.info("저널을 스냅샷으로 정리했습니다. (" + before + "바이트)");
+    }
+
+    private static ByteBuffer encode(UUID uuid, NicknameRecord record) {
+        byte[] name = (record != null) ? bytes(record.name()) : null;
+        byte[] nick = (record != null) ? bytes(record.nick()) : null;
+        int length = 1 + 16;
+        if (record != null) {
+            length += 4 + (name != null ? name.length : 0) + 4 + (nick != null ? nick.length : 0) + 8;
+        }
+        ByteBuffer body = ByteBuffer.allocate(length);
+        body.put(record != null ? OP_PUT : OP_DELETE);
+        body.putLong(uuid.getMostSignificantBits());
+        body.putLong(uuid.getLeastSignificantBits());
+        if (record != null) {
+            writeString(body, name);
+            writeString(body, nick);
+            body.putLong(record.changedAt());
+        }
+        CRC32 crc = new CRC32();
+        crc.update(body.array());
+        ByteBuffer entry = ByteBuffer.allocate(8 + length);
+        entry.putInt(length);
+        entry.putInt((int) crc.getValue());
+        entry.put(body.array());
+        entry.flip();
+        return entry;
+    }
+
+    private static byte[] bytes(String value) {
+        return (value != null) ? value.getBytes(StandardCharsets.UTF_8) : null;
+    }
+
+    private static void writeString(ByteBuffer buffer, byte[] value) {
+        if (value == null) {
+            buffer.putInt(-1);
+            return;
+        }
+        buffer.putInt(value.length);
+        buffer.put(value);
+    }
+
+    private static String readString(ByteBuffer buffer) {
+        int length = buffer.getInt();
+        if (length < 0) {
+            return null;
+        }
+        byte[] value = new byte[length];
+        buffer.get(value);
+        return new String(value, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,338 @@
+package net.minichip.minecraftnickname;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Logger;
+
+// nicknames.json 한 파일에 전체를 저장하는 기본 저장 방식 (write-behind)
+// - 변경이 생기면 markDirty 로 표시만 하고 바로 반환합니다.
+// - 저장 전용 스레드가 최대 intervalMillis 에 한 번, 그 시점의 스냅샷 전체를 파일에 씁니다.
+//   여러 변경이 몰려도 저장은 한 번만 일어납니다.
+// - 쓰기는 임시 파일 + fsync + 원자적 이동으로 처리합니다.
+// - 저장 직전에 파일 내용이 마지막으로 쓰거나 읽은 내용(SHA-256)과 같은지 확인합니다.
+//   수정 시각과 크기가 기록해 둔 값과 같으면 파일을 읽지 않고, 다를 때만 내용 해시를 구해 비교합니다.
+//   외부에서 바뀌었으면 덮어쓰지 않고, 다시 불러와 아직 저장하지 않은 변경과 합친 뒤 저장합니다.
+public final class JsonNicknameStorage implements NicknameStorage {
+
+    private final NicknameStore store;
+    private final File file;
+    private final Logger logger;
+    private final long intervalMillis;
+    private final ScheduledExecutorService executor;
+
+    private final AtomicBoolean dirty = new AtomicBoolean();
+    private final AtomicBoolean scheduled = new AtomicBoolean();
+    private long lastFlushAt;
+    // 마지막으로 직접 저장한 파일 내용의 해시와 수정 시각/크기 (외부 변경과 구분하기 위해 사용)
+    private byte[] lastWrittenHash;
+    private FileStamp lastWrittenStamp;
+    // 마지막으로 읽은 파일 내용의 해시와 수정 시각/크기, 그 뒤 메모리가 읽은 내용으로 교체되었는지
+    private byte[] loadedHash;
+    private FileStamp loadedStamp;
+    private volatile boolean replacedSinceLoad;
+    // 외부 변경 때문에 저장을 미뤘다고 이미 알렸는지 (같은 충돌을 반복해서 알리지 않기 위해 사용)
+    private boolean conflictReported;
+    // 아직 파일에 쓰지 않은 변경 (UUID -> 변경 순번). 외부 변경과 합칠 때 메모리 값을 우선합니다.
+    private final Map<UUID, Long> unsaved = new ConcurrentHashMap<>();
+    private final AtomicLong changeSequence = new AtomicLong();
+    private volatile Runnable externalChangeHandler;
+
+    public JsonNicknameStorage(NicknameStore store, File file, long intervalMillis, Logger logger) {
+        this.store = store;
+        this.file = file;
+        this.intervalMillis = Math.max(0L, intervalMillis);
+        this.logger = logger;
+        ScheduledThreadPoolExecutor executor = new ScheduledThreadPoolExecutor(1, runnable -> {
+            Thread thread = new Thread(runnable, "MinecraftNickname-save");
+            thread.setDaemon(true);
+            return thread;
+        });
+        // 종료할 때 예약만 된 저장은 기다리지 않습니다. (close 에서 바로 저장합니다)
+        executor.setExecuteExistingDelayedTasksAfterShutdownPolicy(false);
+        this.executor = executor;
+        store.addListener(new NicknameStore.Listener() {
+            @Override
+            public void onRecordChanged(UUID uuid, NicknameRecord before, NicknameRecord after) {
+            }
+
+            @Override
+            public void onSnapshotReplaced(NicknameSnapshot before, NicknameSnapshot after, Set<UUID> changed) {
+                snapshotReplaced();
+            }
+        });
+    }
+
+    // 저장 직전에 파일이 외부에서 바뀐 것을 발견했을 때 실행할 작업 (다시 불러오기)
+    public void setExternalChangeHandler(Runnable externalChangeHandler) {
+        this.externalChangeHandler = externalChangeHandler;
+    }
+
+    @Override
+    public List<NicknameRecord> load() throws IOException {
+        // 파일이 외부에서 바뀌었으면 저장하지 않고 그대로 읽습니다. (지금 다시 불러오는 중이므로 다시 불러오기를 예약하지 않습니다)
+        save(false);
+        synchronized (this) {
+            if (!file.exists()) {
+                logger.warning("nicknames.json 파일이 존재하지 않습니다. 빈 파일을 생성합니다.");
+                file.createNewFile();
+                Files.write(file.toPath(), "{}".getBytes());
+            }
+            loadedStamp = FileStamp.of(file.toPath());
+            loadedHash = hashOf(file.toPath());
+            replacedSinceLoad = false;
+            List<NicknameRecord> records = readFile(file, logger);
+            // 외부 변경 때문에 쓰지 못한 변경이 남아 있으면 파일 내용 대신 메모리 값을 씁니다.
+            return unsaved.isEmpty() ? records : mergeUnsaved(records);
+        }
+    }
+
+    private List<NicknameRecord> mergeUnsaved(List<NicknameRecord> records) {
+        NicknameSnapshot current = store.snapshot();
+        Map<UUID, NicknameRecord> merged = new LinkedHashMap<>(records.size() * 2);
+        for (NicknameRecord record : records) {
+            merged.put(record.uuid(), record);
+        }
+        for (UUID uuid : unsaved.keySet()) {
+            NicknameRecord record = current.get(uuid);
+            if (record != null) {
+                merged.put(uuid, record);
+            } else {
+                merged.remove(uuid);
+            }
+        }
+        logger.info("저장하지 못한 변경 " + unsaved.size() + "개를 파일 내용과 합칩니다.");
+        return new ArrayList<>(merged.values());
+    }
+
+    // nicknames.json 형식 파일을 한 번에 훑어 읽습니다. (저널 저장 방식의 스냅샷 파일도 같은 형식입니다)
+    // 이전 버전 형식이면 LegacyFormatException 을 던집니다.
+    static List<NicknameRecord> readFile(File file, Logger logger) throws IOException {
+        NicknameJsonReader.Result result = NicknameJsonReader.read(file, logger);
+        if (result.isLegacy()) {
+            throw new LegacyFormatException(result.legacy(), result.records());
+        }
+        return result.records();
+    }
+
+    @Override
+    public void recordChanged(UUID uuid, NicknameRecord before, NicknameRecord after) {
+        unsaved.put(uuid, changeSequence.incrementAndGet());
+        markDirty();
+    }
+
+    @Override
+    public void saveAll() {
+        long sequence = changeSequence.incrementAndGet();
+        for (NicknameRecord record : store.snapshot().records()) {
+            unsaved.put(record.uuid(), sequence);
+        }
+        markDirty();
+    }
+
+    // 읽은 내용으로 메모리가 교체되면 그 내용을 기준으로 저장할 수 있습니다.
+    private void snapshotReplaced() {
+        replacedSinceLoad = true;
+        if (dirty.get()) {
+            // 외부 변경 때문에 미뤄 둔 저장을 다시 시도합니다.
+            markDirty();
+        }
+    }
+
+    // 저장이 필요하다고 표시합니다. 어느 스레드에서든 호출할 수 있습니다.
+    public void markDirty() {
+        dirty.set(true);
+        if (scheduled.compareAndSet(false, true)) {
+            long delay;
+            synchronized (this) {
+                delay = Math.max(0L, lastFlushAt + intervalMillis - System.currentTimeMillis());
+            }
+            try {
+                executor.schedule(this::flushScheduled, delay, TimeUnit.MILLISECONDS);
+            } catch (RejectedExecutionException e) {
+                // 이미 종료됨 (close 에서 마지막 저장을 처리합니다)
+                scheduled.set(false);
+            }
+        }
+    }
+
+    private void flushScheduled() {
+        scheduled.set(false);
+        flush();
+    }
+
+    // 변경 사항이 있으면 지금 바로 저장합니다.
+    @Override
+    public void flush() {
+        save(true);
+    }
+
+    // reportConflict 가 false 이면 외부 변경을 발견해도 다시 불러오기를 요청하지 않습니다. (load 에서 사용)
+    private synchronized void save(boolean reportConflict) {
+        if (!dirty.getAndSet(false)) {
+            return;
+        }
+        if (!canOverwrite()) {
+            // 외부에서 바뀐 파일을 덮어쓰지 않습니다. 다시 불러와 합친 뒤 저장합니다.
+            dirty.set(true);
+            lastFlushAt = System.currentTimeMillis();
+            if (reportConflict && !conflictReported) {
+                conflictReported = true;
+                logger.warning("nicknames.json 파일이 외부에서 변경되어 저장을 미룹니다. 파일을 다시 불러와 합친 뒤 저장합니다.");
+                Runnable handler = externalChangeHandler;
+                if (handler != null) {
+                    handler.run();
+                }
+            }
+            return;
+        }
+        // 스냅샷보다 먼저 복사해 두어야, 쓰는 도중 다시 바뀐 기록이 저장된 것으로 지워지지 않습니다.
+        Map<UUID, Long> written = new HashMap<>(unsaved);
+        NicknameSnapshot snapshot = store.snapshot();
+        long startedAt = System.nanoTime();
+        try {
+            MessageDigest digest = newDigest();
+            PluginMetrics.SAVE_BYTES.add(NicknameJsonWriter.writeAtomically(snapshot.records(), file.toPath(), digest));
+            PluginMetrics.SAVE.recordSince(startedAt);
+            lastWrittenHash = digest.digest();
+            lastWrittenStamp = FileStamp.of(file.toPath());
+            conflictReported = false;
+            for (Map.Entry<UUID, Long> entry : written.entrySet()) {
+                unsaved.remove(entry.getKey(), entry.getValue());
+            }
+            logger.info("닉네임 데이터가 업데이트되었습니다.");
+        } catch (IOException e) {
+            // 다음 저장에서 다시 시도합니다.
+            dirty.set(true);
+            PluginMetrics.SAVE_ERRORS.increment();
+            logger.severe("nicknames.json 파일 저장 중 오류 발생: " + e.getMessage());
+        }
+        lastFlushAt = System.currentTimeMillis();
+    }
+
+    // 현재 파일이 이 저장소가 마지막으로 쓴 그대로인지 확인합니다. (파일 감시에서 자기 저장을 무시하는 데 사용)
+    // 저장 중이면 저장이 끝날 때까지 기다립니다.
+    public synchronized boolean isOwnWrite() {
+        return isLastWritten(FileStamp.of(file.toPath()));
+    }
+
+    // 지금 파일을 덮어써도 되는지: 마지막으로 쓴 내용 그대로이거나, 마지막으로 읽은 내용으로 메모리가 교체된 경우
+    private boolean canOverwrite() {
+        if (lastWrittenHash == null && loadedHash == null) {
+            // 아직 읽거나 쓴 적이 없음
+            return true;
+        }
+        FileStamp current = FileStamp.of(file.toPath());
+        return isLastWritten(current) || (replacedSinceLoad && isLastLoaded(current));
+    }
+
+    private boolean isLastWritten(FileStamp current) {
+        if (lastWrittenHash == null || current == null) {
+            return false;
+        }
+        if (current.equals(lastWrittenStamp)) {
+            return true;
+        }
+        if (Arrays.equals(hashOf(file.toPath()), lastWrittenHash)) {
+            // 내용은 그대로이고 시각만 바뀐 경우 (복사, touch 등) 다음부터는 읽지 않습니다.
+            lastWrittenStamp = current;
+            return true;
+        }
+        return false;
+    }
+
+    private boolean isLastLoaded(FileStamp current) {
+        if (loadedHash == null || current == null) {
+            return false;
+        }
+        if (current.equals(loadedStamp)) {
+            return true;
+        }
+        if (Arrays.equals(hashOf(file.toPath()), loadedHash)) {
+            loadedStamp = current;
+            return true;
+        }
+        return false;
+    }
+
+    // 파일의 수정 시각과 크기. 파일이 없거나 읽지 못하면 null 입니다.
+    private record FileStamp(FileTime modified, long size) {
+        static FileStamp of(Path path) {
+            try {
+                BasicFileAttributes attributes = Files.readAttributes(path, BasicFileAttributes.class);
+                return new FileStamp(attributes.lastModifiedTime(), attributes.size());
+            } catch (IOException e) {
+                return null;
+            }
+        }
+    }
+
+    // 파일 내용의 SHA-256. 파일이 없거나 읽지 못하면 null 입니다.
+    private static byte[] hashOf(Path path) {
+        if (!Files.exists(path)) {
+            return null;
+        }
+        try {
+            return newDigest().digest(Files.readAllBytes(path));
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    private static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            // 모든 자바 구현에 SHA-256 이 포함되어 있습니다.
+            throw new IllegalStateException(e);
+        }
+    }
+
+    // 마지막 저장을 마치고 저장 스레드를 종료합니다. (onDisable)
+    @Override
+    public void close() {
+        // 종료 중에는 다시 불러오기를 예약할 수 없습니다.
+        externalChangeHandler = null;
+        executor.shutdown();
+        try {
+            executor.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        flush();
+        if (dirty.get()) {
+            saveConflictCopy();
+        }
+    }
+
+    // 외부 변경과 합치지 못한 채 종료하면, 파일을 덮어쓰지 않고 메모리 내용을 옆 파일에 따로 남깁니다.
+    private synchronized void saveConflictCopy() {
+        Path copy = file.toPath().resolveSibling(file.getName() + ".unsaved");
+        try {
+            NicknameJsonWriter.writeAtomically(store.snapshot().records(), copy);
+            logger.severe("nicknames.json 파일이 외부에서 변경되어 덮어쓰지 않았습니다. 저장하지 못한 내용은 " + copy.getFileName() + " 에 있습니다.");
+        } catch (IOException e) {
+            logger.severe(copy.getFileName() + " 파일 저장 중 오류 발생: " + e.getMessage());
+        }
+    }
+}
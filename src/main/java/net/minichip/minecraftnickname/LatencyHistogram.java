@@ -0,0 +1,87 @@
+package net.minichip.minecraftnickname;
+
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+// 지연 시간 히스토그램 (나노초, 2의 거듭제곱 구간)
+// 기록할 때는 LongAdder 몇 개만 올리므로 잠금이 없고, 여러 스레드가 동시에 기록해도 서로 기다리지 않습니다.
+// 백분위수는 해당 구간의 상한값으로 근사합니다. (최대 2배 오차)
+public final class LatencyHistogram {
+
+    // 구간 i 는 [2^(i-1), 2^i) 나노초. 마지막 구간(약 9분 이상)은 나머지를 모두 담습니다.
+    static final int BUCKETS = 40;
+
+    private final LongAdder[] buckets = new LongAdder[BUCKETS];
+    private final LongAdder count = new LongAdder();
+    private final LongAdder sumNanos = new LongAdder();
+    private final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0L);
+
+    public LatencyHistogram() {
+        for (int i = 0; i < BUCKETS; i++) {
+            buckets[i] = new LongAdder();
+        }
+    }
+
+    public void record(long nanos) {
+        if (nanos < 0) {
+            nanos = 0;
+        }
+        int index = Math.min(BUCKETS - 1, 64 - Long.numberOfLeadingZeros(nanos));
+        buckets[index].increment();
+        count.increment();
+        sumNanos.add(nanos);
+        maxNanos.accumulate(nanos);
+    }
+
+    // 시작 시각(System.nanoTime)부터 지금까지를 기록합니다.
+    public void recordSince(long startNanos) {
+        record(System.nanoTime() - startNanos);
+    }
+
+    public long count() {
+        return count.sum();
+    }
+
+    public long sumNanos() {
+        return sumNanos.sum();
+    }
+
+    public long maxNanos() {
+        return maxNanos.get();
+    }
+
+    // 구간별 개수 (누적 아님)
+    public long[] bucketCounts() {
+        long[] counts = new long[BUCKETS];
+        for (int i = 0; i < BUCKETS; i++) {
+            counts[i] = buckets[i].sum();
+        }
+        return counts;
+    }
+
+    // 구간 i 의 상한 (나노초)
+    static long upperBoundNanos(int index) {
+        return 1L << index;
+    }
+
+    // q(0~1) 백분위수의 근사값 (나노초). 기록이 없으면 0.
+    public long percentileNanos(double q) {
+        long[] counts = bucketCounts();
+        long total = 0;
+        for (long c : counts) {
+            total += c;
+        }
+        if (total == 0) {
+            return 0L;
+        }
+        long rank = (long) Math.ceil(q * total);
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                return Math.min(upperBoundNanos(i), maxNanos());
+            }
+        }
+        return maxNanos();
+    }
+}
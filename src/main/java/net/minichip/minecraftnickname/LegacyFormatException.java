@@ -0,0 +1,28 @@
+package net.minichip.minecraftnickname;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+
+// 불러오려는 파일이 이전 버전 형식({ "플레이어이름": "닉네임" })일 때 발생합니다.
+// 파일을 한 번 읽은 결과를 그대로 담아 두어 변환 작업이 파일을 다시 읽지 않게 합니다.
+// 두 형식이 섞인 파일이면 현재 형식 항목(records)도 함께 담아, 변환 후 다시 저장할 때 빠지지 않게 합니다.
+public class LegacyFormatException extends IOException {
+
+    private final transient Map<String, String> legacyNicknames;
+    private final transient List<NicknameRecord> records;
+
+    public LegacyFormatException(Map<String, String> legacyNicknames, List<NicknameRecord> records) {
+        super("이전 버전 닉네임 파일입니다.");
+        this.legacyNicknames = legacyNicknames;
+        this.records = records;
+    }
+
+    public List<NicknameRecord> getRecords() {
+        return records;
+    }
+
+    public Map<String, String> getLegacyNicknames() {
+        return legacyNicknames;
+    }
+}
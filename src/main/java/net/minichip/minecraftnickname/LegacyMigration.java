@@ -0,0 +1,345 @@
+package net.minichip.minecraftnickname;
+
+import org.json.JSONArray;
+import org.json.JSONObject;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Logger;
+
+// 이전 버전 닉네임 파일({ "플레이어이름": "닉네임" })을 UUID 기반 기록으로 변환하는 작업
+// - 이름을 묶음 단위로 BulkProfileResolver 에 넘겨 조회합니다.
+// - 동시에 실행되는 요청 수는 concurrency 로 제한합니다.
+// - 요청 한도(429)에 걸리면 모든 작업자가 함께 대기 시간을 늘리고, 성공하면 다시 줄입니다.
+// - 묶음 하나가 끝날 때마다 그 묶음의 결과만 체크포인트 파일에 한 줄씩 덧붙여, 중간에 서버가 꺼져도 이어서 진행합니다.
+//   (묶음마다 전체를 다시 쓰지 않습니다. 조회가 끝나면 한 줄로 합칩니다)
+// - Mojang 이름 규칙에 맞지 않는 이름은 계정이 있을 수 없으므로 조회하지 않고 없는 계정으로 처리합니다.
+// - 끝내 조회하지 못한 이름은 retryLater 로 체크포인트의 retry 에 닉네임과 함께 남겨 다음 실행 때 다시 시도합니다.
+// 서버 메인 스레드가 아닌 곳에서 run 을 호출해야 합니다.
+public final class LegacyMigration {
+
+    private static final long MIN_BACKOFF_MILLIS = 1000L;
+    private static final long MAX_BACKOFF_MILLIS = 60_000L;
+
+    public record Result(List<NicknameRecord> records, List<String> missing, List<String> failed) {
+    }
+
+    private final BulkProfileResolver resolver;
+    private final File checkpointFile;
+    private final int concurrency;
+    private final int maxAttempts;
+    private final Logger logger;
+
+    // 체크포인트 내용 (접힌 이름 기준). this 로 동기화합니다.
+    private final Map<String, UUID> resolved = new HashMap<>();
+    private final Set<String> missing = new HashSet<>();
+    // 다음 실행 때 다시 조회할 항목 (플레이어 이름 -> 닉네임)
+    private final Map<String, String> retry = new LinkedHashMap<>();
+
+    private final AtomicLong backoffMillis = new AtomicLong();
+
+    public LegacyMigration(BulkProfileResolver resolver, File checkpointFile, int concurrency, int maxAttempts, Logger logger) {
+        this.resolver = resolver;
+        this.checkpointFile = checkpointFile;
+        this.concurrency = Math.max(1, concurrency);
+        this.maxAttempts = Math.max(1, maxAttempts);
+        this.logger = logger;
+    }
+
+    // legacy: 플레이어 이름 -> 닉네임
+    public Result run(Map<String, String> legacy) throws IOException, InterruptedException {
+        loadCheckpoint();
+
+        List<String> pending = new ArrayList<>();
+        Set<String> queued = new HashSet<>();
+        synchronized (this) {
+            for (String name : legacy.keySet()) {
+                String key = NicknameKeys.fold(name);
+                if (!MojangAPI.isValidName(name)) {
+                    // 묶음에 섞이면 묶음 전체가 거절되므로 보내지 않습니다.
+                    missing.add(key);
+                    continue;
+                }
+                if (!resolved.containsKey(key) && !missing.contains(key) && queued.add(key)) {
+                    pending.add(name);
+                }
+            }
+        }
+        int total = legacy.size();
+        if (pending.size() < total) {
+            logger.info("체크포인트에서 이어서 변환합니다. (남은 이름 " + pending.size() + "/" + total + "개)");
+        }
+
+        List<String> failed = new ArrayList<>();
+        if (!pending.isEmpty()) {
+            resolveAll(pending, failed);
+            synchronized (this) {
+                compactCheckpoint();
+            }
+        }
+
+        List<NicknameRecord> records = new ArrayList<>(legacy.size());
+        List<String> missingNames = new ArrayList<>();
+        Set<String> failedKeys = new HashSet<>();
+        for (String name : failed) {
+            failedKeys.add(NicknameKeys.fold(name));
+        }
+        synchronized (this) {
+            for (Map.Entry<String, String> entry : legacy.entrySet()) {
+                String key = NicknameKeys.fold(entry.getKey());
+                UUID uuid = resolved.get(key);
+                if (uuid != null) {
+                    records.add(new NicknameRecord(uuid, entry.getKey(), entry.getValue()));
+                } else if (!failedKeys.contains(key)) {
+                    missingNames.add(entry.getKey());
+                }
+            }
+        }
+        return new Result(records, missingNames, failed);
+    }
+
+    // 변환 결과를 반영한 뒤 호출합니다. 조회에 실패한 항목(플레이어 이름 -> 닉네임)만 체크포인트에 남기고,
+    // 남길 것이 없으면 체크포인트를 지웁니다.
+    public void retryLater(Map<String, String> failed) {
+        if (failed.isEmpty()) {
+            deleteCheckpoint();
+            return;
+        }
+        synchronized (this) {
+            // 반영이 끝난 조회 결과는 더 필요 없습니다.
+            resolved.clear();
+            missing.clear();
+            retry.clear();
+            retry.putAll(failed);
+            compactCheckpoint();
+        }
+        logger.warning("UUID 조회에 실패한 " + failed.size() + "명은 다음 실행 때 다시 변환합니다.");
+    }
+
+    // 지난 실행에서 조회하지 못해 다시 변환해야 하는 항목 (플레이어 이름 -> 닉네임). 없으면 빈 맵입니다.
+    public static Map<String, String> readRetry(File checkpointFile, Logger logger) {
+        Map<String, String> entries = new LinkedHashMap<>();
+        if (!checkpointFile.exists()) {
+            return entries;
+        }
+        try {
+            String content = new String(Files.readAllBytes(checkpointFile.toPath()), StandardCharsets.UTF_8);
+            for (String line : content.split("\n")) {
+                JSONObject json = parseLine(line);
+                if (json != null) {
+                    readRetry(json, entries);
+                }
+            }
+        } catch (IOException e) {
+            logger.warning("변환 체크포인트 읽기 중 오류 발생: " + e.getMessage());
+        }
+        return entries;
+    }
+
+    // 변환 결과를 반영한 뒤 호출해 체크포인트를 지웁니다.
+    public void deleteCheckpoint() {
+        try {
+            Files.deleteIfExists(checkpointFile.toPath());
+        } catch (IOException e) {
+            logger.warning("변환 체크포인트 파일 삭제 중 오류 발생: " + e.getMessage());
+        }
+    }
+
+    private void resolveAll(List<String> pending, List<String> failed) throws InterruptedException {
+        int batchSize = resolver.maxBatchSize();
+        List<List<String>> batches = new ArrayList<>();
+        for (int i = 0; i < pending.size(); i += batchSize) {
+            batches.add(pending.subList(i, Math.min(i + batchSize, pending.size())));
+        }
+
+        AtomicInteger done = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(concurrency, runnable -> {
+            Thread thread = new Thread(runnable, "MinecraftNickname-migration");
+            thread.setDaemon(true);
+            return thread;
+        });
+        try {
+            List<Future<List<String>>> futures = new ArrayList<>(batches.size());
+            for (List<String> batch : batches) {
+                futures.add(executor.submit(() -> {
+                    List<String> batchFailed = resolveBatch(batch);
+                    int count = done.addAndGet(batch.size());
+                    logger.info("닉네임 변환 진행 중: " + count + "/" + pending.size());
+                    return batchFailed;
+                }));
+            }
+            for (Future<List<String>> future : futures) {
+                try {
+                    failed.addAll(future.get());
+                } catch (ExecutionException e) {
+                    throw new IllegalStateException(e.getCause());
+                }
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    // 묶음 하나를 조회합니다. 끝내 조회하지 못한 이름 목록을 반환합니다.
+    private List<String> resolveBatch(List<String> batch) throws InterruptedException {
+        for (int attempt = 1; attempt <= maxAttempts; attempt++) {
+            long wait = backoffMillis.get();
+            if (wait > 0) {
+                Thread.sleep(wait);
+            }
+            try {
+                Map<String, UUID> found = resolver.resolve(batch);
+                onSuccess();
+                Map<String, UUID> batchResolved = new HashMap<>();
+                Set<String> batchMissing = new HashSet<>();
+                for (String name : batch) {
+                    String key = NicknameKeys.fold(name);
+                    UUID uuid = found.get(key);
+                    if (uuid != null) {
+                        batchResolved.put(key, uuid);
+                    } else {
+                        batchMissing.add(key);
+                    }
+                }
+                synchronized (this) {
+                    resolved.putAll(batchResolved);
+                    missing.addAll(batchMissing);
+                    appendCheckpoint(batchResolved, batchMissing);
+                }
+                return List.of();
+            } catch (BulkProfileResolver.RateLimitedException e) {
+                onRateLimited(e.getRetryAfterMillis());
+            } catch (IOException e) {
+                logger.warning("UUID 대량 조회 실패 (" + attempt + "/" + maxAttempts + "): " + e.getMessage());
+                onRateLimited(0L);
+            }
+        }
+        return new ArrayList<>(batch);
+    }
+
+    private void onRateLimited(long retryAfterMillis) {
+        backoffMillis.updateAndGet(current -> {
+            long next = Math.max(MIN_BACKOFF_MILLIS, current * 2);
+            return Math.min(MAX_BACKOFF_MILLIS, Math.max(next, retryAfterMillis));
+        });
+    }
+
+    private void onSuccess() {
+        backoffMillis.updateAndGet(current -> current < MIN_BACKOFF_MILLIS ? 0L : current / 2);
+    }
+
+    // 체크포인트는 한 줄에 하나씩 { "resolved": {...}, "missing": [...], "retry": {...} } 를 담습니다. (retry 는 합친 줄에만 있고, 이전 버전이 쓴 한 줄짜리 파일도 같은 형식)
+    // 덧붙이는 도중 꺼져 마지막 줄이 잘렸으면 그 줄만 건너뜁니다.
+    private synchronized void loadCheckpoint() throws IOException {
+        if (!checkpointFile.exists()) {
+            return;
+        }
+        String content = new String(Files.readAllBytes(checkpointFile.toPath()), StandardCharsets.UTF_8);
+        // 줄바꿈으로 끝나지 않으면 다음에 덧붙일 줄이 잘린 줄에 이어 붙지 않도록 다시 씁니다.
+        boolean rewrite = !content.isEmpty() && !content.endsWith("\n");
+        for (String line : content.split("\n")) {
+            if (line.isBlank()) {
+                continue;
+            }
+            JSONObject json = parseLine(line);
+            if (json == null) {
+                logger.warning("변환 체크포인트의 손상된 줄을 건너뜁니다.");
+                rewrite = true;
+                continue;
+            }
+            readRetry(json, retry);
+            JSONObject resolvedJson = json.optJSONObject("resolved");
+            if (resolvedJson != null) {
+                for (String key : resolvedJson.keySet()) {
+                    resolved.put(key, UUID.fromString(resolvedJson.getString(key)));
+                }
+            }
+            JSONArray missingJson = json.optJSONArray("missing");
+            if (missingJson != null) {
+                for (int i = 0; i < missingJson.length(); i++) {
+                    missing.add(missingJson.getString(i));
+                }
+            }
+        }
+        if (rewrite) {
+            compactCheckpoint();
+        }
+    }
+
+    private static JSONObject parseLine(String line) {
+        if (line.isBlank()) {
+            return null;
+        }
+        try {
+            return new JSONObject(line);
+        } catch (RuntimeException e) {
+            return null;
+        }
+    }
+
+    private static void readRetry(JSONObject json, Map<String, String> entries) {
+        JSONObject retryJson = json.optJSONObject("retry");
+        if (retryJson != null) {
+            for (String name : retryJson.keySet()) {
+                entries.put(name, retryJson.getString(name));
+            }
+        }
+    }
+
+    // 묶음 하나의 결과만 체크포인트 끝에 덧붙입니다. this 로 동기화된 상태에서 호출해야 합니다.
+    private void appendCheckpoint(Map<String, UUID> batchResolved, Set<String> batchMissing) {
+        String line = toCheckpointLine(batchResolved, batchMissing, Map.of());
+        try {
+            Files.write(checkpointFile.toPath(), line.getBytes(StandardCharsets.UTF_8),
+                    StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        } catch (IOException e) {
+            logger.warning("변환 체크포인트 저장 중 오류 발생: " + e.getMessage());
+        }
+    }
+
+    // 덧붙인 줄들을 전체 내용 한 줄로 합칩니다. this 로 동기화된 상태에서 호출해야 합니다.
+    private void compactCheckpoint() {
+        Path target = checkpointFile.toPath();
+        Path temp = target.resolveSibling(target.getFileName() + ".tmp");
+        try {
+            Files.write(temp, toCheckpointLine(resolved, missing, retry).getBytes(StandardCharsets.UTF_8));
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            logger.warning("변환 체크포인트 저장 중 오류 발생: " + e.getMessage());
+        }
+    }
+
+    private static String toCheckpointLine(Map<String, UUID> resolvedEntries, Set<String> missingKeys,
+                                           Map<String, String> retryEntries) {
+        JSONObject resolvedJson = new JSONObject();
+        for (Map.Entry<String, UUID> entry : resolvedEntries.entrySet()) {
+            resolvedJson.put(entry.getKey(), entry.getValue().toString());
+        }
+        JSONObject json = new JSONObject();
+        json.put("resolved", resolvedJson);
+        json.put("missing", new JSONArray(missingKeys));
+        if (!retryEntries.isEmpty()) {
+            json.put("retry", new JSONObject(retryEntries));
+        }
+        return json + "\n";
+    }
+}
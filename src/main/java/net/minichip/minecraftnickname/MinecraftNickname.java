@@ -9,24 +9,101 @@ import org.bukkit.entity.Player;
 import org.bukkit.event.EventHandler;
 import org.bukkit.event.Listener;
 import org.bukkit.event.player.AsyncPlayerChatEvent;
+import org.bukkit.event.player.AsyncPlayerPreLoginEvent;
 import org.bukkit.event.player.PlayerJoinEvent;
+import org.bukkit.event.player.PlayerQuitEvent;
 import org.bukkit.plugin.java.JavaPlugin;
-import org.bukkit.scoreboard.Scoreboard;
-import org.bukkit.scoreboard.Team;
 
 import java.io.File;
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
 import java.util.Map;
-import org.json.JSONObject;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
 
 public class MinecraftNickname extends JavaPlugin implements Listener {
 
-    // 닉네임 데이터: UUID -> JSONObject (형식: { "name": "실제이름", "nick": "닉네임" })
-    private Map<String, JSONObject> nicknames = new HashMap<>();
+    // /nicksearch 결과와 자동 완성 후보 최대 개수
+    private static final int SEARCH_LIMIT = 20;
+    private static final int COMPLETE_LIMIT = 50;
+    private static final int IMPORT_ERROR_LINES = 10;
+    private static final String BULK_FOLDER = "bulk";
+
+    // 닉네임 데이터: UUID -> NicknameRecord (파일 형식: { "name": "실제이름", "nick": "닉네임" })
+    private final NicknameStore nicknames = new NicknameStore();
+    // 다른 플러그인이 등록한 표시 형식 치환자
+    private final PlaceholderHooks placeholderHooks = new PlaceholderHooks(getLogger());
+    // 채팅/탭/입장 표시 문자열 캐시 (치환자 값 포함)
+    private final DisplayCache displayCache = new DisplayCache(nicknames, placeholderHooks);
+    // 비동기 채팅 스레드에서 형식만 적용하는 단계
+    private final ChatFormatStage chatFormatStage = new ChatFormatStage(displayCache);
+    // 바뀐 플레이어만 탭 리스트 갱신
+    private final TabListUpdater tabListUpdater = new TabListUpdater(this, displayCache);
+    // 닉네임/이름 접두어 검색 (/nicksearch, 자동 완성)
+    private final NicknameSearch search = new NicknameSearch(nicknames);
     private File configFile;
     private File nicknameFile;
+    // 이름 -> UUID 조회 캐시 (설정을 불러올 때 다시 만듭니다)
+    private UuidCache uuidCache = new UuidCache(10000, TimeUnit.DAYS.toMillis(1), TimeUnit.MINUTES.toMillis(10));
+    private UuidResolver uuidResolver = new UuidResolver(uuidCache);
+    private File uuidCacheFile;
+    // 이전 버전 파일 변환 설정 및 상태
+    private String migrationEndpoint = MojangBulkProfileResolver.DEFAULT_ENDPOINT;
+    private int migrationBatchSize = 10;
+    private int migrationConcurrency = 2;
+    private int migrationMaxAttempts = 5;
+    private volatile boolean migrating;
+    // 서버 시작 시 저장된 기록을 문제없이 모두 불러왔는지 (머리 위 팀 정리 완료 기록에 사용)
+    private boolean nicknamesLoaded;
+    private final AtomicBoolean reloading = new AtomicBoolean();
+    // 다시 불러오는 동안 바뀐 플레이어 (읽어 온 내용 위에 현재 값을 다시 적용합니다)
+    private final Set<UUID> changedDuringReload = ConcurrentHashMap.newKeySet();
+    private final AtomicBoolean bulkRunning = new AtomicBoolean();
+    private Thread migrationThread;
+    // 저장 방식 (json: nicknames.json 전체 저장, journal: 변경 내역 덧붙이기, jdbc: 여러 서버가 함께 쓰는 데이터베이스)
+    private NicknameStorage storage;
+    private String storageType = "json";
+    private long saveIntervalMillis = 1000L;
+    private long journalCompactThresholdBytes = 1024L * 1024L;
+    private String jdbcUrl;
+    private String jdbcUsername = "";
+    private String jdbcPassword = "";
+    private long jdbcBatchIntervalMillis = 200L;
+    private long jdbcPollIntervalMillis = 5000L;
+    // 지연 로딩 (jdbc 전용): 접속 중이거나 최근 접속한 플레이어의 기록만 메모리에 둡니다.
+    private boolean lazyLoad;
+    private int lazyMaxOfflineRecords = 1000;
+    private NicknameResidency residency;
+    // 계측 값 Prometheus 엔드포인트 (127.0.0.1 전용)
+    private boolean prometheusEnabled;
+    private int prometheusPort = 9464;
+    private MetricsHttpServer metricsServer;
+    // 외부에서 닉네임 파일을 바꾸면 자동으로 다시 불러오기
+    private boolean watchFile;
+    private long watchDebounceMillis = 500L;
+    private NicknameFileWatcher fileWatcher;
+    // 플레이어가 직접 바꾸는 닉네임 (/nickset): 변경 대기 시간, 서버 전체 변경 속도 제한, 모아서 반영
+    private boolean selfChangeAllowed = true;
+    private long selfChangeCooldownSeconds = TimeUnit.DAYS.toSeconds(1);
+    private int selfChangesPerMinute = 30;
+    private int selfChangeBurst = 10;
+    private long selfChangeIntervalTicks = 20L;
+    private int selfChangeMaxQueued = 100;
+    private NicknameChangeQueue changeQueue;
 
     @Override
     public void onEnable() {
@@ -44,7 +121,29 @@ public class MinecraftNickname extends JavaPlugin implements Listener {
             createDefaultConfig();
         }
         loadConfig();
-        convertOldNicknames();
+        storage = createStorage();
+        residency = createResidency();
+        loadUuidCache();
+        nicknames.addListener(tabListUpdater);
+        nicknames.addListener(search);
+        nicknames.addListener(new NicknameStore.Listener() {
+            @Override
+            public void onRecordChanged(UUID uuid, NicknameRecord before, NicknameRecord after) {
+                // 변환이 끝나기 전에는 이전 버전 파일을 덮어쓰지 않습니다.
+                // (변환 중에는 닉네임 변경 명령과 이름 갱신을 막으므로 여기서 놓치는 변경은 없습니다)
+                if (!migrating) {
+                    storage.recordChanged(uuid, before, after);
+                }
+                if (reloading.get()) {
+                    changedDuringReload.add(uuid);
+                }
+            }
+
+            @Override
+            public void onSnapshotReplaced(NicknameSnapshot before, NicknameSnapshot after, Set<UUID> changed) {
+                // 저장소에서 읽어 온 내용이므로 다시 기록하지 않습니다.
+            }
+        });
         loadNicknames();
 
         getServer().getPluginManager().registerEvents(this, this);
@@ -53,13 +152,48 @@ public class MinecraftNickname extends JavaPlugin implements Listener {
         getCommand("nickadd").setExecutor(this);
         getCommand("nickmodify").setExecutor(this);
         getCommand("nickdel").setExecutor(this);
+        getCommand("nicksync").setExecutor(this);
+        getCommand("nickstats").setExecutor(this);
+        getCommand("nicksearch").setExecutor(this);
+        getCommand("nickimport").setExecutor(this);
+        getCommand("nickexport").setExecutor(this);
+
+        changeQueue = new NicknameChangeQueue(nicknames, selfChangeCooldownSeconds,
+                new TokenBucket(selfChangeBurst, selfChangesPerMinute / 60.0), selfChangeMaxQueued);
+        changeQueue.start(this, selfChangeIntervalTicks);
+        startFileWatcher();
+        startMetricsServer();
+        if (!migrating) {
+            startOverheadTeamCleanup();
+        }
 
         // 서버에 접속 중인 모든 플레이어의 탭 리스트 닉네임 적용
-        applyNicknamesToAllPlayers();
+        tabListUpdater.markAllDirty();
     }
 
     @Override
     public void onDisable() {
+        if (fileWatcher != null) {
+            fileWatcher.stop();
+        }
+        if (metricsServer != null) {
+            metricsServer.stop();
+        }
+        search.close();
+        if (changeQueue != null) {
+            // 아직 반영하지 않은 변경 요청을 저장소를 닫기 전에 반영합니다.
+            changeQueue.cancel();
+            changeQueue.flush();
+        }
+        if (migrationThread != null) {
+            // 변환 중이었다면 멈춥니다. 진행 상황은 체크포인트에 남아 있습니다.
+            migrationThread.interrupt();
+        }
+        if (storage != null) {
+            // 아직 파일에 쓰지 않은 변경 사항을 저장합니다.
+            storage.close();
+        }
+        saveUuidCache();
         getLogger().info("MinecraftNickname Plugin이 비활성화되었습니다.");
     }
 
@@ -68,8 +202,83 @@ public class MinecraftNickname extends JavaPlugin implements Listener {
             getLogger().warning("config.yml 파일이 존재하지 않습니다. 기본 파일을 생성합니다.");
             configFile.createNewFile();
             String defaultConfig = "# 닉네임 JSON 파일의 경로를 설정하세요.\n"
-                    + "# 예: nickname-file-path: \"nicknames.json\"\n";
-            Files.write(configFile.toPath(), defaultConfig.getBytes());
+                    + "# 예: nickname-file-path: \"nicknames.json\"\n"
+                    + "\n"
+                    + "# 저장 방식 (json: 변경할 때마다 파일 전체 저장, journal: 변경 내역만 덧붙이고 주기적으로 정리,\n"
+                    + "#           jdbc: 여러 서버가 하나의 데이터베이스를 함께 사용)\n"
+                    + "storage-type: json\n"
+                    + "\n"
+                    + "# json: 변경 사항을 파일에 모아서 저장하는 최소 간격 (밀리초)\n"
+                    + "save-interval-ms: 1000\n"
+                    + "\n"
+                    + "# journal: 저널 파일이 이 크기(KB)를 넘으면 nicknames.json 스냅샷으로 합칩니다.\n"
+                    + "journal:\n"
+                    + "  compact-threshold-kb: 1024\n"
+                    + "\n"
+                    + "# jdbc: 데이터베이스 연결 설정 (비워 두면 플러그인 폴더의 SQLite 파일을 사용합니다)\n"
+                    + "# 예: url: \"jdbc:mysql://localhost:3306/minecraft\"\n"
+                    + "jdbc:\n"
+                    + "  url: \"\"\n"
+                    + "  username: \"\"\n"
+                    + "  password: \"\"\n"
+                    + "  # 변경 사항을 모아서 기록하는 간격 (밀리초)\n"
+                    + "  batch-interval-ms: 200\n"
+                    + "  # 다른 서버의 변경을 확인하는 간격 (초)\n"
+                    + "  poll-interval-seconds: 5\n"
+                    + "\n"
+                    + "# 지연 로딩: 접속 중이거나 최근 접속한 플레이어의 기록만 메모리에 두고, 나머지는 필요할 때 읽어 옵니다.\n"
+                    + "# (storage-type: jdbc 에서만 동작, 닉네임 중복 검사용 색인은 항상 메모리에 있습니다)\n"
+                    + "lazy-load:\n"
+                    + "  enabled: false\n"
+                    + "  # 메모리에 남겨 둘 최근 접속 종료 플레이어 수\n"
+                    + "  max-offline-records: 1000\n"
+                    + "\n"
+                    + "# 계측 값을 Prometheus 형식으로 내보냅니다. (http://127.0.0.1:<port>/metrics, 서버 내부에서만 접속 가능)\n"
+                    + "metrics:\n"
+                    + "  prometheus:\n"
+                    + "    enabled: false\n"
+                    + "    port: 9464\n"
+                    + "\n"
+                    + "# 외부 도구가 닉네임 파일을 바꾸면 자동으로 다시 불러옵니다. (storage-type: json 에서만 동작)\n"
+                    + "watch-file: false\n"
+                    + "# 연속된 쓰기를 한 번으로 묶는 대기 시간 (밀리초)\n"
+                    + "watch-debounce-ms: 500\n"
+                    + "\n"
+                    + "# 플레이어가 /nickset 으로 직접 닉네임을 바꾸는 설정\n"
+                    + "self-service:\n"
+                    + "  # false 면 처음 한 번만 설정할 수 있고, 이후 변경은 관리자가 합니다.\n"
+                    + "  allow-change: true\n"
+                    + "  # 한 번 바꾼 뒤 다시 바꿀 수 있을 때까지의 시간 (초, nickname.change.bypass 권한이 있으면 무시)\n"
+                    + "  cooldown-seconds: 86400\n"
+                    + "  # 서버 전체에서 1분 동안 처리하는 최대 변경 수, 한꺼번에 몰려도 받아 주는 수\n"
+                    + "  changes-per-minute: 30\n"
+                    + "  burst: 10\n"
+                    + "  # 변경 요청을 모아서 반영하는 간격 (틱)과 기다릴 수 있는 최대 요청 수\n"
+                    + "  apply-interval-ticks: 20\n"
+                    + "  max-queued: 100\n"
+                    + "\n"
+                    + "# 표시 형식 ({nick}: 닉네임, {name}: 플레이어 이름, {message}: 채팅 내용, &: 색상 코드)\n"
+                    + "format:\n"
+                    + "  chat: \"" + DisplayFormat.DEFAULT_CHAT + "\"\n"
+                    + "  chat-no-nick: \"" + DisplayFormat.DEFAULT_CHAT_NO_NICK + "\"\n"
+                    + "  tab: \"" + DisplayFormat.DEFAULT_TAB + "\"\n"
+                    + "  tab-no-nick: \"" + DisplayFormat.DEFAULT_TAB_NO_NICK + "\"\n"
+                    + "  join: \"" + DisplayFormat.DEFAULT_JOIN + "\"\n"
+                    + "  join-no-nick: \"" + DisplayFormat.DEFAULT_JOIN_NO_NICK + "\"\n"
+                    + "\n"
+                    + "# 플레이어 이름 -> UUID 조회 캐시 (Mojang API 호출을 줄입니다)\n"
+                    + "uuid-cache:\n"
+                    + "  max-entries: 10000\n"
+                    + "  hit-ttl-minutes: 1440\n"
+                    + "  miss-ttl-minutes: 10\n"
+                    + "\n"
+                    + "# 이전 버전 닉네임 파일 변환 설정\n"
+                    + "migration:\n"
+                    + "  profile-endpoint: \"" + MojangBulkProfileResolver.DEFAULT_ENDPOINT + "\"\n"
+                    + "  batch-size: 10\n"
+                    + "  concurrency: 2\n"
+                    + "  max-attempts: 5\n";
+            Files.write(configFile.toPath(), defaultConfig.getBytes(StandardCharsets.UTF_8));
         } catch (IOException e) {
             getLogger().severe("config.yml 파일 생성 중 오류 발생: " + e.getMessage());
         }
@@ -88,243 +297,812 @@ public class MinecraftNickname extends JavaPlugin implements Listener {
             nicknameFile = new File(getDataFolder(), filePath);
         }
         getLogger().info("닉네임 JSON 파일 경로: " + nicknameFile.getAbsolutePath());
+        // 표시 형식은 여기서 한 번만 컴파일합니다.
+        displayCache.setFormat(DisplayFormat.load(config));
+        uuidCache = new UuidCache(
+                Math.max(1, config.getInt("uuid-cache.max-entries", 10000)),
+                TimeUnit.MINUTES.toMillis(config.getLong("uuid-cache.hit-ttl-minutes", 1440)),
+                TimeUnit.MINUTES.toMillis(config.getLong("uuid-cache.miss-ttl-minutes", 10)));
+        uuidResolver = new UuidResolver(uuidCache);
+        migrationEndpoint = config.getString("migration.profile-endpoint", MojangBulkProfileResolver.DEFAULT_ENDPOINT);
+        migrationBatchSize = config.getInt("migration.batch-size", 10);
+        migrationConcurrency = config.getInt("migration.concurrency", 2);
+        migrationMaxAttempts = config.getInt("migration.max-attempts", 5);
+        saveIntervalMillis = config.getLong("save-interval-ms", 1000L);
+        storageType = config.getString("storage-type", "json");
+        journalCompactThresholdBytes = config.getLong("journal.compact-threshold-kb", 1024L) * 1024L;
+        jdbcUrl = config.getString("jdbc.url", "");
+        if (jdbcUrl == null || jdbcUrl.isEmpty()) {
+            jdbcUrl = "jdbc:sqlite:" + new File(getDataFolder(), "nicknames.db").getAbsolutePath();
+        }
+        jdbcUsername = config.getString("jdbc.username", "");
+        jdbcPassword = config.getString("jdbc.password", "");
+        jdbcBatchIntervalMillis = config.getLong("jdbc.batch-interval-ms", 200L);
+        jdbcPollIntervalMillis = TimeUnit.SECONDS.toMillis(config.getLong("jdbc.poll-interval-seconds", 5L));
+        lazyLoad = config.getBoolean("lazy-load.enabled", false);
+        lazyMaxOfflineRecords = config.getInt("lazy-load.max-offline-records", 1000);
+        prometheusEnabled = config.getBoolean("metrics.prometheus.enabled", false);
+        prometheusPort = config.getInt("metrics.prometheus.port", 9464);
+        watchFile = config.getBoolean("watch-file", false);
+        watchDebounceMillis = config.getLong("watch-debounce-ms", 500L);
+        selfChangeAllowed = config.getBoolean("self-service.allow-change", true);
+        selfChangeCooldownSeconds = config.getLong("self-service.cooldown-seconds", TimeUnit.DAYS.toSeconds(1));
+        selfChangesPerMinute = config.getInt("self-service.changes-per-minute", 30);
+        selfChangeBurst = config.getInt("self-service.burst", 10);
+        selfChangeIntervalTicks = config.getLong("self-service.apply-interval-ticks", 20L);
+        selfChangeMaxQueued = config.getInt("self-service.max-queued", 100);
+    }
+
+    private void loadUuidCache() {
+        uuidCacheFile = new File(getDataFolder(), "uuid-cache.json");
+        try {
+            uuidCache.load(uuidCacheFile);
+        } catch (IOException | RuntimeException e) {
+            // 캐시는 없어도 동작하므로 경고만 남기고 빈 캐시로 시작합니다.
+            getLogger().warning("uuid-cache.json 파일을 읽지 못했습니다: " + e.getMessage());
+        }
+        // 접속 중인 플레이어는 가장 확실한 정보입니다.
+        for (Player player : Bukkit.getOnlinePlayers()) {
+            uuidCache.put(player.getName(), player.getUniqueId());
+        }
+    }
+
+    private void saveUuidCache() {
+        if (uuidCacheFile == null) {
+            return;
+        }
+        try {
+            uuidCache.save(uuidCacheFile);
+        } catch (IOException e) {
+            getLogger().severe("uuid-cache.json 파일 저장 중 오류 발생: " + e.getMessage());
+        }
+    }
+
+    private NicknameStorage createStorage() {
+        if (storageType.equalsIgnoreCase("journal")) {
+            getLogger().info("저장 방식: journal");
+            return new JournalNicknameStorage(nicknames, nicknameFile, journalCompactThresholdBytes, getLogger());
+        }
+        if (storageType.equalsIgnoreCase("jdbc")) {
+            getLogger().info("저장 방식: jdbc (" + jdbcUrl.split(";")[0].split("\\?")[0] + ")");
+            // 데이터베이스가 비어 있으면 기존 닉네임 파일을 가져옵니다.
+            return new JdbcNicknameStorage(nicknames, jdbcUrl, jdbcUsername, jdbcPassword,
+                    jdbcBatchIntervalMillis, jdbcPollIntervalMillis, nicknameFile, getLogger());
+        }
+        if (!storageType.equalsIgnoreCase("json")) {
+            getLogger().warning("알 수 없는 storage-type: " + storageType + " (json 으로 동작합니다)");
+        }
+        JsonNicknameStorage jsonStorage = new JsonNicknameStorage(nicknames, nicknameFile, saveIntervalMillis, getLogger());
+        // 저장하려던 파일이 외부에서 바뀌었으면 다시 불러와 합칩니다. (watch-file 을 끈 경우에도)
+        jsonStorage.setExternalChangeHandler(() -> Bukkit.getScheduler().runTask(this, this::reloadFromWatcher));
+        return jsonStorage;
+    }
+
+    private NicknameResidency createResidency() {
+        if (!lazyLoad) {
+            return null;
+        }
+        if (!(storage instanceof JdbcNicknameStorage)) {
+            getLogger().warning("lazy-load 는 storage-type: jdbc 에서만 사용할 수 있습니다.");
+            return null;
+        }
+        NicknameResidency created = new NicknameResidency(nicknames, (JdbcNicknameStorage) storage, lazyMaxOfflineRecords);
+        for (Player player : Bukkit.getOnlinePlayers()) {
+            created.online(player.getUniqueId());
+        }
+        getLogger().info("지연 로딩 사용: 최근 접속 종료 플레이어 " + lazyMaxOfflineRecords + "명까지 메모리에 둡니다.");
+        return created;
+    }
+
+    private void startMetricsServer() {
+        if (!prometheusEnabled) {
+            return;
+        }
+        metricsServer = new MetricsHttpServer(prometheusPort, getLogger());
+        try {
+            metricsServer.start();
+        } catch (IOException e) {
+            getLogger().warning("계측 엔드포인트를 열지 못했습니다 (포트 " + prometheusPort + "): " + e.getMessage());
+            metricsServer = null;
+        }
+    }
+
+    private void startFileWatcher() {
+        if (!watchFile) {
+            return;
+        }
+        if (!(storage instanceof JsonNicknameStorage)) {
+            getLogger().warning("watch-file 은 storage-type: json 에서만 사용할 수 있습니다.");
+            return;
+        }
+        JsonNicknameStorage jsonStorage = (JsonNicknameStorage) storage;
+        fileWatcher = new NicknameFileWatcher(nicknameFile.toPath(), watchDebounceMillis, jsonStorage::isOwnWrite,
+                () -> Bukkit.getScheduler().runTask(this, this::reloadFromWatcher), getLogger());
+        try {
+            fileWatcher.start();
+        } catch (IOException e) {
+            fileWatcher = null;
+            getLogger().severe("닉네임 파일 감시를 시작하지 못했습니다: " + e.getMessage());
+        }
+    }
+
+    // 파일 감시로 인한 다시 불러오기. 이미 다시 불러오는 중이면 끝난 뒤 한 번 더 시도합니다.
+    private void reloadFromWatcher() {
+        if (migrating) {
+            return;
+        }
+        if (!reloadNicknamesAsync(getServer().getConsoleSender())) {
+            Bukkit.getScheduler().runTaskLater(this, this::reloadFromWatcher, 20L);
+        }
     }
 
     private void loadNicknames() {
-        if (!nicknameFile.exists()) {
-            getLogger().warning("nicknames.json 파일이 존재하지 않습니다. 빈 파일을 생성합니다.");
+        long startedAt = System.nanoTime();
+        try {
+            List<NicknameRecord> records = storage.load();
+            nicknames.replaceAll(records);
+            // 저장된 이름으로 UUID 캐시를 채웁니다. (이미 더 새로운 정보가 있으면 건드리지 않습니다)
+            for (NicknameRecord record : records) {
+                if (record.name() != null) {
+                    uuidCache.seed(record.name(), record.uuid());
+                }
+            }
+            nicknamesLoaded = true;
+            PluginMetrics.RELOAD.recordSince(startedAt);
+            long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedAt);
+            getLogger().info("닉네임 데이터 로드 완료: " + records.size() + "개 (" + elapsedMillis + "ms)");
+            // 지난 변환에서 UUID 조회에 실패해 남겨 둔 항목이 있으면 다시 변환합니다.
+            Map<String, String> retry = LegacyMigration.readRetry(migrationCheckpointFile(), getLogger());
+            if (!retry.isEmpty()) {
+                startLegacyMigration(retry);
+            }
+        } catch (LegacyFormatException e) {
+            // 두 형식이 섞인 파일이면 현재 형식 항목을 먼저 메모리에 올립니다.
+            // 변환이 끝나면 finishLegacyMigration 이 이 항목들과 변환 결과를 합쳐 파일을 다시 씁니다.
+            if (!e.getRecords().isEmpty()) {
+                nicknames.replaceAll(e.getRecords());
+                for (NicknameRecord record : e.getRecords()) {
+                    if (record.name() != null) {
+                        uuidCache.seed(record.name(), record.uuid());
+                    }
+                }
+                getLogger().info("현재 형식 항목 " + e.getRecords().size() + "개를 먼저 불러왔습니다.");
+            }
+            // 이미 한 번 읽은 내용을 그대로 변환 작업에 넘깁니다. (지난 변환에서 남겨 둔 항목도 함께)
+            Map<String, String> legacy = LegacyMigration.readRetry(migrationCheckpointFile(), getLogger());
+            legacy.putAll(e.getLegacyNicknames());
+            startLegacyMigration(legacy);
+        } catch (IOException e) {
+            getLogger().severe("nicknames.json 파일 읽는 중 오류 발생: " + e.getMessage());
+        }
+    }
+
+    // /nickreload: 파일 읽기와 검증은 비동기 스레드에서 하고, 메인 스레드에서는 완성된 스냅샷으로 한 번에 교체만 합니다.
+    // 교체 전까지 채팅 등은 기존 데이터를 그대로 보며, 파일에 문제가 있으면 기존 데이터를 유지합니다.
+    // 다시 불러오기를 시작했으면 true, 이미 진행 중이면 false 를 반환합니다.
+    private boolean reloadNicknamesAsync(CommandSender sender) {
+        if (!reloading.compareAndSet(false, true)) {
+            return false;
+        }
+        changedDuringReload.clear();
+        Bukkit.getScheduler().runTaskAsynchronously(this, () -> {
+            long startedAt = System.nanoTime();
+            List<NicknameRecord> records;
+            String error;
             try {
-                nicknameFile.createNewFile();
-                Files.write(nicknameFile.toPath(), "{}".getBytes());
+                records = storage.load();
+                error = validateRecords(records);
+            } catch (LegacyFormatException e) {
+                records = null;
+                error = "이전 버전 형식의 파일입니다. 서버를 다시 시작하면 변환됩니다.";
             } catch (IOException e) {
-                getLogger().severe("nicknames.json 파일 생성 중 오류 발생: " + e.getMessage());
+                records = null;
+                error = e.getMessage();
+            }
+            List<NicknameRecord> loaded = records;
+            String failure = error;
+            Bukkit.getScheduler().runTask(this, () -> {
+                reloading.set(false);
+                Set<UUID> touched = new HashSet<>(changedDuringReload);
+                changedDuringReload.clear();
+                List<NicknameRecord> merged = loaded;
+                String invalid = failure;
+                if (invalid == null && !touched.isEmpty()) {
+                    // 읽는 동안 메모리에서 바뀐 기록은 파일 내용 대신 현재 값을 유지합니다.
+                    merged = mergeChangedDuringReload(loaded, touched);
+                    invalid = validateRecords(merged);
+                }
+                if (invalid != null) {
+                    getLogger().severe("닉네임 데이터 다시 로드 실패: " + invalid);
+                    sender.sendMessage(ChatColor.RED + "닉네임 데이터를 다시 불러오지 못했습니다. 기존 데이터를 유지합니다: " + invalid);
+                    return;
+                }
+                // 바뀐 항목만 리스너(탭 리스트, 캐시)에 전달됩니다.
+                Set<UUID> changed = nicknames.replaceAll(merged);
+                if (!touched.isEmpty()) {
+                    // 파일에는 아직 없는 값이 남아 있으므로 다시 기록합니다.
+                    storage.saveAll();
+                }
+                for (NicknameRecord record : loaded) {
+                    if (record.name() != null) {
+                        uuidCache.seed(record.name(), record.uuid());
+                    }
+                }
+                reconcileNames(collectOnlineNames());
+                PluginMetrics.RELOAD.recordSince(startedAt);
+                long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedAt);
+                sender.sendMessage(ChatColor.GREEN + "닉네임 데이터가 다시 로드되었습니다. (" + loaded.size() + "개, 변경 "
+                        + changed.size() + "개, " + elapsedMillis + "ms)");
+            });
+        });
+        return true;
+    }
+
+    private List<NicknameRecord> mergeChangedDuringReload(List<NicknameRecord> loaded, Set<UUID> touched) {
+        NicknameSnapshot current = nicknames.snapshot();
+        List<NicknameRecord> merged = new ArrayList<>(loaded.size() + touched.size());
+        for (NicknameRecord record : loaded) {
+            if (!touched.contains(record.uuid())) {
+                merged.add(record);
             }
         }
-        try {
-            String content = new String(Files.readAllBytes(nicknameFile.toPath()));
-            JSONObject json = new JSONObject(content);
-            nicknames.clear();
-            for (String key : json.keySet()) {
-                nicknames.put(key, json.getJSONObject(key));
+        for (UUID uuid : touched) {
+            NicknameRecord record = current.get(uuid);
+            if (record != null) {
+                merged.add(record);
             }
-            getLogger().info("닉네임 데이터 로드 완료: " + nicknames);
-        } catch (IOException e) {
-            getLogger().severe("nicknames.json 파일 읽는 중 오류 발생: " + e.getMessage());
         }
+        return merged;
+    }
+
+    // 불러온 기록을 검증합니다. 문제가 없으면 null, 있으면 오류 메시지를 반환합니다.
+    private static String validateRecords(List<NicknameRecord> records) {
+        Map<String, UUID> seen = new HashMap<>(records.size() * 2);
+        for (NicknameRecord record : records) {
+            if (record.nick() == null) {
+                continue;
+            }
+            UUID owner = seen.putIfAbsent(NicknameKeys.fold(record.nick()), record.uuid());
+            if (owner != null) {
+                return "중복된 닉네임이 있습니다: " + record.nick() + " (" + owner + ", " + record.uuid() + ")";
+            }
+        }
+        return null;
     }
 
     // 채팅 메시지에서 탭 리스트에만 닉네임 적용 (머리 위 제거)
     @EventHandler
     public void onPlayerChat(AsyncPlayerChatEvent event) {
-        Player player = event.getPlayer();
-        String uuid = player.getUniqueId().toString();
-        JSONObject data = nicknames.get(uuid);
-        String nickname = (data != null && data.has("nick")) ? data.getString("nick") : null;
-        String message = event.getMessage().replace("%", "%%");
-        String format = (nickname != null)
-                ? ChatColor.AQUA + "[" + nickname + "] " + ChatColor.GOLD + "<" + player.getName() + "> " + ChatColor.WHITE + message
-                : ChatColor.GOLD + "<" + player.getName() + "> " + ChatColor.WHITE + message;
-        event.setFormat(format);
-    }
-
-    // 모든 온라인 플레이어에 대해 탭 리스트 닉네임 적용
-    private void applyNicknamesToAllPlayers() {
-        for (Player player : Bukkit.getOnlinePlayers()) {
-            applyNicknameToPlayer(player);
+        chatFormatStage.apply(event);
+    }
+
+    // 저장소 전체 내용을 다시 기록합니다. (개별 변경은 저장소 리스너가 기록합니다)
+    private void saveNicknames() {
+        if (migrating) {
+            return;
         }
+        storage.saveAll();
     }
 
-    private void applyNicknameToPlayer(Player player) {
-        String uuid = player.getUniqueId().toString();
-        if (nicknames.containsKey(uuid)) {
-            JSONObject data = nicknames.get(uuid);
-            String nick = data.optString("nick", null);
-            String actualName = data.optString("name", player.getName());
-            if (nick != null) {
-                player.setPlayerListName(ChatColor.AQUA + "[" + nick + "] " + ChatColor.RESET + actualName);
+    // 한 플레이어의 마지막 접속 이름(name)을 확인하고, 바뀌었으면 기록을 갱신합니다. (O(1))
+    // 갱신되었으면 true 를 반환합니다. 저장은 저장소 리스너가 처리합니다.
+    private boolean updateLastSeenName(UUID uuid, String currentName) {
+        if (migrating) {
+            // 변환 중에는 저장할 수 없으므로 바꾸지 않습니다. 변환이 끝나면 접속 중인 플레이어 전체를 다시 맞춥니다.
+            return false;
+        }
+        NicknameRecord data = nicknames.get(uuid);
+        if (data == null || currentName.equals(data.name())) {
+            return false;
+        }
+        nicknames.put(data.withName(currentName));
+        getLogger().info("플레이어 " + uuid + "의 이름을 업데이트했습니다: " + currentName);
+        return true;
+    }
+
+    // 접속 중인 플레이어 목록(UUID -> 현재 이름)을 기준으로 저장된 이름을 모두 맞춥니다.
+    // 리스너와 저장 기록이 함께 실행되므로 메인 스레드에서 호출해야 합니다. 갱신된 개수를 반환합니다.
+    private int reconcileNames(Map<UUID, String> onlineNames) {
+        int updated = 0;
+        for (Map.Entry<UUID, String> entry : onlineNames.entrySet()) {
+            if (updateLastSeenName(entry.getKey(), entry.getValue())) {
+                updated++;
             }
-        } else {
-            player.setPlayerListName(ChatColor.RESET + player.getName());
         }
+        return updated;
     }
 
-    private void saveNicknames() {
-        try {
-            JSONObject json = new JSONObject(nicknames);
-            Files.write(nicknameFile.toPath(), json.toString(4).getBytes());
-            getLogger().info("닉네임 데이터가 업데이트되었습니다.");
-        } catch (IOException e) {
-            getLogger().severe("nicknames.json 파일 저장 중 오류 발생: " + e.getMessage());
-        }
-    }
-
-    private void validateAndUpdateAllPlayerNames() {
-        boolean updated = false;
-        // nicknames 맵의 모든 항목을 순회합니다.
-        for (Map.Entry<String, JSONObject> entry : nicknames.entrySet()) {
-            String uuid = entry.getKey();
-            JSONObject data = entry.getValue();
-            // UUID로 온라인 플레이어 찾기 (UUID 객체로 변환)
-            Player player = Bukkit.getPlayer(java.util.UUID.fromString(uuid));
-            if (player != null) {
-                String storedName = data.optString("name", "");
-                String currentName = player.getName();
-                // 저장된 이름과 현재 이름이 다르면 업데이트
-                if (!storedName.equals(currentName)) {
-                    data.put("name", currentName);
-                    updated = true;
-                    getLogger().info("플레이어 " + uuid + "의 이름을 업데이트했습니다: " + currentName);
-                }
+    // 스냅샷에 기록이 있고 저장된 이름이 현재 이름과 다른 플레이어만 고릅니다. (읽기만 하므로 어느 스레드에서든 호출 가능)
+    private static Map<UUID, String> findRenamed(NicknameSnapshot snapshot, Map<UUID, String> onlineNames) {
+        Map<UUID, String> renamed = new HashMap<>();
+        for (Map.Entry<UUID, String> entry : onlineNames.entrySet()) {
+            NicknameRecord record = snapshot.get(entry.getKey());
+            if (record != null && !entry.getValue().equals(record.name())) {
+                renamed.put(entry.getKey(), entry.getValue());
             }
         }
-        // 하나라도 업데이트되었다면 nicknames.json 파일 저장
-        if (updated) {
-            saveNicknames();
+        return renamed;
+    }
+
+    private Map<UUID, String> collectOnlineNames() {
+        Map<UUID, String> onlineNames = new HashMap<>();
+        for (Player player : Bukkit.getOnlinePlayers()) {
+            onlineNames.put(player.getUniqueId(), player.getName());
+        }
+        return onlineNames;
+    }
+
+    // jdbc 저장 방식: 접속 직전에 해당 플레이어의 기록을 데이터베이스에서 다시 읽어 다른 서버의 최신 변경을 반영합니다.
+    // (비동기 이벤트이므로 서버 스레드를 막지 않습니다)
+    @EventHandler
+    public void onPlayerPreLogin(AsyncPlayerPreLoginEvent event) {
+        if (!(storage instanceof JdbcNicknameStorage)) {
+            return;
+        }
+        JdbcNicknameStorage jdbcStorage = (JdbcNicknameStorage) storage;
+        UUID uuid = event.getUniqueId();
+        try {
+            if (residency != null) {
+                // 지연 로딩: 메모리에 없던 기록도 여기서 올립니다.
+                residency.preLogin(uuid);
+                return;
+            }
+            Map<UUID, NicknameRecord> change = new HashMap<>();
+            change.put(uuid, jdbcStorage.fetch(uuid));
+            nicknames.applyExternal(change, id -> !jdbcStorage.hasPendingWrite(id));
+        } catch (IOException e) {
+            // 데이터베이스를 읽지 못해도 접속은 막지 않고 메모리의 기록을 사용합니다.
+            getLogger().warning("접속 시 닉네임을 불러오지 못했습니다: " + e.getMessage());
         }
     }
 
     @EventHandler
     public void onPlayerJoin(PlayerJoinEvent event) {
-        // 모든 저장된 닉네임 항목 검증 및 업데이트
-        validateAndUpdateAllPlayerNames();
-        // 그 후, 해당 플레이어에게 닉네임 적용
-        applyNicknamesToAllPlayers();
-        // 입장 메시지
+        long startedAt = System.nanoTime();
         Player player = event.getPlayer();
-        String uuid = player.getUniqueId().toString();
-        String displayName;
-        if (nicknames.containsKey(uuid)) {
-            JSONObject data = nicknames.get(uuid);
-            String nick = data.optString("nick", null);
-            String actualName = data.optString("name", player.getName());
-            if (nick != null) {
-                displayName = ChatColor.AQUA + "[" + nick + "] " + ChatColor.RESET + actualName;
-            } else {
-                displayName = actualName;
+        if (residency != null) {
+            residency.online(player.getUniqueId());
+        }
+        uuidCache.put(player.getName(), player.getUniqueId());
+        // 접속한 플레이어의 기록만 확인하고, 이름이 바뀌었으면 갱신
+        updateLastSeenName(player.getUniqueId(), player.getName());
+        // 그 후, 해당 플레이어에게만 닉네임 적용 (다음 틱에 한 번에 전송)
+        tabListUpdater.markDirty(player.getUniqueId());
+        // 입장 메시지
+        event.setJoinMessage(displayCache.get(player.getUniqueId(), player.getName()).joinMessage());
+        PluginMetrics.JOIN.recordSince(startedAt);
+    }
+
+    @EventHandler
+    public void onPlayerQuit(PlayerQuitEvent event) {
+        displayCache.remove(event.getPlayer().getUniqueId());
+        tabListUpdater.forget(event.getPlayer().getUniqueId());
+        if (residency != null) {
+            residency.offline(event.getPlayer().getUniqueId());
+        }
+    }
+
+    // 이전 버전 파일({ "플레이어이름": "닉네임" })을 백그라운드에서 변환합니다.
+    // 변환이 끝날 때까지 서버는 평소처럼 켜지며, 변환 결과는 메인 스레드에서 한 번에 반영됩니다.
+    private void startLegacyMigration(Map<String, String> legacy) {
+        getLogger().warning("기존 닉네임 파일을 새 버전으로 변환합니다... (" + legacy.size() + "개, 백그라운드에서 진행)");
+        migrating = true;
+        BulkProfileResolver resolver = new MojangBulkProfileResolver(migrationEndpoint, migrationBatchSize);
+        LegacyMigration migration = new LegacyMigration(resolver, migrationCheckpointFile(),
+                migrationConcurrency, migrationMaxAttempts, getLogger());
+        migrationThread = new Thread(() -> {
+            LegacyMigration.Result result;
+            try {
+                result = migration.run(legacy);
+            } catch (InterruptedException e) {
+                getLogger().warning("닉네임 변환이 중단되었습니다. 다음 실행 시 이어서 진행합니다.");
+                return;
+            } catch (IOException | RuntimeException e) {
+                getLogger().severe("닉네임 변환 중 오류 발생: " + e.getMessage() + " (다음 실행 시 이어서 진행합니다)");
+                return;
             }
-        } else {
-            displayName = player.getName();
+            if (isEnabled()) {
+                Bukkit.getScheduler().runTask(this, () -> finishLegacyMigration(migration, legacy, result));
+            }
+        }, "MinecraftNickname-migration-main");
+        migrationThread.setDaemon(true);
+        migrationThread.start();
+    }
+
+    private File migrationCheckpointFile() {
+        return new File(getDataFolder(), "migration-checkpoint.json");
+    }
+
+    private void finishLegacyMigration(LegacyMigration migration, Map<String, String> legacy, LegacyMigration.Result result) {
+        for (String playerName : result.missing()) {
+            getLogger().warning("UUID를 찾을 수 없는 플레이어: " + playerName + " (닉네임 삭제됨)");
         }
-        event.setJoinMessage(displayName + ChatColor.GREEN + " 님이 접속하셨습니다.");
+        // 조회에 실패한 항목은 버리지 않고 체크포인트에 남겨 다음 실행 때 다시 시도합니다.
+        Map<String, String> failed = new LinkedHashMap<>();
+        for (String playerName : result.failed()) {
+            getLogger().warning("UUID 조회에 실패한 플레이어: " + playerName + " (다음 실행 때 다시 시도합니다)");
+            failed.put(playerName, legacy.get(playerName));
         }
 
-    private void convertOldNicknames() {
-        if (!isOldVersion()) {
-            return;
+        // 변환하는 동안 새로 설정된 닉네임은 그대로 두고, 변환된 기록을 합칩니다.
+        NicknameSnapshot current = nicknames.snapshot();
+        List<NicknameRecord> merged = new ArrayList<>(current.records());
+        for (NicknameRecord record : result.records()) {
+            if (!current.contains(record.uuid()) && !current.isNickTaken(record.nick(), null)) {
+                merged.add(record);
+                uuidCache.seed(record.name(), record.uuid());
+            }
         }
-    
-        getLogger().warning("기존 닉네임 파일을 새 버전으로 변환합니다...");
-    
-        try {
-            String content = new String(Files.readAllBytes(nicknameFile.toPath()));
-            JSONObject oldJson = new JSONObject(content);
-            JSONObject newJson = new JSONObject();
-    
-            // 기존 머리 위 닉네임 삭제
-            removeAllOverheadNicknames();
-
-            for (String playerName : oldJson.keySet()) {
-                String nickname = oldJson.getString(playerName);
-    
-                String uuid = null;
-
-                // Mojang API를 최대 3번 시도
-                for (int i = 0; i < 3; i++) {
-                    uuid = MojangAPI.getUUID(playerName);
-                    if (uuid != null && !uuid.isEmpty()) {
-                        break; // UUID를 정상적으로 가져오면 중단
-                    }
+        // 저장이 끝날 때까지는 모든 기록을 메모리에 둡니다. (지연 로딩이면 저장 후 정리)
+        nicknames.replaceAll(merged, uuid -> true);
+        migrating = false;
+        // 조회에 실패한 이름이 있으면 그 플레이어의 팀을 확인하지 못하므로 완료로 보지 않습니다.
+        nicknamesLoaded = result.failed().isEmpty();
+        saveNicknames();
+        if (residency != null) {
+            residency.trim();
+        }
+        migration.retryLater(failed);
+        // 변환 중 미뤄 둔 이름 갱신 (저장은 저장소 리스너가 처리합니다)
+        reconcileNames(collectOnlineNames());
 
-                    // API 요청 속도 제한 방지를 위한 대기 시간 추가
-                    try {
-                        Thread.sleep(1000); // 1초 대기 후 다시 시도
-                    } catch (InterruptedException e) {
-                        Thread.currentThread().interrupt();
-                        getLogger().warning("API 요청 대기 중 인터럽트 발생: " + e.getMessage());
-                    }
-                }
+        // 기존 머리 위 닉네임 삭제 (변환된 플레이어 이름이 색인에 들어간 뒤)
+        startOverheadTeamCleanup();
+        getLogger().info("닉네임 변환 완료! (" + result.records().size() + "개)");
+    }
 
+    // 이전 버전이 만든 머리 위 닉네임 팀을 한 번만, 여러 틱에 나눠 정리합니다. (완료 여부는 plugin-state.yml 에 기록)
+    private void startOverheadTeamCleanup() {
+        new OverheadTeamCleanup(this, nicknames, new File(getDataFolder(), "plugin-state.yml"), 100, nicknamesLoaded).startIfNeeded();
+    }
 
-                // UUID가 없거나 유효하지 않으면 변환하지 않고 삭제
-                if (uuid == null || uuid.isEmpty()) {
-                    getLogger().warning("UUID를 찾을 수 없는 플레이어: " + playerName + " (닉네임 삭제됨)");
-                    continue; // 해당 플레이어는 변환 안 함
-                }
-    
-                // 새 형식으로 변환
-                JSONObject playerData = new JSONObject();
-                playerData.put("name", playerName);
-                playerData.put("nick", nickname);
-    
-                newJson.put(uuid, playerData);
-            }
-    
-            // 변환된 데이터 저장
-            Files.write(nicknameFile.toPath(), newJson.toString(4).getBytes());
-            getLogger().info("닉네임 변환 완료!");
-    
+    // 일괄 작업 파일은 플러그인 폴더의 bulk 폴더 안에서만 읽고 씁니다. (닉네임 파일, config.yml 등을 덮어쓰지 않도록)
+    // 밖을 가리키거나 플러그인이 직접 쓰는 파일이면 null.
+    private File resolveBulkFile(String path) {
+        try {
+            File folder = new File(getDataFolder(), BULK_FOLDER);
+            folder.mkdirs();
+            folder = folder.getCanonicalFile();
+            File file = new File(folder, path).getCanonicalFile();
+            if (!file.toPath().startsWith(folder.toPath()) || file.equals(folder)) {
+                return null;
+            }
+            File dataFile = nicknameFile.getCanonicalFile();
+            if (file.equals(dataFile) || file.getPath().startsWith(dataFile.getPath() + ".")) {
+                return null;
+            }
+            return file;
         } catch (IOException e) {
-            getLogger().severe("닉네임 변환 중 오류 발생: " + e.getMessage());
+            return null;
         }
     }
-        
 
-    private boolean isOldVersion() {
-        if (!nicknameFile.exists()) {
-            return false;
+    // /nickimport: 읽기, 검증, UUID 조회는 비동기 스레드에서 하고, 메인 스레드에서 한 번에 반영합니다.
+    // 저장과 탭 리스트 갱신은 리스너를 통해 묶음 전체에 대해 한 번씩만 일어납니다.
+    private void importNicknamesAsync(CommandSender sender, File file, boolean dryRun) {
+        BulkNicknameImport bulkImport = new BulkNicknameImport(nicknames, uuidCache,
+                new MojangBulkProfileResolver(migrationEndpoint, migrationBatchSize),
+                new File(getDataFolder(), "import-checkpoint.json"), migrationConcurrency, migrationMaxAttempts, getLogger());
+        Bukkit.getScheduler().runTaskAsynchronously(this, () -> {
+            BulkNicknameImport.Plan plan;
+            try {
+                plan = bulkImport.prepare(file);
+                // 지연 로딩 모드에서는 대상 기록을 먼저 올려 둡니다. (저장된 이름 유지, 추가/수정 구분)
+                if (residency != null) {
+                    residency.ensureLoaded(plan.lines().keySet()).join();
+                }
+            } catch (IOException | RuntimeException e) {
+                bulkRunning.set(false);
+                Bukkit.getScheduler().runTask(this, () ->
+                        sender.sendMessage(ChatColor.RED + "가져오기 실패: " + e.getMessage()));
+                return;
+            } catch (InterruptedException e) {
+                bulkRunning.set(false);
+                return;
+            }
+            Bukkit.getScheduler().runTask(this, () -> {
+                bulkRunning.set(false);
+                if (migrating) {
+                    sender.sendMessage(ChatColor.RED + "이전 버전 닉네임 파일을 변환하는 중이라 가져오기를 취소했습니다.");
+                    return;
+                }
+                List<BulkNicknameFile.RowError> errors = new ArrayList<>(plan.errors());
+                NicknameSnapshot before = nicknames.snapshot();
+                List<NicknameRecord> records = dryRun ? plan.records() : BulkNicknameImport.commit(nicknames, plan, errors);
+                int added = 0;
+                for (NicknameRecord record : records) {
+                    if (!before.contains(record.uuid())) {
+                        added++;
+                    }
+                }
+                reportImport(sender, file, plan.rows(), added, records.size() - added, errors, dryRun);
+            });
+        });
+    }
+
+    private void reportImport(CommandSender sender, File file, int rows, int added, int updated,
+                              List<BulkNicknameFile.RowError> errors, boolean dryRun) {
+        errors.sort(Comparator.comparingInt(BulkNicknameFile.RowError::line));
+        sender.sendMessage((errors.isEmpty() ? ChatColor.GREEN : ChatColor.YELLOW) + (dryRun ? "[검사만] " : "")
+                + file.getName() + ": " + rows + "행, 추가 " + added + "개, 수정 " + updated + "개, 오류 " + errors.size() + "개");
+        for (int i = 0; i < Math.min(IMPORT_ERROR_LINES, errors.size()); i++) {
+            BulkNicknameFile.RowError error = errors.get(i);
+            sender.sendMessage(ChatColor.RED + "  " + error.line() + "번째 줄: " + error.message());
         }
-    
-        try {
-            String content = new String(Files.readAllBytes(nicknameFile.toPath()));
-            JSONObject json = new JSONObject(content);
-    
-            for (String key : json.keySet()) {
-                Object value = json.get(key);
-                if (value instanceof String) {
-                    return true; // 기존 버전 감지됨
+        if (errors.size() > IMPORT_ERROR_LINES) {
+            File report = new File(file.getParentFile(), file.getName() + ".errors.txt");
+            List<String> lines = new ArrayList<>(errors.size());
+            for (BulkNicknameFile.RowError error : errors) {
+                lines.add(error.line() + ": " + error.message());
+            }
+            Bukkit.getScheduler().runTaskAsynchronously(this, () -> {
+                try {
+                    Files.write(report.toPath(), lines, StandardCharsets.UTF_8);
+                } catch (IOException e) {
+                    getLogger().warning("가져오기 오류 목록 저장 중 오류 발생: " + e.getMessage());
                 }
+            });
+            sender.sendMessage(ChatColor.RED + "  ... 외 " + (errors.size() - IMPORT_ERROR_LINES) + "개 (전체 목록: " + report.getName() + ")");
+        }
+    }
+
+    // /nickexport: 지연 로딩 모드에서는 저장소 전체를, 아니면 현재 스냅샷을 비동기 스레드에서 파일로 씁니다.
+    private void exportNicknamesAsync(CommandSender sender, File file) {
+        NicknameSnapshot snapshot = nicknames.snapshot();
+        Bukkit.getScheduler().runTaskAsynchronously(this, () -> {
+            String failure = null;
+            int count = 0;
+            try {
+                List<NicknameRecord> records = (residency != null) ? storage.readAll() : new ArrayList<>(snapshot.records());
+                BulkNicknameFile.write(records, file);
+                count = records.size();
+            } catch (IOException | RuntimeException e) {
+                failure = e.getMessage();
             }
-        } catch (IOException e) {
-            getLogger().severe("nicknames.json 파일을 읽는 중 오류 발생: " + e.getMessage());
+            bulkRunning.set(false);
+            String error = failure;
+            int exported = count;
+            Bukkit.getScheduler().runTask(this, () -> sender.sendMessage(error == null
+                    ? ChatColor.GREEN + file.getName() + " 파일로 " + exported + "개를 내보냈습니다."
+                    : ChatColor.RED + "내보내기 실패: " + error));
+        });
+    }
+
+    private static boolean isNicknameChangeCommand(String name) {
+        return name.equalsIgnoreCase("nickset") || name.equalsIgnoreCase("nickadd")
+                || name.equalsIgnoreCase("nickmodify") || name.equalsIgnoreCase("nickdel");
+    }
+
+    // 저장소가 받아 줄 수 있는 닉네임인지 확인하고, 아니면 알립니다.
+    private static boolean checkNickLength(CommandSender sender, String nick) {
+        if (NicknameRecord.isValidNick(nick)) {
+            return true;
         }
-    
+        sender.sendMessage(ChatColor.RED + "닉네임은 " + NicknameRecord.MAX_NICK_LENGTH + "자 이하여야 합니다.");
         return false;
     }
 
-    private void removeAllOverheadNicknames() {
-        Scoreboard scoreboard = Bukkit.getScoreboardManager().getMainScoreboard();
-    
-        for (String uuid : nicknames.keySet()) {
-            String playerName = nicknames.get(uuid).getString("name");
-            Team team = scoreboard.getTeam(playerName);
-            if (team != null) {
-                if (team.hasEntry(playerName)) {
-                    team.removeEntry(playerName);
-                }
-                team.unregister();
-                getLogger().info(playerName + "의 머리 위 닉네임을 제거했습니다.");
-            } else {
-                getLogger().warning(playerName + "의 팀을 찾을 수 없습니다.");
-            }
+    // 남은 시간을 "3시간 20분", "45초" 처럼 표시합니다.
+    private static String formatDuration(long seconds) {
+        long hours = seconds / 3600;
+        long minutes = (seconds % 3600) / 60;
+        if (hours > 0) {
+            return hours + "시간" + (minutes > 0 ? " " + minutes + "분" : "");
+        }
+        if (minutes > 0) {
+            return minutes + "분";
         }
+        return Math.max(1, seconds) + "초";
     }
 
+    // --- 다른 플러그인용 API (어느 스레드에서든 호출할 수 있습니다) ---
 
+    // config.yml 의 format 항목에서 {key} 로 쓸 수 있는 치환자를 등록합니다. 같은 키가 있으면 바꿉니다.
+    public void registerPlaceholder(String key, PlaceholderHook hook) {
+        placeholderHooks.register(key, hook);
+        tabListUpdater.markAllDirty();
+    }
+
+    public void unregisterPlaceholder(String key) {
+        placeholderHooks.unregister(key);
+        tabListUpdater.markAllDirty();
+    }
+
+    // 한 플레이어의 치환자 값이 바뀌었을 때 호출합니다. (닉네임이 바뀔 때는 자동으로 다시 만듭니다)
+    public void invalidatePlaceholders(UUID uuid) {
+        displayCache.remove(uuid);
+        tabListUpdater.markDirty(uuid);
+    }
+
+    // 모든 플레이어의 치환자 값을 다시 만듭니다.
+    public void invalidatePlaceholders() {
+        placeholderHooks.invalidateAll();
+        tabListUpdater.markAllDirty();
+    }
+
+    // 저장된 닉네임이나 이름으로 기록 검색 (대소문자 무시, 색인 사용)
+    private NicknameRecord findByNickOrName(String target) {
+        NicknameSnapshot snapshot = nicknames.snapshot();
+        NicknameRecord data = snapshot.findByNick(target);
+        return (data != null) ? data : snapshot.findByName(target);
+    }
+
+    // 지연 로딩 모드에서는 명령어가 다룰 기록(조회된 UUID, target 닉네임/이름의 주인)을 먼저 메모리에 올린 뒤 완료됩니다.
+    private CompletableFuture<UUID> withResident(CompletableFuture<UUID> future, String target) {
+        if (residency == null) {
+            return future;
+        }
+        return future.thenCompose(uuid -> {
+            NicknameSnapshot snapshot = nicknames.snapshot();
+            List<UUID> targets = new ArrayList<>();
+            targets.add(uuid);
+            targets.add(snapshot.ownerOfNick(target));
+            targets.add(snapshot.ownerOfName(target));
+            return residency.ensureLoaded(targets).thenApply(ignored -> uuid);
+        });
+    }
+
+    // 비동기 UUID 조회가 끝나면 메인 스레드에서 callback 을 실행합니다.
+    // 조회 중 오류가 나면 로그를 남기고 찾지 못한 것(null)으로 처리합니다.
+    private void whenResolved(CompletableFuture<UUID> future, Consumer<UUID> callback) {
+        future.whenComplete((uuid, error) -> {
+            if (error != null) {
+                getLogger().warning("UUID 조회 중 오류 발생: " + error.getMessage());
+            }
+            if (!isEnabled()) {
+                return;
+            }
+            UUID result = (error == null) ? uuid : null;
+            Bukkit.getScheduler().runTask(this, () -> callback.accept(result));
+        });
+    }
+
+    // --- 자동 완성 ---
+    @Override
+    public List<String> onTabComplete(CommandSender sender, Command command, String alias, String[] args) {
+        String name = command.getName().toLowerCase(Locale.ROOT);
+        if (args.length != 1 || !sender.hasPermission("nickname.manage")) {
+            return Collections.emptyList();
+        }
+        switch (name) {
+            case "nickmodify":
+            case "nickdel":
+            case "nicksearch":
+                // 저장된 닉네임과 이름 (오타로 Mojang 조회가 나가지 않도록)
+                return search.complete(args[0], COMPLETE_LIMIT);
+            case "nickadd":
+                // 접속 중인 플레이어 이름 (Bukkit 기본 동작)
+                return null;
+            default:
+                return Collections.emptyList();
+        }
+    }
 
     // --- 명령어 처리 ---
     @Override
     public boolean onCommand(CommandSender sender, Command command, String label, String[] args) {
         // /nickreload: 닉네임 파일 재로드
         if (command.getName().equalsIgnoreCase("nickreload")) {
-            loadNicknames();
-            removeAllOverheadNicknames();
-            validateAndUpdateAllPlayerNames();
-            sender.sendMessage(ChatColor.GREEN + "닉네임 데이터가 다시 로드되었습니다.");
-            applyNicknamesToAllPlayers();
+            if (migrating) {
+                sender.sendMessage(ChatColor.RED + "이전 버전 닉네임 파일을 변환하는 중입니다. 변환이 끝난 뒤 다시 시도하세요.");
+                return true;
+            }
+            if (!reloadNicknamesAsync(sender)) {
+                sender.sendMessage(ChatColor.RED + "이미 닉네임 데이터를 다시 불러오는 중입니다.");
+            }
+            return true;
+        }
+
+        // /nicksync: 접속 중인 모든 플레이어의 저장된 이름을 비동기로 전체 점검
+        if (command.getName().equalsIgnoreCase("nicksync")) {
+            if (!sender.hasPermission("nickname.manage")) {
+                sender.sendMessage(ChatColor.RED + "이 명령어를 실행할 권한이 없습니다.");
+                return true;
+            }
+            // 온라인 목록은 메인 스레드에서만 읽고, 스냅샷과의 비교는 비동기 스레드에서 합니다.
+            // 바뀐 이름의 반영(리스너, 저장, 로그)은 다시 메인 스레드에서 처리합니다.
+            Map<UUID, String> onlineNames = collectOnlineNames();
+            sender.sendMessage(ChatColor.YELLOW + "접속 중인 플레이어 " + onlineNames.size() + "명의 이름을 점검합니다...");
+            Bukkit.getScheduler().runTaskAsynchronously(this, () -> {
+                Map<UUID, String> renamed = findRenamed(nicknames.snapshot(), onlineNames);
+                Bukkit.getScheduler().runTask(this, () -> {
+                    // 비교한 뒤 바뀌었을 수 있으므로 updateLastSeenName 이 최신 기록으로 다시 확인합니다.
+                    int updated = reconcileNames(renamed);
+                    sender.sendMessage(ChatColor.GREEN + "이름 점검 완료: " + updated + "명의 이름이 갱신되었습니다.");
+                });
+            });
+            return true;
+        }
+
+        // /nickstats: 처리 시간과 통계
+        if (command.getName().equalsIgnoreCase("nickstats")) {
+            if (!sender.hasPermission("nickname.manage")) {
+                sender.sendMessage(ChatColor.RED + "이 명령어를 실행할 권한이 없습니다.");
+                return true;
+            }
+            NicknameSnapshot snapshot = nicknames.snapshot();
+            sender.sendMessage(ChatColor.GOLD + "닉네임 " + snapshot.nickCount() + "개 (메모리 " + snapshot.size() + "개), UUID 캐시 "
+                    + uuidCache.size() + "개, 저장 방식 " + storageType);
+            for (String line : PluginMetrics.describe()) {
+                sender.sendMessage(ChatColor.YELLOW + line);
+            }
             return true;
         }
 
-        // /nickset: 플레이어가 자신의 닉네임 설정 (자신의 UUID 사용)
+        // /nicksearch: 닉네임/이름 접두어 검색 (초성 검색 지원)
+        if (command.getName().equalsIgnoreCase("nicksearch")) {
+            if (!sender.hasPermission("nickname.manage")) {
+                sender.sendMessage(ChatColor.RED + "이 명령어를 실행할 권한이 없습니다.");
+                return true;
+            }
+            if (args.length < 1) {
+                sender.sendMessage(ChatColor.RED + "사용법: /nicksearch <앞부분 또는 초성>");
+                return true;
+            }
+            List<PrefixIndex.Entry> found = search.search(args[0], SEARCH_LIMIT);
+            if (found.isEmpty()) {
+                sender.sendMessage(ChatColor.RED + "'" + args[0] + "'(으)로 시작하는 닉네임이나 이름이 없습니다.");
+                return true;
+            }
+            sender.sendMessage(ChatColor.GREEN + "검색 결과 " + found.size() + "개" + (found.size() >= SEARCH_LIMIT ? " (더 있음)" : ""));
+            for (PrefixIndex.Entry entry : found) {
+                NicknameRecord record = nicknames.get(entry.owner());
+                if (record != null) {
+                    sender.sendMessage(ChatColor.YELLOW + "닉네임: " + record.nick() + ChatColor.GRAY + " / 이름: " + record.name());
+                } else {
+                    sender.sendMessage(ChatColor.YELLOW + (entry.nick() ? "닉네임: " : "이름: ") + entry.value()
+                            + ChatColor.GRAY + " (" + entry.owner() + ")");
+                }
+            }
+            return true;
+        }
+
+        // /nickimport, /nickexport: CSV/JSON 파일로 닉네임 일괄 가져오기/내보내기 (플러그인 폴더 기준 경로)
+        if (command.getName().equalsIgnoreCase("nickimport") || command.getName().equalsIgnoreCase("nickexport")) {
+            boolean importing = command.getName().equalsIgnoreCase("nickimport");
+            if (!sender.hasPermission("nickname.manage")) {
+                sender.sendMessage(ChatColor.RED + "이 명령어를 실행할 권한이 없습니다.");
+                return true;
+            }
+            if (args.length < 1) {
+                sender.sendMessage(ChatColor.RED + (importing ? "사용법: /nickimport <파일> [--dry-run]" : "사용법: /nickexport <파일>"));
+                return true;
+            }
+            if (migrating) {
+                sender.sendMessage(ChatColor.RED + "이전 버전 닉네임 파일을 변환하는 중입니다. 변환이 끝난 뒤 다시 시도하세요.");
+                return true;
+            }
+            File file = resolveBulkFile(args[0]);
+            if (file == null) {
+                sender.sendMessage(ChatColor.RED + "플러그인 폴더의 " + BULK_FOLDER + " 폴더 안에 있는 파일만 사용할 수 있습니다.");
+                return true;
+            }
+            if (importing && !file.isFile()) {
+                sender.sendMessage(ChatColor.RED + "파일을 찾을 수 없습니다: " + args[0]);
+                return true;
+            }
+            if (!bulkRunning.compareAndSet(false, true)) {
+                sender.sendMessage(ChatColor.RED + "이미 일괄 작업이 진행 중입니다.");
+                return true;
+            }
+            if (importing) {
+                boolean dryRun = args.length > 1 && args[1].equalsIgnoreCase("--dry-run");
+                sender.sendMessage(ChatColor.YELLOW + file.getName() + " 파일을 " + (dryRun ? "검사합니다" : "가져옵니다") + "...");
+                importNicknamesAsync(sender, file, dryRun);
+            } else {
+                exportNicknamesAsync(sender, file);
+            }
+            return true;
+        }
+
+        // 변환 중에는 닉네임을 바꾸지 않습니다. (변환이 끝나기 전에 서버가 꺼지면 저장되지 않기 때문)
+        if (migrating && isNicknameChangeCommand(command.getName())) {
+            sender.sendMessage(ChatColor.RED + "이전 버전 닉네임 파일을 변환하는 중입니다. 변환이 끝난 뒤 다시 시도하세요.");
+            return true;
+        }
+
+        // /nickset: 플레이어가 자신의 닉네임 설정/변경 (자신의 UUID 사용)
+        // 바로 반영하지 않고 변경 큐에 넣으며, 큐가 잠시 뒤 다른 요청과 함께 한 번에 반영합니다.
         if (command.getName().equalsIgnoreCase("nickset")) {
             if (!(sender instanceof Player)) {
                 sender.sendMessage(ChatColor.RED + "이 명령어는 플레이어만 사용할 수 있습니다.");
@@ -335,26 +1113,44 @@ public class MinecraftNickname extends JavaPlugin implements Listener {
                 return true;
             }
             Player player = (Player) sender;
-            String uuid = player.getUniqueId().toString();
+            UUID uuid = player.getUniqueId();
             String newNickname = args[0];
-            if (nicknames.containsKey(uuid)) {
+            if (!checkNickLength(sender, newNickname)) {
+                return true;
+            }
+            if (nicknames.contains(uuid) && (!selfChangeAllowed || !player.hasPermission("nickname.change"))) {
                 sender.sendMessage(ChatColor.RED + "이미 닉네임이 설정되어 있습니다! 닉네임을 변경하려면 관리자에게 문의하세요.");
                 return true;
             }
-            // 중복 닉네임 검사
-            for (JSONObject obj : nicknames.values()) {
-                if (obj.optString("nick", "").equalsIgnoreCase(newNickname)) {
-                    sender.sendMessage(ChatColor.RED + newNickname + "은 이미 사용 중인 닉네임입니다!");
-                    return true;
+            boolean bypass = player.hasPermission("nickname.change.bypass");
+            NicknameChangeQueue.Status status = changeQueue.submit(uuid, player.getName(), newNickname, bypass, result -> {
+                if (result == NicknameChangeQueue.Status.APPLIED) {
+                    sender.sendMessage(ChatColor.GREEN + "닉네임이 '" + newNickname + "'(으)로 설정되었습니다!");
+                } else {
+                    sender.sendMessage(ChatColor.RED + newNickname + "은 방금 다른 플레이어가 사용하기 시작한 닉네임입니다!");
                 }
+            });
+            switch (status) {
+                case QUEUED:
+                    sender.sendMessage(ChatColor.YELLOW + "닉네임 변경 요청이 접수되었습니다. 잠시 후 반영됩니다.");
+                    break;
+                case UNCHANGED:
+                    sender.sendMessage(ChatColor.RED + "지금 사용 중인 닉네임과 같습니다.");
+                    break;
+                case TAKEN:
+                    sender.sendMessage(ChatColor.RED + newNickname + "은 이미 사용 중인 닉네임입니다!");
+                    break;
+                case COOLDOWN:
+                    sender.sendMessage(ChatColor.RED + formatDuration(changeQueue.cooldownRemaining(uuid))
+                            + " 후에 다시 닉네임을 바꿀 수 있습니다.");
+                    break;
+                case ALREADY_QUEUED:
+                    sender.sendMessage(ChatColor.RED + "이미 처리를 기다리는 닉네임 변경 요청이 있습니다.");
+                    break;
+                default:
+                    sender.sendMessage(ChatColor.RED + "지금은 닉네임 변경 요청이 많습니다. 잠시 후 다시 시도하세요.");
+                    break;
             }
-            JSONObject data = new JSONObject();
-            data.put("name", player.getName());
-            data.put("nick", newNickname);
-            nicknames.put(uuid, data);
-            saveNicknames();
-            sender.sendMessage(ChatColor.GREEN + "닉네임이 '" + newNickname + "'(으)로 설정되었습니다!");
-            applyNicknamesToAllPlayers();
             return true;
         }
 
@@ -366,30 +1162,27 @@ public class MinecraftNickname extends JavaPlugin implements Listener {
             }
             String targetName = args[0];
             String newNickname = args[1];
-            // 플레이어 이름으로 UUID 조회 (MojangAPI.getUUID 가 구현되어 있어야 합니다)
-            String uuid = MojangAPI.getUUID(targetName);
-            if (uuid == null) {
-                sender.sendMessage(ChatColor.RED + targetName + "의 UUID를 찾을 수 없습니다!");
-                return true;
-            }
-            if (nicknames.containsKey(uuid)) {
-                sender.sendMessage(ChatColor.RED + targetName + "의 닉네임이 이미 존재합니다!");
+            if (!checkNickLength(sender, newNickname)) {
                 return true;
             }
-            // 중복 닉네임 검사
-            for (JSONObject obj : nicknames.values()) {
-                if (obj.optString("nick", "").equalsIgnoreCase(newNickname)) {
+            // 플레이어 이름으로 UUID 조회 (캐시 또는 비동기 Mojang API, 완료되면 메인 스레드에서 이어서 처리)
+            whenResolved(withResident(uuidResolver.resolve(targetName), targetName), uuid -> {
+                if (uuid == null) {
+                    sender.sendMessage(ChatColor.RED + targetName + "의 UUID를 찾을 수 없습니다!");
+                    return;
+                }
+                if (nicknames.contains(uuid)) {
+                    sender.sendMessage(ChatColor.RED + targetName + "의 닉네임이 이미 존재합니다!");
+                    return;
+                }
+                // 중복 닉네임 검사 (조회하는 동안 바뀌었을 수 있으므로 여기서 검사)
+                if (nicknames.isNickTaken(newNickname, null)) {
                     sender.sendMessage(ChatColor.RED + newNickname + "은 이미 사용 중인 닉네임입니다!");
-                    return true;
+                    return;
                 }
-            }
-            JSONObject data = new JSONObject();
-            data.put("name", targetName);
-            data.put("nick", newNickname);
-            nicknames.put(uuid, data);
-            saveNicknames();
-            sender.sendMessage(ChatColor.GREEN + targetName + "의 닉네임이 '" + newNickname + "'으로 추가되었습니다!");
-            applyNicknamesToAllPlayers();
+                nicknames.put(new NicknameRecord(uuid, targetName, newNickname));
+                sender.sendMessage(ChatColor.GREEN + targetName + "의 닉네임이 '" + newNickname + "'으로 추가되었습니다!");
+            });
             return true;
         }
 
@@ -405,39 +1198,31 @@ public class MinecraftNickname extends JavaPlugin implements Listener {
             }
             String target = args[0];
             String newNickname = args[1];
+            if (!checkNickLength(sender, newNickname)) {
+                return true;
+            }
             // 중복 닉네임 검사
-            for (JSONObject obj : nicknames.values()) {
-                if (obj.optString("nick", "").equalsIgnoreCase(newNickname)) {
+            if (nicknames.isNickTaken(newNickname, null)) {
+                sender.sendMessage(ChatColor.RED + "이미 사용 중인 닉네임입니다!");
+                return true;
+            }
+            whenResolved(withResident(uuidResolver.resolve(target), target), uuid -> {
+                if (nicknames.isNickTaken(newNickname, null)) {
                     sender.sendMessage(ChatColor.RED + "이미 사용 중인 닉네임입니다!");
-                    return true;
+                    return;
                 }
-            }
-            boolean found = false;
-            String uuid = MojangAPI.getUUID(target);
-            if (uuid != null && nicknames.containsKey(uuid)) {
-                JSONObject data = nicknames.get(uuid);
-                data.put("nick", newNickname);
-                found = true;
-            } else {
-                // 파일에서 기존 닉네임이나 이름을 기준으로 검색
-                for (Map.Entry<String, JSONObject> entry : nicknames.entrySet()) {
-                    JSONObject data = entry.getValue();
-                    if (data.optString("nick", "").equalsIgnoreCase(target) ||
-                        data.optString("name", "").equalsIgnoreCase(target)) {
-                        data.put("nick", newNickname);
-                        uuid = entry.getKey();
-                        found = true;
-                        break;
-                    }
+                NicknameRecord data = (uuid != null) ? nicknames.get(uuid) : null;
+                if (data == null) {
+                    // 저장된 기존 닉네임이나 이름을 기준으로 검색
+                    data = findByNickOrName(target);
                 }
-            }
-            if (!found) {
-                sender.sendMessage(ChatColor.RED + "해당 플레이어나 닉네임을 찾을 수 없습니다.");
-                return true;
-            }
-            saveNicknames();
-            sender.sendMessage(ChatColor.GREEN + target + "의 닉네임이 '" + newNickname + "'으로 변경되었습니다!");
-            applyNicknamesToAllPlayers();
+                if (data == null) {
+                    sender.sendMessage(ChatColor.RED + "해당 플레이어나 닉네임을 찾을 수 없습니다.");
+                    return;
+                }
+                nicknames.put(data.withNick(newNickname));
+                sender.sendMessage(ChatColor.GREEN + target + "의 닉네임이 '" + newNickname + "'으로 변경되었습니다!");
+            });
             return true;
         }
 
@@ -452,34 +1237,19 @@ public class MinecraftNickname extends JavaPlugin implements Listener {
                 return true;
             }
             String target = args[0];
-            boolean found = false;
-            String uuid = MojangAPI.getUUID(target);
-            if (uuid != null && nicknames.containsKey(uuid)) {
-                nicknames.remove(uuid);
-                found = true;
-            } else {
-                String keyToRemove = null;
-                for (Map.Entry<String, JSONObject> entry : nicknames.entrySet()) {
-                    JSONObject data = entry.getValue();
-                    if (data.optString("nick", "").equalsIgnoreCase(target) ||
-                        data.optString("name", "").equalsIgnoreCase(target)) {
-                        keyToRemove = entry.getKey();
-                        break;
+            whenResolved(withResident(uuidResolver.resolve(target), target), uuid -> {
+                String deleted = target;
+                if (uuid == null || nicknames.remove(uuid) == null) {
+                    NicknameRecord data = findByNickOrName(target);
+                    if (data == null) {
+                        sender.sendMessage(ChatColor.RED + target + "의 닉네임이 존재하지 않습니다!");
+                        return;
                     }
+                    nicknames.remove(data.uuid());
+                    deleted = data.uuid().toString();
                 }
-                if (keyToRemove != null) {
-                    nicknames.remove(keyToRemove);
-                    found = true;
-                    target = keyToRemove;
-                }
-            }
-            if (!found) {
-                sender.sendMessage(ChatColor.RED + target + "의 닉네임이 존재하지 않습니다!");
-                return true;
-            }
-            saveNicknames();
-            sender.sendMessage(ChatColor.GREEN + target + "의 닉네임이 삭제되었습니다!");
-            applyNicknamesToAllPlayers();
+                sender.sendMessage(ChatColor.GREEN + deleted + "의 닉네임이 삭제되었습니다!");
+            });
             return true;
         }
 
@@ -1,70 +1,79 @@
 package net.minichip.minecraftnickname;
 
-import java.io.IOException;
-import java.net.HttpURLConnection;
-import java.net.URL;
-import java.util.Scanner;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.regex.Pattern;
 
 import org.json.JSONObject;
 
 public class MojangAPI {
-    public static boolean doesPlayerExist(String playerName) {
-        try {
-            @SuppressWarnings("deprecation")
-            URL url = new URL("https://api.mojang.com/users/profiles/minecraft/" + playerName);
-            HttpURLConnection connection = (HttpURLConnection) url.openConnection();
-            connection.setRequestMethod("GET");
-            connection.setConnectTimeout(3000);
-            connection.setReadTimeout(3000);
+    private static final String PROFILE_URL = "https://api.mojang.com/users/profiles/minecraft/";
+    // 마인크래프트 계정 이름 규칙 (이 형식이 아니면 요청을 보내지 않습니다)
+    private static final Pattern VALID_NAME = Pattern.compile("^[A-Za-z0-9_]{1,16}$");
 
-            int responseCode = connection.getResponseCode();
-            if (responseCode == 200) {
-                Scanner scanner = new Scanner(connection.getInputStream());
-                StringBuilder response = new StringBuilder();
-                while (scanner.hasNext()) {
-                    response.append(scanner.nextLine());
-                }
-                scanner.close();
+    // 비동기 요청용 공용 클라이언트 (연결을 재사용합니다)
+    private static final HttpClient CLIENT = HttpClient.newBuilder()
+            .connectTimeout(Duration.ofSeconds(3))
+            .build();
 
-                JSONObject jsonResponse = new JSONObject(response.toString());
-                return jsonResponse.has("id");  // UUID가 있으면 존재하는 플레이어
-            }
-        } catch (IOException e) {
-            e.printStackTrace();
+    // 플레이어 이름으로 UUID를 비동기로 조회합니다. 서버 메인 스레드를 막지 않습니다.
+    // - 존재하지 않는 이름이면 null 로 완료됩니다.
+    // - 네트워크 오류나 예상하지 못한 응답이면 예외로 완료됩니다.
+    // 결과는 HTTP 클라이언트 스레드에서 전달되므로 Bukkit API 를 쓰려면 스케줄러로 메인 스레드에 넘겨야 합니다.
+    public static CompletableFuture<UUID> getUUIDAsync(String playerName) {
+        if (!isValidName(playerName)) {
+            return CompletableFuture.completedFuture(null);
         }
-        return false;
+        HttpRequest request = HttpRequest.newBuilder(URI.create(PROFILE_URL + playerName))
+                .timeout(Duration.ofSeconds(3))
+                .GET()
+                .build();
+        long startedAt = System.nanoTime();
+        return CLIENT.sendAsync(request, HttpResponse.BodyHandlers.ofString())
+                .whenComplete((response, error) -> {
+                    PluginMetrics.MOJANG_REQUEST.recordSince(startedAt);
+                    if (error != null) {
+                        PluginMetrics.MOJANG_ERRORS.increment();
+                    }
+                })
+                .thenApply(response -> {
+                    int status = response.statusCode();
+                    if (status == 200) {
+                        return parseUUID(new JSONObject(response.body()).optString("id", null));
+                    }
+                    if (status == 204 || status == 404) {
+                        return null;
+                    }
+                    if (status == 429) {
+                        PluginMetrics.MOJANG_RATE_LIMITED.increment();
+                    }
+                    PluginMetrics.MOJANG_ERRORS.increment();
+                    throw new IllegalStateException("Mojang API 응답 코드 " + status);
+                });
     }
 
-    // getUUID 메서드 추가: 플레이어 이름으로 Mojang API를 호출하여 UUID 문자열을 반환
-    public static String getUUID(String playerName) {
-        try {
-            @SuppressWarnings("deprecation")
-            URL url = new URL("https://api.mojang.com/users/profiles/minecraft/" + playerName);
-            HttpURLConnection connection = (HttpURLConnection) url.openConnection();
-            connection.setRequestMethod("GET");
-            connection.setConnectTimeout(3000);
-            connection.setReadTimeout(3000);
-            
-            int responseCode = connection.getResponseCode();
-            if (responseCode == 200) {
-                Scanner scanner = new Scanner(connection.getInputStream());
-                StringBuilder response = new StringBuilder();
-                while (scanner.hasNext()) {
-                    response.append(scanner.nextLine());
-                }
-                scanner.close();
+    // 마인크래프트 계정 이름으로 쓸 수 있는 형식인지 확인합니다. (한글 닉네임 등은 false)
+    public static boolean isValidName(String playerName) {
+        return playerName != null && VALID_NAME.matcher(playerName).matches();
+    }
 
-                JSONObject jsonResponse = new JSONObject(response.toString());
-                String trimmedUuid = jsonResponse.getString("id");
-                if (trimmedUuid != null && trimmedUuid.length() == 32) {
-                    return trimmedUuid.replaceFirst("(.{8})(.{4})(.{4})(.{4})(.+)", "$1-$2-$3-$4-$5");
-                } else {
-                    return trimmedUuid;
-                }
+    // Mojang API 의 대시 없는 UUID 문자열을 UUID 로 변환합니다.
+    static UUID parseUUID(String trimmedUuid) {
+        if (trimmedUuid == null) {
+            return null;
+        }
+        try {
+            if (trimmedUuid.length() == 32) {
+                return UUID.fromString(trimmedUuid.replaceFirst("(.{8})(.{4})(.{4})(.{4})(.+)", "$1-$2-$3-$4-$5"));
             }
-        } catch (IOException e) {
-            e.printStackTrace();
+            return UUID.fromString(trimmedUuid);
+        } catch (IllegalArgumentException e) {
+            return null;
         }
-        return null;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,95 @@
+package net.minichip.minecraftnickname;
+
+import org.json.JSONArray;
+import org.json.JSONObject;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+// Mojang 대량 프로필 조회 API (이름 최대 10개 -> UUID)
+// endpoint 를 바꾸면 로컬 테스트 서버에 대해서도 그대로 사용할 수 있습니다.
+public final class MojangBulkProfileResolver implements BulkProfileResolver {
+
+    public static final String DEFAULT_ENDPOINT = "https://api.minecraftservices.com/minecraft/profile/lookup/bulk/byname";
+    private static final int MOJANG_MAX_BATCH = 10;
+
+    private final URI endpoint;
+    private final int batchSize;
+    private final HttpClient client = HttpClient.newBuilder()
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+
+    public MojangBulkProfileResolver(String endpoint, int batchSize) {
+        this.endpoint = URI.create(endpoint);
+        this.batchSize = Math.max(1, Math.min(batchSize, MOJANG_MAX_BATCH));
+    }
+
+    @Override
+    public int maxBatchSize() {
+        return batchSize;
+    }
+
+    @Override
+    public Map<String, UUID> resolve(List<String> names) throws IOException {
+        HttpRequest request = HttpRequest.newBuilder(endpoint)
+                .timeout(Duration.ofSeconds(10))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(new JSONArray(names).toString()))
+                .build();
+        HttpResponse<String> response;
+        long startedAt = System.nanoTime();
+        try {
+            response = client.send(request, HttpResponse.BodyHandlers.ofString());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("요청 중 인터럽트 발생", e);
+        } catch (IOException e) {
+            PluginMetrics.MOJANG_ERRORS.increment();
+            throw e;
+        } finally {
+            PluginMetrics.MOJANG_REQUEST.recordSince(startedAt);
+        }
+        int status = response.statusCode();
+        if (status == 429) {
+            PluginMetrics.MOJANG_RATE_LIMITED.increment();
+            long retryAfter = response.headers().firstValue("Retry-After")
+                    .map(MojangBulkProfileResolver::parseRetryAfter)
+                    .orElse(0L);
+            throw new RateLimitedException(retryAfter);
+        }
+        if (status != 200) {
+            PluginMetrics.MOJANG_ERRORS.increment();
+            throw new IOException("대량 조회 응답 코드 " + status);
+        }
+        Map<String, UUID> result = new HashMap<>();
+        JSONArray profiles = new JSONArray(response.body());
+        for (int i = 0; i < profiles.length(); i++) {
+            JSONObject profile = profiles.optJSONObject(i);
+            if (profile == null) {
+                continue;
+            }
+            String name = profile.optString("name", null);
+            UUID uuid = MojangAPI.parseUUID(profile.optString("id", null));
+            if (name != null && uuid != null) {
+                result.put(NicknameKeys.fold(name), uuid);
+            }
+        }
+        return result;
+    }
+
+    private static long parseRetryAfter(String value) {
+        try {
+            return Long.parseLong(value.trim()) * 1000L;
+        } catch (NumberFormatException e) {
+            return 0L;
+        }
+    }
+}
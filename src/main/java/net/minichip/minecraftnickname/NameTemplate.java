@@ -0,0 +1,168 @@
+package net.minichip.minecraftnickname;
+
+import org.bukkit.ChatColor;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+// config.yml 에 적힌 표시 형식 문자열을 미리 분석해 둔 템플릿
+// 사용 가능한 치환자: {nick}, {name}, {message}, 다른 플러그인이 등록한 {키} (PlaceholderHooks)
+// 색상 코드(&b 등)는 불러올 때 한 번만 변환하고, 닉네임 안의 & 는 변환하지 않습니다.
+public final class NameTemplate {
+
+    private static final int LITERAL = 0;
+    private static final int NICK = 1;
+    private static final int NAME = 2;
+    private static final int MESSAGE = 3;
+    private static final int PLACEHOLDER = 4;
+
+    private final int[] kinds;
+    // LITERAL 이면 글자, PLACEHOLDER 면 키, 나머지는 null
+    private final String[] literals;
+    private final int literalLength;
+    private final List<String> placeholderKeys;
+
+    private NameTemplate(int[] kinds, String[] literals) {
+        this.kinds = kinds;
+        this.literals = literals;
+        int length = 0;
+        List<String> keys = new ArrayList<>();
+        for (int i = 0; i < kinds.length; i++) {
+            if (kinds[i] == LITERAL) {
+                length += literals[i].length();
+            } else if (kinds[i] == PLACEHOLDER && !keys.contains(literals[i])) {
+                keys.add(literals[i]);
+            }
+        }
+        this.literalLength = length;
+        this.placeholderKeys = Collections.unmodifiableList(keys);
+    }
+
+    // 치환자 이름으로 쓸 수 있는지 (영문 소문자, 숫자, _, -, . 만 사용, 기본 치환자 이름 제외)
+    public static boolean isPlaceholderKey(String key) {
+        if (key == null || key.isEmpty() || key.equals("nick") || key.equals("name") || key.equals("message")) {
+            return false;
+        }
+        for (int i = 0; i < key.length(); i++) {
+            char c = key.charAt(i);
+            if (!((c >= 'a' && c <= 'z') || (c >= '0' && c <= '9') || c == '_' || c == '-' || c == '.')) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // 형식에 쓰인 다른 플러그인 치환자 키
+    public List<String> placeholderKeys() {
+        return placeholderKeys;
+    }
+
+    public static NameTemplate compile(String pattern) {
+        List<Integer> kinds = new ArrayList<>();
+        List<String> literals = new ArrayList<>();
+        StringBuilder literal = new StringBuilder();
+        int i = 0;
+        while (i < pattern.length()) {
+            int kind = LITERAL;
+            int length = 0;
+            String key = null;
+            if (pattern.startsWith("{nick}", i)) {
+                kind = NICK;
+                length = 6;
+            } else if (pattern.startsWith("{name}", i)) {
+                kind = NAME;
+                length = 6;
+            } else if (pattern.startsWith("{message}", i)) {
+                kind = MESSAGE;
+                length = 9;
+            } else if (pattern.charAt(i) == '{') {
+                int end = pattern.indexOf('}', i + 1);
+                if (end > 0 && isPlaceholderKey(pattern.substring(i + 1, end))) {
+                    kind = PLACEHOLDER;
+                    key = pattern.substring(i + 1, end);
+                    length = end - i + 1;
+                }
+            }
+            if (kind == LITERAL) {
+                literal.append(pattern.charAt(i));
+                i++;
+                continue;
+            }
+            if (literal.length() > 0) {
+                kinds.add(LITERAL);
+                literals.add(ChatColor.translateAlternateColorCodes('&', literal.toString()));
+                literal.setLength(0);
+            }
+            kinds.add(kind);
+            literals.add(key);
+            i += length;
+        }
+        if (literal.length() > 0) {
+            kinds.add(LITERAL);
+            literals.add(ChatColor.translateAlternateColorCodes('&', literal.toString()));
+        }
+        int[] kindArray = new int[kinds.size()];
+        for (int k = 0; k < kindArray.length; k++) {
+            kindArray[k] = kinds.get(k);
+        }
+        return new NameTemplate(kindArray, literals.toArray(new String[0]));
+    }
+
+    // 일반 문자열로 렌더링합니다. (탭 리스트, 입장 메시지)
+    public String render(String nick, String name) {
+        return render(nick, name, Map.of(), false);
+    }
+
+    // values: 치환자 키 -> 값. 값이 없는 키는 {키} 글자 그대로 남습니다.
+    public String render(String nick, String name, Map<String, String> values) {
+        return render(nick, name, values, false);
+    }
+
+    // AsyncPlayerChatEvent#setFormat 용 형식 문자열로 렌더링합니다.
+    // {message} 는 %2$s 로 바뀌고, 닉네임, 이름, 치환자 값 안의 % 는 %% 로 이스케이프됩니다.
+    public String renderChatFormat(String nick, String name) {
+        return render(nick, name, Map.of(), true);
+    }
+
+    public String renderChatFormat(String nick, String name, Map<String, String> values) {
+        return render(nick, name, values, true);
+    }
+
+    private String render(String nick, String name, Map<String, String> values, boolean chatFormat) {
+        StringBuilder sb = new StringBuilder(literalLength + 32);
+        for (int i = 0; i < kinds.length; i++) {
+            switch (kinds[i]) {
+                case NICK:
+                    appendValue(sb, nick, chatFormat);
+                    break;
+                case NAME:
+                    appendValue(sb, name, chatFormat);
+                    break;
+                case MESSAGE:
+                    sb.append(chatFormat ? "%2$s" : "");
+                    break;
+                case PLACEHOLDER:
+                    String value = values.get(literals[i]);
+                    appendValue(sb, (value != null) ? value : "{" + literals[i] + "}", chatFormat);
+                    break;
+                default:
+                    appendValue(sb, literals[i], chatFormat);
+                    break;
+            }
+        }
+        return sb.toString();
+    }
+
+    private static void appendValue(StringBuilder sb, String value, boolean escapePercent) {
+        if (value == null) {
+            return;
+        }
+        if (!escapePercent || value.indexOf('%') < 0) {
+            sb.append(value);
+            return;
+        }
+        sb.append(value.replace("%", "%%"));
+    }
+}
@@ -0,0 +1,127 @@
+package net.minichip.minecraftnickname;
+
+import org.bukkit.plugin.Plugin;
+import org.bukkit.scheduler.BukkitRunnable;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+// 플레이어가 직접 요청한 닉네임 변경 (/nickset)
+// - 플레이어마다 마지막으로 직접 바꾼 시각(NicknameRecord.changedAt)을 기준으로 변경 대기 시간을 적용합니다.
+// - 서버 전체의 변경 속도는 토큰 버킷으로 제한합니다.
+// - 접수된 요청은 큐에 모았다가 intervalTicks 마다 putAll 로 한 번에 반영합니다.
+//   (여러 명이 동시에 바꿔도 저장과 탭 리스트 갱신은 한 번씩만 일어납니다)
+// 모든 메서드는 메인 스레드에서 호출해야 합니다.
+public final class NicknameChangeQueue extends BukkitRunnable {
+
+    public enum Status {
+        QUEUED,
+        APPLIED,
+        UNCHANGED,
+        TAKEN,
+        COOLDOWN,
+        ALREADY_QUEUED,
+        BUSY
+    }
+
+    // reply: 큐에서 처리된 결과 (APPLIED 또는 TAKEN)
+    private record Request(UUID uuid, String name, String nick, Consumer<Status> reply) {
+    }
+
+    private final NicknameStore store;
+    private final long cooldownSeconds;
+    private final TokenBucket bucket;
+    private final int maxQueued;
+    private final Map<UUID, Request> queue = new LinkedHashMap<>();
+
+    public NicknameChangeQueue(NicknameStore store, long cooldownSeconds, TokenBucket bucket, int maxQueued) {
+        this.store = store;
+        this.cooldownSeconds = Math.max(0L, cooldownSeconds);
+        this.bucket = bucket;
+        this.maxQueued = Math.max(1, maxQueued);
+    }
+
+    public void start(Plugin plugin, long intervalTicks) {
+        runTaskTimer(plugin, Math.max(1L, intervalTicks), Math.max(1L, intervalTicks));
+    }
+
+    // 다시 바꿀 수 있을 때까지 남은 시간 (초, 0 이면 지금 바꿀 수 있음)
+    public long cooldownRemaining(UUID uuid) {
+        NicknameRecord record = store.get(uuid);
+        if (record == null || record.changedAt() == 0L || cooldownSeconds == 0L) {
+            return 0L;
+        }
+        return Math.max(0L, record.changedAt() + cooldownSeconds - nowSeconds());
+    }
+
+    // 변경 요청을 검사하고 큐에 넣습니다. 실제 반영 결과는 reply 로 알립니다.
+    // bypassCooldown: 대기 시간을 무시할지 (관리자 권한)
+    public Status submit(UUID uuid, String name, String nick, boolean bypassCooldown, Consumer<Status> reply) {
+        NicknameRecord current = store.get(uuid);
+        if (current != null && nick.equals(current.nick())) {
+            return Status.UNCHANGED;
+        }
+        if (store.isNickTaken(nick, uuid)) {
+            return Status.TAKEN;
+        }
+        if (queue.containsKey(uuid)) {
+            return Status.ALREADY_QUEUED;
+        }
+        if (!bypassCooldown && cooldownRemaining(uuid) > 0L) {
+            return Status.COOLDOWN;
+        }
+        // 큐가 가득 찼거나 토큰이 없으면 거절합니다. (변경 요청을 반복해 서버에 부하를 주지 못하도록)
+        if (queue.size() >= maxQueued || !bucket.tryAcquire()) {
+            PluginMetrics.SELF_CHANGES_LIMITED.increment();
+            return Status.BUSY;
+        }
+        queue.put(uuid, new Request(uuid, name, nick, reply));
+        return Status.QUEUED;
+    }
+
+    @Override
+    public void run() {
+        flush();
+    }
+
+    // 쌓인 요청을 한 번에 반영합니다. 기다리는 동안 다른 플레이어가 먼저 가져간 닉네임은 거절합니다.
+    public void flush() {
+        if (queue.isEmpty()) {
+            return;
+        }
+        NicknameSnapshot snapshot = store.snapshot();
+        long now = nowSeconds();
+        Map<String, UUID> claimed = new HashMap<>();
+        List<NicknameRecord> records = new ArrayList<>(queue.size());
+        List<Request> applied = new ArrayList<>(queue.size());
+        for (Request request : queue.values()) {
+            String key = NicknameKeys.fold(request.nick());
+            UUID owner = snapshot.ownerOfNick(key);
+            if ((owner != null && !owner.equals(request.uuid())) || claimed.putIfAbsent(key, request.uuid()) != null) {
+                request.reply().accept(Status.TAKEN);
+                continue;
+            }
+            NicknameRecord current = snapshot.get(request.uuid());
+            NicknameRecord record = (current != null)
+                    ? current.withNick(request.nick())
+                    : new NicknameRecord(request.uuid(), request.name(), request.nick());
+            records.add(record.withChangedAt(now));
+            applied.add(request);
+        }
+        queue.clear();
+        store.putAll(records);
+        PluginMetrics.SELF_CHANGES.add(records.size());
+        for (Request request : applied) {
+            request.reply().accept(Status.APPLIED);
+        }
+    }
+
+    private static long nowSeconds() {
+        return System.currentTimeMillis() / 1000L;
+    }
+}
@@ -0,0 +1,91 @@
+package net.minichip.minecraftnickname;
+
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+import java.util.logging.Logger;
+
+// 외부 도구가 닉네임 파일을 바꾸면 감지해 다시 불러오게 하는 감시자
+// - 짧은 시간에 여러 번 쓰이면(debounce) 마지막 변경 후 debounceMillis 가 지나서 한 번만 알립니다.
+// - 플러그인이 직접 저장한 경우(isOwnWrite 가 true)는 무시합니다.
+public final class NicknameFileWatcher {
+
+    private final Path file;
+    private final long debounceMillis;
+    private final BooleanSupplier isOwnWrite;
+    private final Runnable onChange;
+    private final Logger logger;
+    private WatchService watchService;
+    private Thread thread;
+
+    public NicknameFileWatcher(Path file, long debounceMillis, BooleanSupplier isOwnWrite, Runnable onChange, Logger logger) {
+        this.file = file.toAbsolutePath();
+        this.debounceMillis = Math.max(50L, debounceMillis);
+        this.isOwnWrite = isOwnWrite;
+        this.onChange = onChange;
+        this.logger = logger;
+    }
+
+    public void start() throws IOException {
+        watchService = FileSystems.getDefault().newWatchService();
+        // WatchService 는 폴더 단위로만 감시할 수 있으므로 부모 폴더를 등록하고 파일 이름으로 거릅니다.
+        file.getParent().register(watchService, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY);
+        thread = new Thread(this::run, "MinecraftNickname-watch");
+        thread.setDaemon(true);
+        thread.start();
+        logger.info("닉네임 파일 변경 감시를 시작합니다: " + file);
+    }
+
+    public void stop() {
+        if (watchService == null) {
+            return;
+        }
+        try {
+            watchService.close();
+        } catch (IOException e) {
+            logger.warning("파일 감시 종료 중 오류 발생: " + e.getMessage());
+        }
+        thread.interrupt();
+    }
+
+    private void run() {
+        Path fileName = file.getFileName();
+        long deadline = 0L;
+        try {
+            while (true) {
+                WatchKey key;
+                if (deadline == 0L) {
+                    key = watchService.take();
+                } else {
+                    long wait = deadline - System.currentTimeMillis();
+                    key = (wait > 0) ? watchService.poll(wait, TimeUnit.MILLISECONDS) : null;
+                }
+                if (key != null) {
+                    for (WatchEvent<?> event : key.pollEvents()) {
+                        if (fileName.equals(event.context())) {
+                            // 변경이 이어지는 동안에는 계속 뒤로 미룹니다.
+                            deadline = System.currentTimeMillis() + debounceMillis;
+                        }
+                    }
+                    key.reset();
+                    continue;
+                }
+                deadline = 0L;
+                if (isOwnWrite.getAsBoolean()) {
+                    continue;
+                }
+                logger.info("닉네임 파일이 외부에서 변경되었습니다. 다시 불러옵니다.");
+                onChange.run();
+            }
+        } catch (InterruptedException | ClosedWatchServiceException e) {
+            // 종료
+        }
+    }
+}
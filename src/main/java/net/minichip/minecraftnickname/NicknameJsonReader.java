@@ -0,0 +1,288 @@
+package net.minichip.minecraftnickname;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.logging.Logger;
+
+// nicknames.json 을 한 번만 훑으며 바로 NicknameRecord 를 만드는 스트리밍 로더
+// - 파일 전체를 문자열로 읽거나 JSONObject 트리를 만들지 않으므로, 항목 수가 늘어도 추가 메모리는 기록 자체뿐입니다.
+// - 읽는 도중 값의 형태를 보고 현재 형식({ "UUID": { "name", "nick" } })과
+//   이전 버전 형식({ "플레이어이름": "닉네임" })을 함께 구분합니다.
+public final class NicknameJsonReader {
+
+    // records: 현재 형식 항목, legacy: 이전 버전 형식 항목 (플레이어 이름 -> 닉네임), skipped: 건너뛴 항목 수
+    public record Result(List<NicknameRecord> records, Map<String, String> legacy, int skipped) {
+        public boolean isLegacy() {
+            return !legacy.isEmpty();
+        }
+    }
+
+    private final Reader in;
+    private final Logger logger;
+    private final char[] buffer = new char[64 * 1024];
+    private final StringBuilder text = new StringBuilder(64);
+    private int position;
+    private int limit;
+
+    private NicknameJsonReader(Reader in, Logger logger) {
+        this.in = in;
+        this.logger = logger;
+    }
+
+    public static Result read(File file, Logger logger) throws IOException {
+        try (Reader reader = new BufferedReader(new InputStreamReader(Files.newInputStream(file.toPath()), StandardCharsets.UTF_8), 64 * 1024)) {
+            return new NicknameJsonReader(reader, logger).readTopLevel();
+        }
+    }
+
+    private Result readTopLevel() throws IOException {
+        List<NicknameRecord> records = new ArrayList<>();
+        Map<String, String> legacy = new LinkedHashMap<>();
+        int skipped = 0;
+
+        int c = nextNonWhitespace();
+        if (c == '\uFEFF') {
+            // UTF-8 BOM
+            c = nextNonWhitespace();
+        }
+        if (c == -1) {
+            // 빈 파일은 빈 데이터로 봅니다.
+            return new Result(records, legacy, 0);
+        }
+        if (c != '{') {
+            throw syntaxError("'{' 가 필요합니다");
+        }
+        c = nextNonWhitespace();
+        if (c == '}') {
+            return new Result(records, legacy, 0);
+        }
+        while (true) {
+            if (c != '"') {
+                throw syntaxError("키 문자열이 필요합니다");
+            }
+            String key = readString();
+            expect(':');
+            c = nextNonWhitespace();
+            if (c == '"') {
+                legacy.put(key, readString());
+            } else if (c == '{') {
+                NicknameRecord record = readRecord(key);
+                if (record != null) {
+                    records.add(record);
+                } else {
+                    skipped++;
+                }
+            } else {
+                logger.warning("알 수 없는 형식의 항목을 건너뜁니다: " + key);
+                skipValue(c);
+                skipped++;
+            }
+            c = nextNonWhitespace();
+            if (c == '}') {
+                break;
+            }
+            if (c != ',') {
+                throw syntaxError("',' 또는 '}' 가 필요합니다");
+            }
+            c = nextNonWhitespace();
+        }
+        return new Result(records, legacy, skipped);
+    }
+
+    // '{' 를 읽은 직후에 호출합니다.
+    private NicknameRecord readRecord(String key) throws IOException {
+        String name = null;
+        String nick = null;
+        long changedAt = 0L;
+        int c = nextNonWhitespace();
+        if (c != '}') {
+            while (true) {
+                if (c != '"') {
+                    throw syntaxError("키 문자열이 필요합니다");
+                }
+                String field = readString();
+                expect(':');
+                c = nextNonWhitespace();
+                if (field.equals("name") && c == '"') {
+                    name = readString();
+                } else if (field.equals("nick") && c == '"') {
+                    nick = readString();
+                } else if (field.equals("changedAt") && (c == '-' || Character.isDigit(c))) {
+                    changedAt = readLong(c);
+                } else {
+                    skipValue(c);
+                }
+                c = nextNonWhitespace();
+                if (c == '}') {
+                    break;
+                }
+                if (c != ',') {
+                    throw syntaxError("',' 또는 '}' 가 필요합니다");
+                }
+                c = nextNonWhitespace();
+            }
+        }
+        UUID uuid;
+        try {
+            uuid = UUID.fromString(key);
+        } catch (IllegalArgumentException e) {
+            logger.warning("잘못된 UUID 항목을 건너뜁니다: " + key);
+            return null;
+        }
+        return new NicknameRecord(uuid, name, nick, changedAt);
+    }
+
+    // 첫 글자 c 를 이미 읽은 정수 하나를 읽습니다. (소수부나 지수가 있으면 정수 부분만 사용)
+    private long readLong(int c) throws IOException {
+        boolean negative = c == '-';
+        long value = negative ? 0L : c - '0';
+        while (true) {
+            int next = peek();
+            if (next < '0' || next > '9') {
+                break;
+            }
+            position++;
+            value = value * 10 + (next - '0');
+        }
+        skipValue('0');
+        return negative ? -value : value;
+    }
+
+    // 첫 글자 c 를 이미 읽은 값 하나를 건너뜁니다.
+    private void skipValue(int c) throws IOException {
+        if (c == '"') {
+            readString();
+            return;
+        }
+        if (c == '{' || c == '[') {
+            int depth = 1;
+            while (depth > 0) {
+                int next = read();
+                if (next == -1) {
+                    throw syntaxError("파일이 중간에 끝났습니다");
+                }
+                if (next == '"') {
+                    readString();
+                } else if (next == '{' || next == '[') {
+                    depth++;
+                } else if (next == '}' || next == ']') {
+                    depth--;
+                }
+            }
+            return;
+        }
+        // 숫자, true, false, null
+        while (true) {
+            int next = peek();
+            if (next == -1 || next == ',' || next == '}' || next == ']' || Character.isWhitespace(next)) {
+                return;
+            }
+            position++;
+        }
+    }
+
+    // 여는 따옴표를 읽은 직후에 호출합니다.
+    private String readString() throws IOException {
+        text.setLength(0);
+        while (true) {
+            int c = read();
+            if (c == -1) {
+                throw syntaxError("문자열이 닫히지 않았습니다");
+            }
+            if (c == '"') {
+                return text.toString();
+            }
+            if (c != '\\') {
+                text.append((char) c);
+                continue;
+            }
+            int escaped = read();
+            switch (escaped) {
+                case 'b':
+                    text.append('\b');
+                    break;
+                case 'f':
+                    text.append('\f');
+                    break;
+                case 'n':
+                    text.append('\n');
+                    break;
+                case 'r':
+                    text.append('\r');
+                    break;
+                case 't':
+                    text.append('\t');
+                    break;
+                case 'u':
+                    int value = 0;
+                    for (int i = 0; i < 4; i++) {
+                        int digit = Character.digit(read(), 16);
+                        if (digit < 0) {
+                            throw syntaxError("잘못된 \\u 이스케이프");
+                        }
+                        value = (value << 4) | digit;
+                    }
+                    text.append((char) value);
+                    break;
+                case -1:
+                    throw syntaxError("문자열이 닫히지 않았습니다");
+                default:
+                    text.append((char) escaped);
+                    break;
+            }
+        }
+    }
+
+    private void expect(char expected) throws IOException {
+        if (nextNonWhitespace() != expected) {
+            throw syntaxError("'" + expected + "' 가 필요합니다");
+        }
+    }
+
+    private int nextNonWhitespace() throws IOException {
+        while (true) {
+            int c = read();
+            if (c == -1 || !Character.isWhitespace(c)) {
+                return c;
+            }
+        }
+    }
+
+    private int read() throws IOException {
+        if (position == limit && !fill()) {
+            return -1;
+        }
+        return buffer[position++];
+    }
+
+    private int peek() throws IOException {
+        if (position == limit && !fill()) {
+            return -1;
+        }
+        return buffer[position];
+    }
+
+    private boolean fill() throws IOException {
+        limit = in.read(buffer, 0, buffer.length);
+        position = 0;
+        if (limit <= 0) {
+            limit = 0;
+            return false;
+        }
+        return true;
+    }
+
+    private IOException syntaxError(String message) {
+        return new IOException("JSON 형식 오류: " + message);
+    }
+}
@@ -0,0 +1,102 @@
+package net.minichip.minecraftnickname;
+
+import org.json.JSONObject;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.util.Collection;
+
+// 닉네임 기록을 nicknames.json 형식으로 기록합니다.
+// 전체 JSONObject 트리를 만들지 않고 한 항목씩 바로 씁니다. (문자열 이스케이프만 JSONObject.quote 사용)
+public final class NicknameJsonWriter {
+
+    private NicknameJsonWriter() {
+    }
+
+    public static void write(Collection<NicknameRecord> records, Writer out) throws IOException {
+        out.write("{\n");
+        boolean first = true;
+        for (NicknameRecord record : records) {
+            if (!first) {
+                out.write(",\n");
+            }
+            first = false;
+            out.write("    \"");
+            out.write(record.uuid().toString());
+            out.write("\": {");
+            boolean hasField = false;
+            if (record.name() != null) {
+                out.write(" \"name\": ");
+                out.write(JSONObject.quote(record.name()));
+                hasField = true;
+            }
+            if (record.nick() != null) {
+                out.write(hasField ? ", \"nick\": " : " \"nick\": ");
+                out.write(JSONObject.quote(record.nick()));
+                hasField = true;
+            }
+            if (record.changedAt() != 0L) {
+                out.write(hasField ? ", \"changedAt\": " : " \"changedAt\": ");
+                out.write(Long.toString(record.changedAt()));
+                hasField = true;
+            }
+            out.write(hasField ? " }" : "}");
+        }
+        out.write(first ? "}\n" : "\n}\n");
+    }
+
+    // 같은 폴더의 임시 파일에 쓰고 디스크에 반영(fsync)한 뒤 원자적으로 교체합니다.
+    // 중간에 서버가 꺼져도 기존 파일이나 새 파일 중 하나는 온전히 남습니다. 쓴 바이트 수를 반환합니다.
+    public static long writeAtomically(Collection<NicknameRecord> records, Path target) throws IOException {
+        return writeAtomically(records, target, null);
+    }
+
+    // digest 가 있으면 쓴 내용을 그대로 digest 에도 넣습니다. (다시 읽지 않고 저장한 파일의 해시를 구하기 위해 사용)
+    public static long writeAtomically(Collection<NicknameRecord> records, Path target, MessageDigest digest) throws IOException {
+        Path temp = target.resolveSibling(target.getFileName() + ".tmp");
+        long bytes;
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            OutputStream stream = Channels.newOutputStream(channel);
+            if (digest != null) {
+                stream = new DigestOutputStream(stream, digest);
+            }
+            Writer out = new BufferedWriter(new OutputStreamWriter(stream, StandardCharsets.UTF_8), 64 * 1024);
+            write(records, out);
+            out.flush();
+            bytes = channel.position();
+            channel.force(true);
+        }
+        try {
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            // 원자적 이동을 지원하지 않는 파일 시스템
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+        syncDirectory(target.toAbsolutePath().getParent());
+        return bytes;
+    }
+
+    private static void syncDirectory(Path directory) {
+        if (directory == null) {
+            return;
+        }
+        try (FileChannel channel = FileChannel.open(directory, StandardOpenOption.READ)) {
+            channel.force(true);
+        } catch (IOException e) {
+            // 폴더 fsync 를 지원하지 않는 운영체제(Windows 등)에서는 무시합니다.
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package net.minichip.minecraftnickname;
+
+import java.text.Normalizer;
+import java.util.Locale;
+
+// 닉네임/이름 색인에 쓰는 대소문자 무시 키
+// - 시스템 로케일과 무관하게 동작합니다. (터키어 로케일의 i/İ 문제 등)
+// - NFC 로 정규화하므로 조합형(자모 분리) 한글과 완성형 한글이 같은 키가 됩니다.
+// - 대문자로 바꾼 뒤 다시 소문자로 바꿔 ß/ς 같은 특수한 대소문자 쌍도 하나로 맞춥니다.
+public final class NicknameKeys {
+
+    private static final char HANGUL_FIRST = '가';
+    private static final char HANGUL_LAST = '힣';
+    // 초성 하나당 (중성 21 x 종성 28) 음절
+    private static final int CHOSEONG_STRIDE = 21 * 28;
+    private static final char[] CHOSEONG = {
+            'ㄱ', 'ㄲ', 'ㄴ', 'ㄷ', 'ㄸ', 'ㄹ', 'ㅁ', 'ㅂ', 'ㅃ', 'ㅅ',
+            'ㅆ', 'ㅇ', 'ㅈ', 'ㅉ', 'ㅊ', 'ㅋ', 'ㅌ', 'ㅍ', 'ㅎ'
+    };
+
+    private NicknameKeys() {
+    }
+
+    public static String fold(String value) {
+        if (value == null) {
+            return null;
+        }
+        if (isFoldedAscii(value)) {
+            // 대부분의 플레이어 이름은 이미 소문자 ASCII 이므로 새 문자열을 만들지 않습니다.
+            return value;
+        }
+        String normalized = Normalizer.normalize(value, Normalizer.Form.NFC);
+        return normalized.toUpperCase(Locale.ROOT).toLowerCase(Locale.ROOT);
+    }
+
+    // 한글 초성 키 (예: "홍길동" -> "ㅎㄱㄷ"). 완성형 한글 음절만 초성으로 바꾸고 나머지 문자는 그대로 둡니다.
+    // 한글 음절이 하나도 없으면 null 을 반환합니다. fold 를 거친 값을 넣어야 합니다.
+    public static String choseong(String folded) {
+        StringBuilder out = null;
+        for (int i = 0; i < folded.length(); i++) {
+            char c = folded.charAt(i);
+            if (c >= HANGUL_FIRST && c <= HANGUL_LAST) {
+                if (out == null) {
+                    out = new StringBuilder(folded.length());
+                    out.append(folded, 0, i);
+                }
+                out.append(CHOSEONG[(c - HANGUL_FIRST) / CHOSEONG_STRIDE]);
+            } else if (out != null) {
+                out.append(c);
+            }
+        }
+        return (out != null) ? out.toString() : null;
+    }
+
+    // 초성(호환 자모 자음 ㄱ~ㅎ)이 들어 있는 검색어인지
+    public static boolean hasChoseong(String value) {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c >= 'ㄱ' && c <= 'ㅎ') {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean isFoldedAscii(String value) {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c >= 0x80 || (c >= 'A' && c <= 'Z')) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
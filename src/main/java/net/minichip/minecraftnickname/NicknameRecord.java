@@ -0,0 +1,45 @@
+package net.minichip.minecraftnickname;
+
+import java.util.UUID;
+
+// 한 플레이어의 닉네임 정보 (불변 객체)
+// 변경이 필요하면 with* 메서드로 새 객체를 만들어 NicknameStore 에 다시 넣습니다.
+// changedAt: 플레이어가 직접 닉네임을 바꾼 마지막 시각 (epoch 초, 0 이면 없음). 변경 대기 시간 계산에 씁니다.
+public record NicknameRecord(UUID uuid, String name, String nick, long changedAt) {
+
+    // 저장소(데이터베이스 열 크기)가 받아 주는 최대 길이
+    public static final int MAX_NICK_LENGTH = 64;
+    public static final int MAX_NAME_LENGTH = 32;
+
+    public NicknameRecord {
+        if (uuid == null) {
+            throw new IllegalArgumentException("uuid 는 null 일 수 없습니다.");
+        }
+    }
+
+    public NicknameRecord(UUID uuid, String name, String nick) {
+        this(uuid, name, nick, 0L);
+    }
+
+    // 저장할 수 있는 닉네임인지 확인합니다. (비어 있지 않고, 대소문자를 접은 색인 키까지 길이 제한 안)
+    public static boolean isValidNick(String nick) {
+        return nick != null && !nick.isEmpty() && nick.length() <= MAX_NICK_LENGTH
+                && NicknameKeys.fold(nick).length() <= MAX_NICK_LENGTH;
+    }
+
+    public static boolean isValidName(String name) {
+        return name == null || name.length() <= MAX_NAME_LENGTH;
+    }
+
+    public NicknameRecord withName(String newName) {
+        return new NicknameRecord(uuid, newName, nick, changedAt);
+    }
+
+    public NicknameRecord withNick(String newNick) {
+        return new NicknameRecord(uuid, name, newNick, changedAt);
+    }
+
+    public NicknameRecord withChangedAt(long newChangedAt) {
+        return new NicknameRecord(uuid, name, nick, newChangedAt);
+    }
+}
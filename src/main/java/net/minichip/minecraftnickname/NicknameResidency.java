@@ -0,0 +1,118 @@
+package net.minichip.minecraftnickname;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+
+// 지연 로딩 모드에서 어떤 기록을 메모리에 둘지 관리합니다.
+// - 접속 중인 플레이어와 최근에 나간 플레이어(최대 maxOffline 명, LRU)의 기록만 메모리에 둡니다.
+// - 나머지는 색인(닉네임/이름 -> UUID)만 남기고, 필요할 때 데이터베이스에서 한 명씩 읽어 옵니다.
+// - 아직 데이터베이스에 기록하지 않은 변경이 있는 기록은 내리지 않습니다.
+public final class NicknameResidency {
+
+    private final NicknameStore store;
+    private final JdbcNicknameStorage storage;
+    private final int maxOffline;
+    private final Set<UUID> online = ConcurrentHashMap.newKeySet();
+    // 최근에 사용한 오프라인 플레이어 (접근 순서)
+    private final LinkedHashMap<UUID, Boolean> recent = new LinkedHashMap<>(16, 0.75f, true);
+
+    public NicknameResidency(NicknameStore store, JdbcNicknameStorage storage, int maxOffline) {
+        this.store = store;
+        this.storage = storage;
+        this.maxOffline = Math.max(0, maxOffline);
+        store.setResidentFilter(this::isPinned);
+    }
+
+    // 메모리에 두어야 하는 기록인지 (접속 중이거나 최근 사용)
+    private boolean isPinned(UUID uuid) {
+        if (online.contains(uuid)) {
+            return true;
+        }
+        synchronized (this) {
+            return recent.containsKey(uuid);
+        }
+    }
+
+    private synchronized void touch(UUID uuid) {
+        recent.put(uuid, Boolean.TRUE);
+    }
+
+    // 접속 직전(AsyncPlayerPreLoginEvent)에 호출합니다. 데이터베이스에서 기록을 읽어 메모리에 올립니다.
+    public void preLogin(UUID uuid) throws IOException {
+        touch(uuid);
+        apply(uuid, storage.fetch(uuid));
+    }
+
+    public void online(UUID uuid) {
+        online.add(uuid);
+        synchronized (this) {
+            recent.remove(uuid);
+        }
+    }
+
+    public void offline(UUID uuid) {
+        online.remove(uuid);
+        touch(uuid);
+        trim();
+    }
+
+    // 명령어 등에서 다룰 기록들을 메모리에 올립니다. 이미 올라와 있는 것은 읽지 않습니다.
+    public CompletableFuture<Void> ensureLoaded(Collection<UUID> uuids) {
+        List<CompletableFuture<?>> loads = new ArrayList<>();
+        for (UUID uuid : uuids) {
+            if (uuid == null) {
+                continue;
+            }
+            touch(uuid);
+            if (!store.contains(uuid)) {
+                loads.add(storage.fetchAsync(uuid).thenAccept(record -> apply(uuid, record)));
+            }
+        }
+        return CompletableFuture.allOf(loads.toArray(new CompletableFuture<?>[0]));
+    }
+
+    private void apply(UUID uuid, NicknameRecord record) {
+        if (record != null && store.loadResident(record)) {
+            return;
+        }
+        // 이미 메모리에 있거나 삭제된 기록이면 최신 값으로 맞춥니다. (아직 기록하지 않은 로컬 변경은 유지)
+        Map<UUID, NicknameRecord> change = new HashMap<>();
+        change.put(uuid, record);
+        store.applyExternal(change, id -> !storage.hasPendingWrite(id));
+    }
+
+    // 한도를 넘은 최근 플레이어와, 접속 중도 최근 사용도 아닌 기록을 메모리에서 내립니다.
+    public void trim() {
+        List<UUID> evict = new ArrayList<>();
+        synchronized (this) {
+            Iterator<UUID> it = recent.keySet().iterator();
+            int excess = recent.size() - maxOffline;
+            while (excess > 0 && it.hasNext()) {
+                UUID uuid = it.next();
+                if (storage.hasPendingWrite(uuid)) {
+                    continue;
+                }
+                it.remove();
+                excess--;
+            }
+        }
+        for (NicknameRecord record : store.snapshot().records()) {
+            if (!isPinned(record.uuid()) && !storage.hasPendingWrite(record.uuid())) {
+                evict.add(record.uuid());
+            }
+        }
+        if (!evict.isEmpty()) {
+            store.evict(evict);
+        }
+    }
+}
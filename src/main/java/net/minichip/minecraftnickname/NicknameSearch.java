@@ -0,0 +1,89 @@
+package net.minichip.minecraftnickname;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+// /nicksearch 와 자동 완성에 쓰는 접두어 검색
+// 저장소가 바뀌면 잠시 모았다가 백그라운드 스레드에서 접두어 색인을 새로 만들어 교체합니다.
+// 교체 전까지는 이전 색인을 쓰되, 현재 저장소에서 더 이상 맞지 않는 결과는 걸러 냅니다.
+public final class NicknameSearch implements NicknameStore.Listener {
+
+    private static final long REBUILD_DELAY_MILLIS = 500L;
+
+    private final NicknameStore store;
+    private final ScheduledExecutorService executor;
+    private final AtomicBoolean scheduled = new AtomicBoolean();
+    private volatile PrefixIndex index = PrefixIndex.EMPTY;
+
+    public NicknameSearch(NicknameStore store) {
+        this.store = store;
+        this.executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "MinecraftNickname-search");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @Override
+    public void onRecordChanged(UUID uuid, NicknameRecord before, NicknameRecord after) {
+        scheduleRebuild();
+    }
+
+    @Override
+    public void onSnapshotReplaced(NicknameSnapshot before, NicknameSnapshot after, Set<UUID> changed) {
+        scheduleRebuild();
+    }
+
+    private void scheduleRebuild() {
+        if (scheduled.compareAndSet(false, true)) {
+            executor.schedule(this::rebuild, REBUILD_DELAY_MILLIS, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private void rebuild() {
+        // 만드는 동안 들어온 변경은 다음 재구성으로 넘깁니다.
+        scheduled.set(false);
+        index = PrefixIndex.build(store.snapshot());
+    }
+
+    // prefix 로 시작하는 닉네임/이름 (최대 limit 개)
+    public List<PrefixIndex.Entry> search(String prefix, int limit) {
+        long startedAt = System.nanoTime();
+        NicknameSnapshot snapshot = store.snapshot();
+        List<PrefixIndex.Entry> result = new ArrayList<>();
+        // 걸러질 항목을 감안해 조금 더 읽습니다.
+        for (PrefixIndex.Entry entry : index.search(prefix, limit * 2)) {
+            // value 는 초성 항목이어도 원래 닉네임이므로 현재 색인에서 바로 확인할 수 있습니다.
+            UUID owner = entry.nick() ? snapshot.ownerOfNick(entry.value()) : snapshot.ownerOfName(entry.value());
+            if (!entry.owner().equals(owner)) {
+                continue;
+            }
+            result.add(entry);
+            if (result.size() >= limit) {
+                break;
+            }
+        }
+        PluginMetrics.SEARCH.recordSince(startedAt);
+        return result;
+    }
+
+    // 자동 완성 후보 (중복 제거)
+    public List<String> complete(String prefix, int limit) {
+        Set<String> values = new LinkedHashSet<>();
+        for (PrefixIndex.Entry entry : search(prefix, limit)) {
+            values.add(entry.value());
+        }
+        return new ArrayList<>(values);
+    }
+
+    public void close() {
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,233 @@
+package net.minichip.minecraftnickname;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+
+// 특정 시점의 닉네임 데이터 전체 (불변)
+// 한 번 만들어진 스냅샷은 절대 바뀌지 않으므로 어느 스레드에서든 잠금 없이 읽을 수 있습니다.
+// 기본 맵(UUID -> 기록)과 함께 대소문자 무시 역색인(닉네임 -> UUID, 이름 -> UUID)을 같은 스냅샷에 담아
+// 맵들이 항상 같은 시점의 내용을 가리키도록 합니다.
+// 각 맵은 구조를 공유하는 PersistentHashMap 이므로, 기록 하나를 바꾼 새 스냅샷은 바뀐 경로만 새로 만듭니다. (Builder)
+// 지연 로딩 모드에서는 색인은 전체를 담고, 기본 맵에는 메모리에 올라온 기록만 들어 있습니다.
+// 색인에는 UUID -> 키 역색인(indexedKeys)이 함께 있어, 기록 내용을 모르는 UUID 의 색인 항목도 바로 지울 수 있습니다.
+public final class NicknameSnapshot {
+
+    public static final NicknameSnapshot EMPTY = new NicknameSnapshot(PersistentHashMap.empty(), PersistentHashMap.empty(),
+            PersistentHashMap.empty(), PersistentHashMap.empty());
+
+    // 한 UUID 가 색인에 가진 키 (없으면 null)
+    private record IndexKeys(String nick, String name) {
+    }
+
+    private final PersistentHashMap<UUID, NicknameRecord> records;
+    private final PersistentHashMap<String, UUID> nickIndex;
+    private final PersistentHashMap<String, UUID> nameIndex;
+    private final PersistentHashMap<UUID, IndexKeys> indexedKeys;
+
+    private NicknameSnapshot(PersistentHashMap<UUID, NicknameRecord> records, PersistentHashMap<String, UUID> nickIndex,
+                             PersistentHashMap<String, UUID> nameIndex, PersistentHashMap<UUID, IndexKeys> indexedKeys) {
+        this.records = records;
+        this.nickIndex = nickIndex;
+        this.nameIndex = nameIndex;
+        this.indexedKeys = indexedKeys;
+    }
+
+    // 이 스냅샷에서 시작해 바꾼 새 스냅샷을 만듭니다. 바꾸는 동안에도 이 스냅샷은 그대로입니다.
+    Builder toBuilder() {
+        return new Builder(this);
+    }
+
+    // 스냅샷을 고쳐 만드는 도구 (쓰기 잠금 안에서만 사용)
+    // 바꿀 때마다 맵 전체를 복사하지 않고 PersistentHashMap 의 plus/minus 로 바뀐 부분만 새로 만듭니다.
+    static final class Builder {
+        private PersistentHashMap<UUID, NicknameRecord> records;
+        private PersistentHashMap<String, UUID> nickIndex;
+        private PersistentHashMap<String, UUID> nameIndex;
+        private PersistentHashMap<UUID, IndexKeys> indexedKeys;
+
+        Builder() {
+            this(EMPTY);
+        }
+
+        private Builder(NicknameSnapshot base) {
+            this.records = base.records;
+            this.nickIndex = base.nickIndex;
+            this.nameIndex = base.nameIndex;
+            this.indexedKeys = base.indexedKeys;
+        }
+
+        NicknameRecord get(UUID uuid) {
+            return records.get(uuid);
+        }
+
+        boolean contains(UUID uuid) {
+            return records.containsKey(uuid);
+        }
+
+        // 기본 맵에만 넣습니다. (색인은 index 로 따로 맞춥니다) 이전 기록을 반환합니다.
+        NicknameRecord putRecord(NicknameRecord record) {
+            NicknameRecord previous = records.get(record.uuid());
+            records = records.plus(record.uuid(), record);
+            return previous;
+        }
+
+        // 기본 맵에서만 뺍니다. 뺀 기록을 반환합니다.
+        NicknameRecord removeRecord(UUID uuid) {
+            NicknameRecord previous = records.get(uuid);
+            if (previous != null) {
+                records = records.minus(uuid);
+            }
+            return previous;
+        }
+
+        // 다른 UUID 가 쓰던 키를 가져오면 그 UUID 의 역색인에서도 키를 뺍니다.
+        void index(NicknameRecord record) {
+            UUID uuid = record.uuid();
+            IndexKeys keys = indexedKeys.get(uuid);
+            String nickKey = (keys != null) ? keys.nick() : null;
+            String nameKey = (keys != null) ? keys.name() : null;
+            if (record.nick() != null) {
+                nickKey = NicknameKeys.fold(record.nick());
+                UUID displaced = nickIndex.get(nickKey);
+                if (displaced != null && !displaced.equals(uuid)) {
+                    IndexKeys displacedKeys = indexedKeys.get(displaced);
+                    setKeys(displaced, null, displacedKeys.name());
+                }
+                nickIndex = nickIndex.plus(nickKey, uuid);
+            }
+            if (record.name() != null) {
+                nameKey = NicknameKeys.fold(record.name());
+                UUID displaced = nameIndex.get(nameKey);
+                if (displaced != null && !displaced.equals(uuid)) {
+                    IndexKeys displacedKeys = indexedKeys.get(displaced);
+                    setKeys(displaced, displacedKeys.nick(), null);
+                }
+                nameIndex = nameIndex.plus(nameKey, uuid);
+            }
+            setKeys(uuid, nickKey, nameKey);
+        }
+
+        void unindex(NicknameRecord record) {
+            if (record.nick() != null) {
+                String key = NicknameKeys.fold(record.nick());
+                if (record.uuid().equals(nickIndex.get(key))) {
+                    nickIndex = nickIndex.minus(key);
+                    setKeys(record.uuid(), null, indexedKeys.get(record.uuid()).name());
+                }
+            }
+            if (record.name() != null) {
+                String key = NicknameKeys.fold(record.name());
+                if (record.uuid().equals(nameIndex.get(key))) {
+                    nameIndex = nameIndex.minus(key);
+                    setKeys(record.uuid(), indexedKeys.get(record.uuid()).nick(), null);
+                }
+            }
+        }
+
+        // 기록 내용을 모르는 UUID 들의 색인 항목을 모두 지웁니다. (메모리에 없는 기록이 바뀌었을 때)
+        // 역색인으로 키를 찾으므로 색인 크기와 관계없이 UUID 수에 비례합니다.
+        void unindexAll(Set<UUID> uuids) {
+            for (UUID uuid : uuids) {
+                IndexKeys keys = indexedKeys.get(uuid);
+                if (keys == null) {
+                    continue;
+                }
+                if (keys.nick() != null && uuid.equals(nickIndex.get(keys.nick()))) {
+                    nickIndex = nickIndex.minus(keys.nick());
+                }
+                if (keys.name() != null && uuid.equals(nameIndex.get(keys.name()))) {
+                    nameIndex = nameIndex.minus(keys.name());
+                }
+                indexedKeys = indexedKeys.minus(uuid);
+            }
+        }
+
+        NicknameSnapshot build() {
+            return new NicknameSnapshot(records, nickIndex, nameIndex, indexedKeys);
+        }
+
+        private void setKeys(UUID uuid, String nickKey, String nameKey) {
+            indexedKeys = (nickKey == null && nameKey == null)
+                    ? indexedKeys.minus(uuid)
+                    : indexedKeys.plus(uuid, new IndexKeys(nickKey, nameKey));
+        }
+    }
+
+    // 색인의 키가 이 기록과 일치하는지 (지연 로딩으로 기록을 올릴 때 색인을 다시 만들 필요가 있는지 확인)
+    // 역색인과 비교하므로, 기록에서 빠진 예전 닉네임/이름이 색인에 남아 있는 경우도 일치하지 않는 것으로 봅니다.
+    boolean isIndexed(NicknameRecord record) {
+        IndexKeys keys = indexedKeys.get(record.uuid());
+        String nickKey = NicknameKeys.fold(record.nick());
+        String nameKey = NicknameKeys.fold(record.name());
+        if (keys == null) {
+            return nickKey == null && nameKey == null;
+        }
+        return Objects.equals(keys.nick(), nickKey) && Objects.equals(keys.name(), nameKey);
+    }
+
+    // 이 UUID 가 색인에 닉네임이나 이름을 가지고 있는지 (기록이 메모리에 없어도 확인할 수 있습니다)
+    boolean hasIndexEntries(UUID uuid) {
+        return indexedKeys.containsKey(uuid);
+    }
+
+    public NicknameRecord get(UUID uuid) {
+        return records.get(uuid);
+    }
+
+    public boolean contains(UUID uuid) {
+        return records.containsKey(uuid);
+    }
+
+    // 닉네임으로 기록 찾기 (대소문자 무시)
+    public NicknameRecord findByNick(String nick) {
+        UUID uuid = nickIndex.get(NicknameKeys.fold(nick));
+        return (uuid != null) ? records.get(uuid) : null;
+    }
+
+    // 저장된 플레이어 이름으로 기록 찾기 (대소문자 무시)
+    public NicknameRecord findByName(String name) {
+        UUID uuid = nameIndex.get(NicknameKeys.fold(name));
+        return (uuid != null) ? records.get(uuid) : null;
+    }
+
+    // 닉네임 주인의 UUID (기록이 메모리에 없어도 찾을 수 있습니다)
+    public UUID ownerOfNick(String nick) {
+        return nickIndex.get(NicknameKeys.fold(nick));
+    }
+
+    // 저장된 이름 주인의 UUID (기록이 메모리에 없어도 찾을 수 있습니다)
+    public UUID ownerOfName(String name) {
+        return nameIndex.get(NicknameKeys.fold(name));
+    }
+
+    // 다른 플레이어가 이미 사용 중인 닉네임인지 확인합니다. except 가 가진 닉네임은 사용 중으로 보지 않습니다.
+    public boolean isNickTaken(String nick, UUID except) {
+        UUID owner = nickIndex.get(NicknameKeys.fold(nick));
+        return owner != null && !owner.equals(except);
+    }
+
+    // 메모리에 올라온 기록 수
+    public int size() {
+        return records.size();
+    }
+
+    // 닉네임이 등록된 전체 플레이어 수 (메모리에 없는 기록 포함)
+    public int nickCount() {
+        return nickIndex.size();
+    }
+
+    public Collection<NicknameRecord> records() {
+        return records.values();
+    }
+
+    Map<String, UUID> nickIndex() {
+        return nickIndex;
+    }
+
+    Map<String, UUID> nameIndex() {
+        return nameIndex;
+    }
+}
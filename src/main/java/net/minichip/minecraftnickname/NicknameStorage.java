@@ -0,0 +1,33 @@
+package net.minichip.minecraftnickname;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.UUID;
+
+// 닉네임 데이터 저장 방식
+// 메모리의 NicknameStore 가 기준이며, 저장소는 그 변경 사항을 디스크 등에 반영하는 역할만 합니다.
+// config.yml 의 storage-type 으로 구현을 고릅니다.
+public interface NicknameStorage {
+
+    // 저장된 전체 기록을 읽습니다. 서버 시작과 /nickreload 에서 사용합니다.
+    // 아직 기록하지 않은 변경이 있으면 먼저 기록한 뒤 읽어, 읽은 내용이 메모리보다 오래되지 않도록 합니다.
+    List<NicknameRecord> load() throws IOException;
+
+    // 저장된 전체 기록을 읽기만 합니다. load 와 달리 다른 서버의 변경을 확인하는 위치 등 내부 상태를 바꾸지 않습니다. (내보내기)
+    default List<NicknameRecord> readAll() throws IOException {
+        return load();
+    }
+
+    // 한 기록이 추가/수정/삭제되었을 때 호출됩니다. (after 가 null 이면 삭제)
+    // 저장소 쓰기 잠금 안에서 호출되므로 실제 쓰기는 뒤로 미루고 바로 반환해야 합니다.
+    void recordChanged(UUID uuid, NicknameRecord before, NicknameRecord after);
+
+    // 저장소 전체 내용을 다시 기록합니다. (이전 버전 파일 변환처럼 한꺼번에 바뀐 경우)
+    void saveAll();
+
+    // 아직 반영하지 않은 변경 사항을 지금 모두 기록합니다.
+    void flush();
+
+    // 남은 변경 사항을 기록하고 자원을 정리합니다. (onDisable)
+    void close();
+}
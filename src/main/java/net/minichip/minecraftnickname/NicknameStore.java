@@ -0,0 +1,291 @@
+package net.minichip.minecraftnickname;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Predicate;
+
+// 닉네임 저장소 (불변 스냅샷 교체)
+// - 읽기: volatile 스냅샷 하나만 읽으므로 비동기 채팅 스레드에서도 잠금 없이 안전합니다.
+// - 쓰기: 현재 스냅샷에서 바뀐 부분만 새로 만든 스냅샷(구조 공유, O(log N))으로 한 번에 교체합니다.
+//   replaceAll 만 전체를 새로 만듭니다. 쓰기끼리는 synchronized 로 직렬화합니다.
+// - 닉네임/이름 역색인도 같은 스냅샷 안에서 함께 교체되므로 조회 결과가 기본 맵과 어긋나지 않습니다.
+// - 지연 로딩 모드(setResidentFilter)에서는 색인만 전체를 유지하고, 기록은 필터를 통과한 것만 메모리에 둡니다.
+//   put/remove 는 대상 기록이 메모리에 올라와 있다고 가정합니다. (loadResident 로 먼저 올립니다)
+public final class NicknameStore {
+
+    // 저장소 변경 알림 (쓰기 잠금 안에서 호출되므로 가볍게 처리해야 합니다)
+    public interface Listener {
+        // put/remove 로 한 기록이 바뀌었을 때. before 가 null 이면 추가, after 가 null 이면 삭제입니다.
+        void onRecordChanged(UUID uuid, NicknameRecord before, NicknameRecord after);
+
+        // replaceAll 로 전체가 교체되었을 때. changed 에는 실제로 내용이 달라진 UUID 만 들어 있습니다.
+        default void onSnapshotReplaced(NicknameSnapshot before, NicknameSnapshot after, Set<UUID> changed) {
+            for (UUID uuid : changed) {
+                onRecordChanged(uuid, before.get(uuid), after.get(uuid));
+            }
+        }
+    }
+
+    private volatile NicknameSnapshot snapshot = NicknameSnapshot.EMPTY;
+    private final List<Listener> listeners = new CopyOnWriteArrayList<>();
+    // 전체 교체나 외부 변경 때 메모리에 둘 기록을 고르는 필터 (기본: 전부)
+    private volatile Predicate<UUID> residentFilter = uuid -> true;
+
+    public void addListener(Listener listener) {
+        listeners.add(listener);
+    }
+
+    public void setResidentFilter(Predicate<UUID> residentFilter) {
+        this.residentFilter = residentFilter;
+    }
+
+    public NicknameSnapshot snapshot() {
+        return snapshot;
+    }
+
+    public NicknameRecord get(UUID uuid) {
+        long startedAt = System.nanoTime();
+        NicknameRecord record = snapshot.get(uuid);
+        PluginMetrics.STORE_LOOKUP.recordSince(startedAt);
+        return record;
+    }
+
+    public boolean contains(UUID uuid) {
+        return snapshot.contains(uuid);
+    }
+
+    public NicknameRecord findByNick(String nick) {
+        long startedAt = System.nanoTime();
+        NicknameRecord record = snapshot.findByNick(nick);
+        PluginMetrics.STORE_LOOKUP.recordSince(startedAt);
+        return record;
+    }
+
+    public NicknameRecord findByName(String name) {
+        long startedAt = System.nanoTime();
+        NicknameRecord record = snapshot.findByName(name);
+        PluginMetrics.STORE_LOOKUP.recordSince(startedAt);
+        return record;
+    }
+
+    public boolean isNickTaken(String nick, UUID except) {
+        long startedAt = System.nanoTime();
+        boolean taken = snapshot.isNickTaken(nick, except);
+        PluginMetrics.STORE_LOOKUP.recordSince(startedAt);
+        return taken;
+    }
+
+    // 기록을 추가하거나 교체하고 이전 기록을 반환합니다.
+    public synchronized NicknameRecord put(NicknameRecord record) {
+        NicknameSnapshot current = snapshot;
+        NicknameSnapshot.Builder builder = current.toBuilder();
+        NicknameRecord previous = builder.putRecord(record);
+        if (previous != null) {
+            builder.unindex(previous);
+        } else if (!current.isIndexed(record)) {
+            // 메모리에 없던 기록이면 예전 색인 항목이 남아 있을 수 있습니다.
+            builder.unindexAll(Collections.singleton(record.uuid()));
+        }
+        builder.index(record);
+        snapshot = builder.build();
+        for (Listener listener : listeners) {
+            listener.onRecordChanged(record.uuid(), previous, record);
+        }
+        return previous;
+    }
+
+    // 여러 기록을 한 번에 추가하거나 교체합니다. (일괄 가져오기)
+    // 스냅샷은 한 번만 교체되므로 중간 상태가 보이지 않고, 리스너에는 기록마다 onRecordChanged 가 전달됩니다.
+    public synchronized void putAll(Collection<NicknameRecord> records) {
+        if (records.isEmpty()) {
+            return;
+        }
+        NicknameSnapshot current = snapshot;
+        NicknameSnapshot.Builder builder = current.toBuilder();
+        Set<UUID> unknown = new HashSet<>();
+        for (NicknameRecord record : records) {
+            if (!current.contains(record.uuid()) && !current.isIndexed(record)) {
+                unknown.add(record.uuid());
+            }
+        }
+        // 메모리에 없던 기록의 예전 색인 항목을 한 번에 지웁니다.
+        builder.unindexAll(unknown);
+        Map<UUID, NicknameRecord> previous = new HashMap<>();
+        for (NicknameRecord record : records) {
+            NicknameRecord replaced = builder.putRecord(record);
+            if (replaced != null) {
+                builder.unindex(replaced);
+                previous.putIfAbsent(record.uuid(), replaced);
+            }
+            builder.index(record);
+        }
+        snapshot = builder.build();
+        for (NicknameRecord record : records) {
+            for (Listener listener : listeners) {
+                listener.onRecordChanged(record.uuid(), previous.get(record.uuid()), record);
+            }
+        }
+    }
+
+    // 기록을 삭제하고 삭제된 기록을 반환합니다. 없으면 null.
+    public synchronized NicknameRecord remove(UUID uuid) {
+        if (!snapshot.contains(uuid)) {
+            return null;
+        }
+        NicknameSnapshot.Builder builder = snapshot.toBuilder();
+        NicknameRecord previous = builder.removeRecord(uuid);
+        builder.unindex(previous);
+        snapshot = builder.build();
+        for (Listener listener : listeners) {
+            listener.onRecordChanged(uuid, previous, null);
+        }
+        return previous;
+    }
+
+    // 전체 데이터를 새 기록들로 교체합니다. (파일 로드 시 사용)
+    // 실제로 내용이 달라진 UUID 목록을 반환합니다.
+    public Set<UUID> replaceAll(Collection<NicknameRecord> records) {
+        return replaceAll(records, residentFilter);
+    }
+
+    // resident 를 통과한 기록만 메모리에 두고, 색인은 전체 기록으로 만듭니다.
+    public synchronized Set<UUID> replaceAll(Collection<NicknameRecord> records, Predicate<UUID> resident) {
+        NicknameSnapshot before = snapshot;
+        NicknameSnapshot.Builder builder = new NicknameSnapshot.Builder();
+        Set<UUID> evicted = new HashSet<>();
+        for (NicknameRecord record : records) {
+            builder.index(record);
+            if (!resident.test(record.uuid())) {
+                evicted.add(record.uuid());
+                continue;
+            }
+            // 내용이 같으면 기존 객체를 그대로 써서, 객체 동일성으로 변경을 판단하는 캐시(DisplayCache 등)가 유지되게 합니다.
+            NicknameRecord previous = before.get(record.uuid());
+            builder.putRecord(record.equals(previous) ? previous : record);
+        }
+        NicknameSnapshot after = builder.build();
+        snapshot = after;
+        Set<UUID> changed = diff(before, after);
+        // 메모리에서 내려간 것은 변경이 아닙니다.
+        changed.removeAll(evicted);
+        for (Listener listener : listeners) {
+            listener.onSnapshotReplaced(before, after, changed);
+        }
+        return changed;
+    }
+
+    // 다른 서버 등 외부에서 온 변경을 한 번에 반영합니다. 값이 null 이면 삭제입니다.
+    // accept 가 false 를 반환하는 UUID 는 건너뜁니다. (아직 저장하지 않은 로컬 변경을 덮어쓰지 않기 위해 사용)
+    // 리스너에는 onSnapshotReplaced 로 전달되므로 저장소가 같은 변경을 다시 기록하지 않습니다.
+    public synchronized Set<UUID> applyExternal(Map<UUID, NicknameRecord> changes, Predicate<UUID> accept) {
+        NicknameSnapshot before = snapshot;
+        Map<UUID, NicknameRecord> accepted = new HashMap<>();
+        Set<UUID> unknown = new HashSet<>();
+        for (Map.Entry<UUID, NicknameRecord> entry : changes.entrySet()) {
+            UUID uuid = entry.getKey();
+            NicknameRecord record = entry.getValue();
+            NicknameRecord previous = before.get(uuid);
+            if (!accept.test(uuid)) {
+                continue;
+            }
+            if (previous == null) {
+                // 메모리에 없던 기록 (새 기록이거나 지연 로딩으로 내려간 기록)
+                if (record == null) {
+                    if (!before.hasIndexEntries(uuid)) {
+                        continue;
+                    }
+                    unknown.add(uuid);
+                } else if (!before.isIndexed(record)) {
+                    unknown.add(uuid);
+                } else if (!residentFilter.test(uuid)) {
+                    // 색인이 이미 일치하고 메모리에 올릴 기록도 아니면 바뀐 것이 없습니다.
+                    continue;
+                }
+            } else if (previous.equals(record)) {
+                continue;
+            }
+            accepted.put(uuid, record);
+        }
+        if (accepted.isEmpty()) {
+            return Collections.emptySet();
+        }
+        NicknameSnapshot.Builder builder = before.toBuilder();
+        builder.unindexAll(unknown);
+        for (Map.Entry<UUID, NicknameRecord> entry : accepted.entrySet()) {
+            UUID uuid = entry.getKey();
+            NicknameRecord record = entry.getValue();
+            NicknameRecord previous = builder.removeRecord(uuid);
+            if (previous != null) {
+                builder.unindex(previous);
+            }
+            if (record != null) {
+                builder.index(record);
+                // 지연 로딩 모드에서는 메모리에 둘 기록만 올립니다. (나머지는 색인만 갱신)
+                if (previous != null || residentFilter.test(uuid)) {
+                    builder.putRecord(record);
+                }
+            }
+        }
+        NicknameSnapshot after = builder.build();
+        snapshot = after;
+        Set<UUID> changed = accepted.keySet();
+        for (Listener listener : listeners) {
+            listener.onSnapshotReplaced(before, after, changed);
+        }
+        return changed;
+    }
+
+    // 저장소에서 읽어 온 기록을 메모리에 올립니다. (지연 로딩) 이미 올라와 있으면 아무것도 하지 않고 false 를 반환합니다.
+    // 내용이 바뀌는 것이 아니므로 리스너에는 알리지 않습니다.
+    public synchronized boolean loadResident(NicknameRecord record) {
+        NicknameSnapshot current = snapshot;
+        if (current.contains(record.uuid())) {
+            return false;
+        }
+        NicknameSnapshot.Builder builder = current.toBuilder();
+        builder.putRecord(record);
+        if (!current.isIndexed(record)) {
+            // 다른 서버의 변경을 아직 받지 못해 색인이 어긋난 경우 색인도 맞춥니다.
+            builder.unindexAll(Collections.singleton(record.uuid()));
+            builder.index(record);
+        }
+        snapshot = builder.build();
+        return true;
+    }
+
+    // 기록을 메모리에서 내립니다. 색인은 그대로 두므로 닉네임 중복 검사와 검색은 계속 동작합니다. (지연 로딩)
+    public synchronized void evict(Collection<UUID> uuids) {
+        NicknameSnapshot.Builder builder = snapshot.toBuilder();
+        boolean removed = false;
+        for (UUID uuid : uuids) {
+            removed |= builder.removeRecord(uuid) != null;
+        }
+        if (removed) {
+            snapshot = builder.build();
+        }
+    }
+
+    // 두 스냅샷 사이에 내용이 달라진 UUID 목록
+    static Set<UUID> diff(NicknameSnapshot before, NicknameSnapshot after) {
+        Set<UUID> changed = new HashSet<>();
+        for (NicknameRecord record : after.records()) {
+            if (!Objects.equals(before.get(record.uuid()), record)) {
+                changed.add(record.uuid());
+            }
+        }
+        for (NicknameRecord record : before.records()) {
+            if (!after.contains(record.uuid())) {
+                changed.add(record.uuid());
+            }
+        }
+        return changed;
+    }
+}
@@ -0,0 +1,132 @@
+package net.minichip.minecraftnickname;
+
+import org.bukkit.Bukkit;
+import org.bukkit.ChatColor;
+import org.bukkit.configuration.file.YamlConfiguration;
+import org.bukkit.plugin.Plugin;
+import org.bukkit.scheduler.BukkitRunnable;
+import org.bukkit.scoreboard.Scoreboard;
+import org.bukkit.scoreboard.Team;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.regex.Pattern;
+
+// 이전 버전이 머리 위 닉네임용으로 만든 스코어보드 팀(팀 이름 = 플레이어 이름)을 한 번만 정리합니다.
+// - 메인 스코어보드에 실제로 있는 팀 중 이전 버전이 만든 모양인 팀만 제거합니다.
+//   팀 이름이 저장된 플레이어 이름이고, 그 플레이어 한 명만 들어 있으며, 접두어가 닉네임 표시("&b[닉네임] ")이고 접미어가 없는 팀입니다.
+//   다른 플러그인이 플레이어 이름으로 만든 팀은 건드리지 않습니다.
+// - 한 틱에 batchSize 개씩 나눠 처리하고, 끝나면 상태 파일에 기록해 다시 실행하지 않습니다.
+//   닉네임 기록을 불러오지 못해(complete 가 false) 주인을 확인할 수 없었던 팀이 남아 있을 때만 다음 시작 때 다시 확인합니다.
+public final class OverheadTeamCleanup extends BukkitRunnable {
+
+    private static final String DONE_KEY = "overhead-team-cleanup-done";
+    // 이전 버전의 닉네임 접두어 ("&b[" 닉네임 "] ", 뒤에 색 코드가 붙을 수 있음)
+    private static final String LEGACY_PREFIX_START = ChatColor.AQUA + "[";
+    private static final Pattern LEGACY_PREFIX_END = Pattern.compile("] (" + ChatColor.COLOR_CHAR + "[0-9a-fk-or])?$");
+
+    private final Plugin plugin;
+    private final NicknameStore store;
+    private final File stateFile;
+    private final int batchSize;
+    private final boolean complete;
+    private List<String> teamNames;
+    private int position;
+    private int removed;
+    // 이전 버전 모양이지만 기록을 불러오지 못해 주인을 확인하지 못한 팀 수
+    private int unchecked;
+
+    // complete: 저장된 기록을 빠짐없이 불러왔는지 (불러오기에 실패했으면 false)
+    // 지연 로딩이어도 이름 색인은 전체를 담고 있으므로 complete 일 수 있습니다.
+    public OverheadTeamCleanup(Plugin plugin, NicknameStore store, File stateFile, int batchSize, boolean complete) {
+        this.plugin = plugin;
+        this.store = store;
+        this.stateFile = stateFile;
+        this.batchSize = Math.max(1, batchSize);
+        this.complete = complete;
+    }
+
+    public boolean isDone() {
+        return stateFile.exists() && YamlConfiguration.loadConfiguration(stateFile).getBoolean(DONE_KEY, false);
+    }
+
+    // 아직 정리하지 않았으면 다음 틱부터 시작합니다. 시작했으면 true.
+    public boolean startIfNeeded() {
+        if (isDone()) {
+            return false;
+        }
+        runTaskTimer(plugin, 1L, 1L);
+        return true;
+    }
+
+    @Override
+    public void run() {
+        Scoreboard scoreboard = Bukkit.getScoreboardManager().getMainScoreboard();
+        if (teamNames == null) {
+            // 팀 이름만 먼저 모아 둡니다. (처리하는 동안 팀이 바뀌어도 안전하도록)
+            teamNames = new ArrayList<>();
+            for (Team team : scoreboard.getTeams()) {
+                teamNames.add(team.getName());
+            }
+        }
+        NicknameSnapshot snapshot = store.snapshot();
+        int end = Math.min(position + batchSize, teamNames.size());
+        for (; position < end; position++) {
+            String teamName = teamNames.get(position);
+            Team team = scoreboard.getTeam(teamName);
+            if (team == null || !isLegacyTeam(team)) {
+                continue;
+            }
+            UUID owner = snapshot.ownerOfName(teamName);
+            if (owner == null) {
+                if (!complete) {
+                    unchecked++;
+                }
+                continue;
+            }
+            // 이름 색인은 대소문자를 무시하므로, 메모리에 있는 기록이면 이름이 정확히 같은지 다시 확인합니다.
+            // (메모리에 없는 기록은 팀에 들어 있는 플레이어 이름이 팀 이름과 같은 것으로 확인합니다)
+            NicknameRecord record = snapshot.get(owner);
+            if (record != null && !teamName.equals(record.name())) {
+                continue;
+            }
+            team.unregister();
+            removed++;
+        }
+        if (position >= teamNames.size()) {
+            cancel();
+            plugin.getLogger().info("머리 위 닉네임 팀 정리 완료: " + removed + "개 제거 (전체 팀 " + teamNames.size() + "개 확인)");
+            if (unchecked == 0) {
+                markDone();
+            } else {
+                plugin.getLogger().info("닉네임 기록을 불러오지 못해 확인하지 못한 팀 " + unchecked + "개는 다음 시작 시 다시 정리합니다.");
+            }
+        }
+    }
+
+    // 이전 버전이 만든 모양의 팀인지: 팀 이름인 플레이어 한 명만(또는 아무도) 들어 있고, 접두어가 닉네임 표시이며 접미어가 없는 팀
+    private static boolean isLegacyTeam(Team team) {
+        Set<String> entries = team.getEntries();
+        if (entries.size() > 1 || (entries.size() == 1 && !entries.contains(team.getName()))) {
+            return false;
+        }
+        String prefix = team.getPrefix();
+        String suffix = team.getSuffix();
+        return prefix != null && prefix.startsWith(LEGACY_PREFIX_START) && LEGACY_PREFIX_END.matcher(prefix).find()
+                && (suffix == null || suffix.isEmpty());
+    }
+
+    private void markDone() {
+        YamlConfiguration state = stateFile.exists() ? YamlConfiguration.loadConfiguration(stateFile) : new YamlConfiguration();
+        state.set(DONE_KEY, true);
+        try {
+            state.save(stateFile);
+        } catch (IOException e) {
+            plugin.getLogger().warning(stateFile.getName() + " 파일 저장 중 오류 발생: " + e.getMessage() + " (다음 시작 시 다시 정리합니다)");
+        }
+    }
+}
@@ -0,0 +1,428 @@
+package net.minichip.minecraftnickname;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Set;
+
+// 구조를 공유하는 불변 해시 맵 (HAMT, 32갈래 해시 트리)
+// - plus/minus 는 원래 맵을 건드리지 않고, 바뀐 경로의 노드(최대 7단계)만 새로 만들어 나머지를 공유합니다.
+//   따라서 기록 하나를 바꿀 때 전체를 복사하지 않고도 이전 스냅샷을 그대로 유지할 수 있습니다. (O(log N))
+// - Map 의 읽기 메서드만 지원하며 put/remove 등 변경 메서드는 UnsupportedOperationException 을 던집니다.
+final class PersistentHashMap<K, V> extends AbstractMap<K, V> {
+
+    private static final int BITS = 5;
+    private static final int MASK = (1 << BITS) - 1;
+    private static final PersistentHashMap<?, ?> EMPTY = new PersistentHashMap<>(null, 0);
+
+    private final Node root;
+    private final int size;
+    private Set<Map.Entry<K, V>> entrySet;
+
+    private PersistentHashMap(Node root, int size) {
+        this.root = root;
+        this.size = size;
+    }
+
+    @SuppressWarnings("unchecked")
+    static <K, V> PersistentHashMap<K, V> empty() {
+        return (PersistentHashMap<K, V>) EMPTY;
+    }
+
+    static <K, V> PersistentHashMap<K, V> copyOf(Map<K, V> map) {
+        PersistentHashMap<K, V> result = empty();
+        for (Map.Entry<K, V> entry : map.entrySet()) {
+            result = result.plus(entry.getKey(), entry.getValue());
+        }
+        return result;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return find(key) != null;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public V get(Object key) {
+        Leaf leaf = find(key);
+        return (leaf != null) ? (V) leaf.value : null;
+    }
+
+    // key 를 value 로 설정한 새 맵. 값이 이미 같은(==) 객체면 자기 자신을 반환합니다.
+    PersistentHashMap<K, V> plus(K key, V value) {
+        Leaf leaf = new Leaf(hash(key), key, value);
+        if (root == null) {
+            return new PersistentHashMap<>(Node.single(leaf, 0), 1);
+        }
+        boolean[] added = new boolean[1];
+        Node newRoot = root.plus(leaf, 0, added);
+        if (newRoot == root) {
+            return this;
+        }
+        return new PersistentHashMap<>(newRoot, added[0] ? size + 1 : size);
+    }
+
+    // key 를 뺀 새 맵. 없으면 자기 자신을 반환합니다.
+    PersistentHashMap<K, V> minus(Object key) {
+        if (root == null) {
+            return this;
+        }
+        Object newRoot = root.minus(hash(key), key, 0);
+        if (newRoot == root) {
+            return this;
+        }
+        if (newRoot == null) {
+            return empty();
+        }
+        // 맨 위는 항상 노드로 둡니다.
+        Node node = (newRoot instanceof Node) ? (Node) newRoot : Node.single(newRoot, 0);
+        return new PersistentHashMap<>(node, size - 1);
+    }
+
+    @Override
+    public Set<Map.Entry<K, V>> entrySet() {
+        if (entrySet == null) {
+            entrySet = new AbstractSet<>() {
+                @Override
+                public Iterator<Map.Entry<K, V>> iterator() {
+                    return new EntryIterator<>(root);
+                }
+
+                @Override
+                public int size() {
+                    return size;
+                }
+            };
+        }
+        return entrySet;
+    }
+
+    private Leaf find(Object key) {
+        if (root == null) {
+            return null;
+        }
+        int hash = hash(key);
+        Object current = root;
+        int shift = 0;
+        while (true) {
+            if (current instanceof Node) {
+                Node node = (Node) current;
+                int bit = 1 << ((hash >>> shift) & MASK);
+                if ((node.bitmap & bit) == 0) {
+                    return null;
+                }
+                current = node.slots[node.index(bit)];
+                shift += BITS;
+            } else if (current instanceof Leaf) {
+                Leaf leaf = (Leaf) current;
+                return (leaf.hash == hash && Objects.equals(leaf.key, key)) ? leaf : null;
+            } else {
+                return ((Collision) current).find(hash, key);
+            }
+        }
+    }
+
+    private static int hash(Object key) {
+        int h = Objects.hashCode(key);
+        return h ^ (h >>> 16);
+    }
+
+    private static int hashOf(Object item) {
+        return (item instanceof Leaf) ? ((Leaf) item).hash : ((Collision) item).hash;
+    }
+
+    // 키-값 한 쌍
+    private static final class Leaf implements Map.Entry<Object, Object> {
+        final int hash;
+        final Object key;
+        final Object value;
+
+        Leaf(int hash, Object key, Object value) {
+            this.hash = hash;
+            this.key = key;
+            this.value = value;
+        }
+
+        @Override
+        public Object getKey() {
+            return key;
+        }
+
+        @Override
+        public Object getValue() {
+            return value;
+        }
+
+        @Override
+        public Object setValue(Object value) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Map.Entry)) {
+                return false;
+            }
+            Map.Entry<?, ?> other = (Map.Entry<?, ?>) o;
+            return Objects.equals(key, other.getKey()) && Objects.equals(value, other.getValue());
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hashCode(key) ^ Objects.hashCode(value);
+        }
+
+        @Override
+        public String toString() {
+            return key + "=" + value;
+        }
+    }
+
+    // 해시 값 전체가 같은 키들
+    private static final class Collision {
+        final int hash;
+        final Leaf[] leaves;
+
+        Collision(int hash, Leaf[] leaves) {
+            this.hash = hash;
+            this.leaves = leaves;
+        }
+
+        Leaf find(int hash, Object key) {
+            if (hash != this.hash) {
+                return null;
+            }
+            for (Leaf leaf : leaves) {
+                if (Objects.equals(leaf.key, key)) {
+                    return leaf;
+                }
+            }
+            return null;
+        }
+
+        Collision plus(Leaf leaf, boolean[] added) {
+            for (int i = 0; i < leaves.length; i++) {
+                if (Objects.equals(leaves[i].key, leaf.key)) {
+                    if (leaves[i].value == leaf.value) {
+                        return this;
+                    }
+                    Leaf[] copy = leaves.clone();
+                    copy[i] = leaf;
+                    return new Collision(hash, copy);
+                }
+            }
+            Leaf[] copy = new Leaf[leaves.length + 1];
+            System.arraycopy(leaves, 0, copy, 0, leaves.length);
+            copy[leaves.length] = leaf;
+            added[0] = true;
+            return new Collision(hash, copy);
+        }
+
+        // 남은 것이 하나면 Leaf 를 반환합니다.
+        Object minus(Object key) {
+            for (int i = 0; i < leaves.length; i++) {
+                if (Objects.equals(leaves[i].key, key)) {
+                    if (leaves.length == 2) {
+                        return leaves[1 - i];
+                    }
+                    Leaf[] copy = new Leaf[leaves.length - 1];
+                    System.arraycopy(leaves, 0, copy, 0, i);
+                    System.arraycopy(leaves, i + 1, copy, i, leaves.length - i - 1);
+                    return new Collision(hash, copy);
+                }
+            }
+            return this;
+        }
+    }
+
+    // 해시의 5비트씩을 보고 최대 32갈래로 나뉘는 노드. slots 에는 있는 갈래만 순서대로 들어 있습니다. (Leaf, Collision, Node)
+    private static final class Node {
+        final int bitmap;
+        final Object[] slots;
+
+        Node(int bitmap, Object[] slots) {
+            this.bitmap = bitmap;
+            this.slots = slots;
+        }
+
+        static Node single(Object item, int shift) {
+            return new Node(1 << ((hashOf(item) >>> shift) & MASK), new Object[]{item});
+        }
+
+        int index(int bit) {
+            return Integer.bitCount(bitmap & (bit - 1));
+        }
+
+        Node plus(Leaf leaf, int shift, boolean[] added) {
+            int bit = 1 << ((leaf.hash >>> shift) & MASK);
+            int index = index(bit);
+            if ((bitmap & bit) == 0) {
+                Object[] copy = new Object[slots.length + 1];
+                System.arraycopy(slots, 0, copy, 0, index);
+                copy[index] = leaf;
+                System.arraycopy(slots, index, copy, index + 1, slots.length - index);
+                added[0] = true;
+                return new Node(bitmap | bit, copy);
+            }
+            Object current = slots[index];
+            Object replacement;
+            if (current instanceof Node) {
+                replacement = ((Node) current).plus(leaf, shift + BITS, added);
+            } else if (current instanceof Leaf) {
+                Leaf existing = (Leaf) current;
+                if (existing.hash == leaf.hash && Objects.equals(existing.key, leaf.key)) {
+                    replacement = (existing.value == leaf.value) ? existing : leaf;
+                } else if (existing.hash == leaf.hash) {
+                    replacement = new Collision(leaf.hash, new Leaf[]{existing, leaf});
+                    added[0] = true;
+                } else {
+                    replacement = merge(existing, leaf, shift + BITS);
+                    added[0] = true;
+                }
+            } else {
+                Collision collision = (Collision) current;
+                if (collision.hash == leaf.hash) {
+                    replacement = collision.plus(leaf, added);
+                } else {
+                    replacement = merge(collision, leaf, shift + BITS);
+                    added[0] = true;
+                }
+            }
+            if (replacement == current) {
+                return this;
+            }
+            Object[] copy = slots.clone();
+            copy[index] = replacement;
+            return new Node(bitmap, copy);
+        }
+
+        // 해시가 다른 두 항목을 갈라지는 단계까지 내려가며 묶습니다.
+        static Node merge(Object a, Object b, int shift) {
+            int indexA = (hashOf(a) >>> shift) & MASK;
+            int indexB = (hashOf(b) >>> shift) & MASK;
+            if (indexA == indexB) {
+                return new Node(1 << indexA, new Object[]{merge(a, b, shift + BITS)});
+            }
+            Object[] slots = (indexA < indexB) ? new Object[]{a, b} : new Object[]{b, a};
+            return new Node((1 << indexA) | (1 << indexB), slots);
+        }
+
+        // 바뀌지 않았으면 this, 비었으면 null, 항목 하나만 남았으면 그 항목(부모가 바로 담습니다)을 반환합니다.
+        Object minus(int hash, Object key, int shift) {
+            int bit = 1 << ((hash >>> shift) & MASK);
+            if ((bitmap & bit) == 0) {
+                return this;
+            }
+            int index = index(bit);
+            Object current = slots[index];
+            Object replacement;
+            if (current instanceof Node) {
+                replacement = ((Node) current).minus(hash, key, shift + BITS);
+            } else if (current instanceof Leaf) {
+                Leaf leaf = (Leaf) current;
+                replacement = (leaf.hash == hash && Objects.equals(leaf.key, key)) ? null : leaf;
+            } else {
+                Collision collision = (Collision) current;
+                replacement = (collision.hash == hash) ? collision.minus(key) : collision;
+            }
+            if (replacement == current) {
+                return this;
+            }
+            if (replacement == null) {
+                if (slots.length == 1) {
+                    return null;
+                }
+                if (slots.length == 2 && !(slots[1 - index] instanceof Node)) {
+                    return slots[1 - index];
+                }
+                Object[] copy = new Object[slots.length - 1];
+                System.arraycopy(slots, 0, copy, 0, index);
+                System.arraycopy(slots, index + 1, copy, index, slots.length - index - 1);
+                return new Node(bitmap & ~bit, copy);
+            }
+            if (slots.length == 1 && !(replacement instanceof Node)) {
+                return replacement;
+            }
+            Object[] copy = slots.clone();
+            copy[index] = replacement;
+            return new Node(bitmap, copy);
+        }
+    }
+
+    // 트리를 깊이 우선으로 따라가며 항목을 돌려줍니다.
+    private static final class EntryIterator<K, V> implements Iterator<Map.Entry<K, V>> {
+        private final Deque<Object[]> stack = new ArrayDeque<>();
+        private final Deque<Integer> positions = new ArrayDeque<>();
+        private Leaf[] collision;
+        private int collisionPosition;
+        private Leaf next;
+
+        EntryIterator(Node root) {
+            if (root != null) {
+                stack.push(root.slots);
+                positions.push(0);
+            }
+            advance();
+        }
+
+        private void advance() {
+            next = null;
+            if (collision != null) {
+                if (collisionPosition < collision.length) {
+                    next = collision[collisionPosition++];
+                    return;
+                }
+                collision = null;
+            }
+            while (!stack.isEmpty()) {
+                Object[] slots = stack.peek();
+                int position = positions.pop();
+                if (position >= slots.length) {
+                    stack.pop();
+                    continue;
+                }
+                positions.push(position + 1);
+                Object item = slots[position];
+                if (item instanceof Leaf) {
+                    next = (Leaf) item;
+                    return;
+                }
+                if (item instanceof Collision) {
+                    collision = ((Collision) item).leaves;
+                    collisionPosition = 1;
+                    next = collision[0];
+                    return;
+                }
+                stack.push(((Node) item).slots);
+                positions.push(0);
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            return next != null;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public Map.Entry<K, V> next() {
+            if (next == null) {
+                throw new NoSuchElementException();
+            }
+            Leaf result = next;
+            advance();
+            return (Map.Entry<K, V>) (Map.Entry<?, ?>) result;
+        }
+    }
+}
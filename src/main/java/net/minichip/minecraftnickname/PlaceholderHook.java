@@ -0,0 +1,13 @@
+package net.minichip.minecraftnickname;
+
+import java.util.UUID;
+
+// 다른 플러그인이 표시 형식({키})에 넣을 값을 만드는 함수
+// 비동기 채팅 스레드에서 호출될 수 있으므로 스레드 안전한 값만 읽어야 합니다.
+// 결과는 플레이어별로 캐시되며, 닉네임이 바뀌거나 MinecraftNickname#invalidatePlaceholders 를 호출하면 다시 만듭니다.
+@FunctionalInterface
+public interface PlaceholderHook {
+
+    // nick 은 닉네임이 없으면 null 입니다. null 을 반환하면 빈 문자열로 표시합니다.
+    String resolve(UUID uuid, String playerName, String nick);
+}
@@ -0,0 +1,76 @@
+package net.minichip.minecraftnickname;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Logger;
+
+// 다른 플러그인이 등록한 치환자 목록
+// 등록/해제할 때 불변 맵을 통째로 바꾸므로 비동기 채팅 스레드에서도 잠금 없이 읽을 수 있습니다.
+// generation 은 목록이 바뀌거나 전체 무효화를 요청할 때마다 올라가며, DisplayCache 는 이 값이 다르면 다시 렌더링합니다.
+public final class PlaceholderHooks {
+
+    private final Logger logger;
+    private final AtomicLong generation = new AtomicLong();
+    private volatile Map<String, PlaceholderHook> hooks = Map.of();
+
+    public PlaceholderHooks(Logger logger) {
+        this.logger = logger;
+    }
+
+    public synchronized void register(String key, PlaceholderHook hook) {
+        if (!NameTemplate.isPlaceholderKey(key)) {
+            throw new IllegalArgumentException("사용할 수 없는 치환자 이름입니다: " + key);
+        }
+        Map<String, PlaceholderHook> copy = new HashMap<>(hooks);
+        copy.put(key, hook);
+        hooks = Map.copyOf(copy);
+        generation.incrementAndGet();
+    }
+
+    public synchronized void unregister(String key) {
+        if (!hooks.containsKey(key)) {
+            return;
+        }
+        Map<String, PlaceholderHook> copy = new HashMap<>(hooks);
+        copy.remove(key);
+        hooks = Map.copyOf(copy);
+        generation.incrementAndGet();
+    }
+
+    // 모든 플레이어의 캐시된 값을 버립니다. (다음에 표시할 때 다시 만듭니다)
+    public void invalidateAll() {
+        generation.incrementAndGet();
+    }
+
+    long generation() {
+        return generation.get();
+    }
+
+    boolean isEmpty() {
+        return hooks.isEmpty();
+    }
+
+    // 형식에 쓰인 키 중 등록된 것만 값을 만듭니다. 등록되지 않은 키는 결과에 넣지 않습니다. (형식에 글자 그대로 남음)
+    Map<String, String> resolve(Collection<String> keys, UUID uuid, String playerName, String nick) {
+        Map<String, PlaceholderHook> current = hooks;
+        Map<String, String> values = new HashMap<>();
+        for (String key : keys) {
+            PlaceholderHook hook = current.get(key);
+            if (hook == null) {
+                continue;
+            }
+            String value;
+            try {
+                value = hook.resolve(uuid, playerName, nick);
+            } catch (RuntimeException e) {
+                logger.warning("치환자 {" + key + "} 값을 만드는 중 오류 발생: " + e);
+                value = null;
+            }
+            values.put(key, (value != null) ? value : "");
+        }
+        return values;
+    }
+}
@@ -0,0 +1,131 @@
+package net.minichip.minecraftnickname;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+// 플러그인 내부 계측 값 모음 (/nickstats, Prometheus 엔드포인트에서 사용)
+// 모든 값은 잠금 없이 기록되므로 채팅/접속 같은 자주 호출되는 경로에 그대로 두어도 됩니다.
+public final class PluginMetrics {
+
+    private static final String PREFIX = "minecraftnickname_";
+    private static final Map<String, LatencyHistogram> HISTOGRAMS = new LinkedHashMap<>();
+    private static final Map<String, LongAdder> COUNTERS = new LinkedHashMap<>();
+    private static final Map<String, String> HELP = new HashMap<>();
+
+    // 지연 시간
+    public static final LatencyHistogram CHAT_FORMAT = histogram("chat_format", "채팅 형식 적용 시간");
+    public static final LatencyHistogram JOIN = histogram("join", "접속 처리 시간");
+    public static final LatencyHistogram TAB_FLUSH = histogram("tab_flush", "탭 리스트 갱신 한 번에 걸린 시간");
+    public static final LatencyHistogram STORE_LOOKUP = histogram("store_lookup", "닉네임 저장소 조회 시간");
+    public static final LatencyHistogram SAVE = histogram("save", "저장 한 번에 걸린 시간");
+    public static final LatencyHistogram MOJANG_REQUEST = histogram("mojang_request", "Mojang API 요청 시간");
+    public static final LatencyHistogram RELOAD = histogram("reload", "닉네임 데이터 전체 로드 시간");
+    public static final LatencyHistogram SEARCH = histogram("search", "닉네임 접두어 검색 시간");
+
+    // 횟수
+    public static final LongAdder TAB_PACKETS = counter("tab_packets_total", "보낸 탭 리스트 이름 변경 수");
+    public static final LongAdder TAB_UNCHANGED = counter("tab_unchanged_total", "내용이 같아 보내지 않은 탭 리스트 갱신 수");
+    public static final LongAdder DISPLAY_CACHE_HITS = counter("display_cache_hits_total", "표시 문자열 캐시 적중 수");
+    public static final LongAdder DISPLAY_CACHE_MISSES = counter("display_cache_misses_total", "표시 문자열을 새로 만든 수");
+    public static final LongAdder SAVE_BYTES = counter("save_bytes_total", "파일에 기록한 바이트 수");
+    public static final LongAdder SAVE_ROWS = counter("save_rows_total", "데이터베이스에 기록한 행 수");
+    public static final LongAdder SAVE_ERRORS = counter("save_errors_total", "저장 실패 수");
+    public static final LongAdder MOJANG_ERRORS = counter("mojang_errors_total", "Mojang API 오류 수");
+    public static final LongAdder MOJANG_RATE_LIMITED = counter("mojang_rate_limited_total", "Mojang API 요청 제한(429) 응답 수");
+    public static final LongAdder UUID_CACHE_HITS = counter("uuid_cache_hits_total", "UUID 캐시 적중 수");
+    public static final LongAdder UUID_CACHE_MISSES = counter("uuid_cache_misses_total", "UUID 캐시 미스 수");
+    public static final LongAdder SELF_CHANGES = counter("self_changes_total", "플레이어가 직접 바꾼 닉네임 수");
+    public static final LongAdder SELF_CHANGES_LIMITED = counter("self_changes_limited_total", "변경 속도 제한으로 거절한 요청 수");
+
+    private PluginMetrics() {
+    }
+
+    private static LatencyHistogram histogram(String name, String help) {
+        LatencyHistogram histogram = new LatencyHistogram();
+        HISTOGRAMS.put(name, histogram);
+        HELP.put(name, help);
+        return histogram;
+    }
+
+    private static LongAdder counter(String name, String help) {
+        LongAdder counter = new LongAdder();
+        COUNTERS.put(name, counter);
+        HELP.put(name, help);
+        return counter;
+    }
+
+    // 사람이 읽는 요약 (/nickstats)
+    public static List<String> describe() {
+        List<String> lines = new ArrayList<>();
+        for (Map.Entry<String, LatencyHistogram> entry : HISTOGRAMS.entrySet()) {
+            LatencyHistogram h = entry.getValue();
+            if (h.count() == 0) {
+                lines.add(entry.getKey() + ": 기록 없음");
+                continue;
+            }
+            lines.add(entry.getKey() + ": " + h.count() + "회, 평균 " + formatNanos(h.sumNanos() / h.count())
+                    + ", p50 " + formatNanos(h.percentileNanos(0.5))
+                    + ", p99 " + formatNanos(h.percentileNanos(0.99))
+                    + ", 최대 " + formatNanos(h.maxNanos()));
+        }
+        for (Map.Entry<String, LongAdder> entry : COUNTERS.entrySet()) {
+            lines.add(entry.getKey() + ": " + entry.getValue().sum());
+        }
+        long hits = UUID_CACHE_HITS.sum();
+        long lookups = hits + UUID_CACHE_MISSES.sum();
+        if (lookups > 0) {
+            lines.add("uuid_cache_hit_ratio: " + String.format(Locale.ROOT, "%.1f%%", hits * 100.0 / lookups));
+        }
+        return lines;
+    }
+
+    // Prometheus 텍스트 형식 (버전 0.0.4)
+    public static String toPrometheus() {
+        StringBuilder out = new StringBuilder(4096);
+        for (Map.Entry<String, LatencyHistogram> entry : HISTOGRAMS.entrySet()) {
+            String name = PREFIX + entry.getKey() + "_seconds";
+            LatencyHistogram h = entry.getValue();
+            out.append("# HELP ").append(name).append(' ').append(HELP.get(entry.getKey())).append('\n');
+            out.append("# TYPE ").append(name).append(" histogram\n");
+            long[] counts = h.bucketCounts();
+            long cumulative = 0;
+            for (int i = 0; i < LatencyHistogram.BUCKETS - 1; i++) {
+                cumulative += counts[i];
+                // 비어 있는 앞쪽 구간은 생략해도 누적값이 같으므로 개수가 생긴 구간부터 씁니다.
+                if (cumulative == 0) {
+                    continue;
+                }
+                out.append(name).append("_bucket{le=\"")
+                        .append(LatencyHistogram.upperBoundNanos(i) / 1e9).append("\"} ").append(cumulative).append('\n');
+            }
+            out.append(name).append("_bucket{le=\"+Inf\"} ").append(h.count()).append('\n');
+            out.append(name).append("_sum ").append(h.sumNanos() / 1e9).append('\n');
+            out.append(name).append("_count ").append(h.count()).append('\n');
+        }
+        for (Map.Entry<String, LongAdder> entry : COUNTERS.entrySet()) {
+            String name = PREFIX + entry.getKey();
+            out.append("# HELP ").append(name).append(' ').append(HELP.get(entry.getKey())).append('\n');
+            out.append("# TYPE ").append(name).append(" counter\n");
+            out.append(name).append(' ').append(entry.getValue().sum()).append('\n');
+        }
+        return out.toString();
+    }
+
+    private static String formatNanos(long nanos) {
+        if (nanos < 1_000L) {
+            return nanos + "ns";
+        }
+        if (nanos < 1_000_000L) {
+            return String.format(Locale.ROOT, "%.1fµs", nanos / 1e3);
+        }
+        if (nanos < 1_000_000_000L) {
+            return String.format(Locale.ROOT, "%.1fms", nanos / 1e6);
+        }
+        return String.format(Locale.ROOT, "%.2fs", nanos / 1e9);
+    }
+}
@@ -0,0 +1,96 @@
+package net.minichip.minecraftnickname;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+// 닉네임/이름 접두어 색인 (불변, 정렬된 배열)
+// 키로 정렬해 두고 이분 탐색으로 접두어의 시작 위치를 찾은 뒤 앞으로 limit 개만 읽으므로
+// 등록된 수와 관계없이 O(log n + limit) 입니다.
+// - keys: 대소문자 무시 키(닉네임, 이름)
+// - choseong: 한글 닉네임의 초성 키 (예: "ㅎㄱㄷ")
+public final class PrefixIndex {
+
+    // value: 자동 완성에 보여 줄 문자열 (메모리에 기록이 있으면 원래 표기, 없으면 키)
+    public record Entry(String key, String value, UUID owner, boolean nick) {
+    }
+
+    public static final PrefixIndex EMPTY = new PrefixIndex(new Entry[0], new Entry[0]);
+
+    private static final Comparator<Entry> BY_KEY = Comparator.comparing(Entry::key);
+
+    private final Entry[] keys;
+    private final Entry[] choseong;
+
+    private PrefixIndex(Entry[] keys, Entry[] choseong) {
+        this.keys = keys;
+        this.choseong = choseong;
+    }
+
+    // 스냅샷의 색인으로 만듭니다. (지연 로딩으로 메모리에 없는 기록도 포함)
+    public static PrefixIndex build(NicknameSnapshot snapshot) {
+        List<Entry> keys = new ArrayList<>(snapshot.nickIndex().size() + snapshot.nameIndex().size());
+        List<Entry> choseong = new ArrayList<>();
+        for (Map.Entry<String, UUID> indexed : snapshot.nickIndex().entrySet()) {
+            NicknameRecord record = snapshot.get(indexed.getValue());
+            String value = (record != null && record.nick() != null) ? record.nick() : indexed.getKey();
+            keys.add(new Entry(indexed.getKey(), value, indexed.getValue(), true));
+            String initials = NicknameKeys.choseong(indexed.getKey());
+            if (initials != null) {
+                choseong.add(new Entry(initials, value, indexed.getValue(), true));
+            }
+        }
+        for (Map.Entry<String, UUID> indexed : snapshot.nameIndex().entrySet()) {
+            NicknameRecord record = snapshot.get(indexed.getValue());
+            String value = (record != null && record.name() != null) ? record.name() : indexed.getKey();
+            keys.add(new Entry(indexed.getKey(), value, indexed.getValue(), false));
+        }
+        Entry[] keyArray = keys.toArray(new Entry[0]);
+        Entry[] choseongArray = choseong.toArray(new Entry[0]);
+        Arrays.sort(keyArray, BY_KEY);
+        Arrays.sort(choseongArray, BY_KEY);
+        return new PrefixIndex(keyArray, choseongArray);
+    }
+
+    public int size() {
+        return keys.length;
+    }
+
+    // prefix 로 시작하는 항목을 키 순서대로 최대 limit 개 반환합니다.
+    // 검색어에 초성(ㄱ~ㅎ)이 있으면 초성 키에서 찾습니다. (음절은 초성으로 바꿔 "홍ㄱ" 처럼 섞어 써도 됩니다)
+    public List<Entry> search(String prefix, int limit) {
+        String folded = NicknameKeys.fold(prefix);
+        Entry[] entries = keys;
+        if (NicknameKeys.hasChoseong(folded)) {
+            String initials = NicknameKeys.choseong(folded);
+            folded = (initials != null) ? initials : folded;
+            entries = choseong;
+        }
+        List<Entry> result = new ArrayList<>(Math.min(limit, 16));
+        for (int i = lowerBound(entries, folded); i < entries.length && result.size() < limit; i++) {
+            if (!entries[i].key().startsWith(folded)) {
+                break;
+            }
+            result.add(entries[i]);
+        }
+        return result;
+    }
+
+    // key 이상인 첫 위치
+    private static int lowerBound(Entry[] entries, String key) {
+        int low = 0;
+        int high = entries.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (entries[mid].key().compareTo(key) < 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+}
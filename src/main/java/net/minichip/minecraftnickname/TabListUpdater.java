@@ -0,0 +1,95 @@
+package net.minichip.minecraftnickname;
+
+import org.bukkit.Bukkit;
+import org.bukkit.entity.Player;
+import org.bukkit.plugin.Plugin;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+// 탭 리스트 이름을 바뀐 플레이어에게만 보내는 갱신기
+// - 플레이어별로 마지막으로 보낸 이름을 기억해 두고, 렌더링 결과가 같으면 패킷을 보내지 않습니다.
+// - 같은 틱 안에서 여러 번 변경되어도 다음 틱에 한 번만 갱신합니다.
+public final class TabListUpdater implements NicknameStore.Listener {
+
+    private final Plugin plugin;
+    private final DisplayCache displayCache;
+
+    // 메인 스레드 전용
+    private final Map<UUID, String> lastSent = new HashMap<>();
+    // 어느 스레드에서든 표시할 수 있습니다.
+    private final Set<UUID> dirty = ConcurrentHashMap.newKeySet();
+    private final AtomicBoolean allDirty = new AtomicBoolean();
+    private final AtomicBoolean scheduled = new AtomicBoolean();
+
+    public TabListUpdater(Plugin plugin, DisplayCache displayCache) {
+        this.plugin = plugin;
+        this.displayCache = displayCache;
+    }
+
+    @Override
+    public void onRecordChanged(UUID uuid, NicknameRecord before, NicknameRecord after) {
+        markDirty(uuid);
+    }
+
+    public void markDirty(UUID uuid) {
+        dirty.add(uuid);
+        schedule();
+    }
+
+    // 접속 중인 모든 플레이어를 다시 확인합니다. (실제로 바뀐 플레이어에게만 전송됩니다)
+    public void markAllDirty() {
+        allDirty.set(true);
+        schedule();
+    }
+
+    // 퇴장한 플레이어의 기록을 지웁니다.
+    public void forget(UUID uuid) {
+        lastSent.remove(uuid);
+    }
+
+    private void schedule() {
+        if (!plugin.isEnabled()) {
+            return;
+        }
+        if (scheduled.compareAndSet(false, true)) {
+            Bukkit.getScheduler().runTask(plugin, this::flush);
+        }
+    }
+
+    private void flush() {
+        scheduled.set(false);
+        long startedAt = System.nanoTime();
+        if (allDirty.getAndSet(false)) {
+            dirty.clear();
+            for (Player player : Bukkit.getOnlinePlayers()) {
+                update(player);
+            }
+        } else {
+            for (UUID uuid : dirty) {
+                dirty.remove(uuid);
+                Player player = Bukkit.getPlayer(uuid);
+                if (player != null) {
+                    update(player);
+                }
+            }
+        }
+        PluginMetrics.TAB_FLUSH.recordSince(startedAt);
+    }
+
+    private void update(Player player) {
+        UUID uuid = player.getUniqueId();
+        String tabName = displayCache.get(uuid, player.getName()).tabName();
+        if (tabName.equals(lastSent.get(uuid))) {
+            PluginMetrics.TAB_UNCHANGED.increment();
+            return;
+        }
+        player.setPlayerListName(tabName);
+        PluginMetrics.TAB_PACKETS.increment();
+        lastSent.put(uuid, tabName);
+    }
+}
@@ -0,0 +1,31 @@
+package net.minichip.minecraftnickname;
+
+// 토큰 버킷 속도 제한
+// 토큰이 초당 ratePerSecond 개씩 최대 capacity 개까지 쌓이고, 요청 하나가 토큰 하나를 씁니다.
+// 따로 타이머를 돌리지 않고 tryAcquire 를 호출할 때 지난 시간만큼 채웁니다.
+public final class TokenBucket {
+
+    private final double capacity;
+    private final double tokensPerNano;
+    private double tokens;
+    private long refilledAt;
+
+    public TokenBucket(int capacity, double ratePerSecond) {
+        this.capacity = Math.max(1, capacity);
+        this.tokensPerNano = Math.max(0.0, ratePerSecond) / 1_000_000_000.0;
+        this.tokens = this.capacity;
+        this.refilledAt = System.nanoTime();
+    }
+
+    // 토큰이 있으면 하나를 쓰고 true, 없으면 false.
+    public synchronized boolean tryAcquire() {
+        long now = System.nanoTime();
+        tokens = Math.min(capacity, tokens + (now - refilledAt) * tokensPerNano);
+        refilledAt = now;
+        if (tokens < 1.0) {
+            return false;
+        }
+        tokens -= 1.0;
+        return true;
+    }
+}
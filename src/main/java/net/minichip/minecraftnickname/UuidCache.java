@@ -0,0 +1,118 @@
+package net.minichip.minecraftnickname;
+
+import org.json.JSONObject;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+
+// 플레이어 이름 -> UUID 조회 결과 캐시
+// - 찾은 결과(hit)와 찾지 못한 결과(miss)를 서로 다른 유효 시간으로 기억합니다.
+// - 최대 개수를 넘으면 가장 오래 사용하지 않은 항목부터 지웁니다. (LRU)
+// - 파일로 저장해 두었다가 서버를 다시 켤 때 불러옵니다.
+public final class UuidCache {
+
+    // uuid 가 null 이면 "존재하지 않는 이름" 으로 캐시된 항목입니다.
+    public record Entry(UUID uuid, long expiresAt) {
+        public boolean isMiss() {
+            return uuid == null;
+        }
+    }
+
+    private final int maxEntries;
+    private final long hitTtlMillis;
+    private final long missTtlMillis;
+    private final LinkedHashMap<String, Entry> entries;
+
+    public UuidCache(int maxEntries, long hitTtlMillis, long missTtlMillis) {
+        this.maxEntries = maxEntries;
+        this.hitTtlMillis = hitTtlMillis;
+        this.missTtlMillis = missTtlMillis;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                return size() > UuidCache.this.maxEntries;
+            }
+        };
+    }
+
+    // 유효한 항목을 반환합니다. 없거나 만료되었으면 null.
+    public synchronized Entry get(String name) {
+        String key = NicknameKeys.fold(name);
+        Entry entry = entries.get(key);
+        if (entry == null) {
+            return null;
+        }
+        if (entry.expiresAt() < System.currentTimeMillis()) {
+            entries.remove(key);
+            return null;
+        }
+        return entry;
+    }
+
+    // 확실한 조회 결과(접속한 플레이어, Mojang 응답)를 기록합니다.
+    public synchronized void put(String name, UUID uuid) {
+        entries.put(NicknameKeys.fold(name), new Entry(uuid, System.currentTimeMillis() + hitTtlMillis));
+    }
+
+    // 존재하지 않는 이름을 기록합니다.
+    public synchronized void putMiss(String name) {
+        entries.put(NicknameKeys.fold(name), new Entry(null, System.currentTimeMillis() + missTtlMillis));
+    }
+
+    // 저장된 닉네임 데이터의 이름처럼 오래되었을 수 있는 정보는 기존 항목이 없을 때만 채웁니다.
+    public synchronized void seed(String name, UUID uuid) {
+        String key = NicknameKeys.fold(name);
+        if (!entries.containsKey(key)) {
+            entries.put(key, new Entry(uuid, System.currentTimeMillis() + hitTtlMillis));
+        }
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    // 저장된 캐시 파일을 불러옵니다. 만료된 항목은 건너뜁니다.
+    public void load(File file) throws IOException {
+        if (!file.exists()) {
+            return;
+        }
+        JSONObject json = new JSONObject(new String(Files.readAllBytes(file.toPath()), StandardCharsets.UTF_8));
+        long now = System.currentTimeMillis();
+        synchronized (this) {
+            for (String key : json.keySet()) {
+                JSONObject data = json.getJSONObject(key);
+                long expiresAt = data.optLong("expires", 0L);
+                if (expiresAt < now) {
+                    continue;
+                }
+                String uuid = data.optString("uuid", null);
+                entries.put(key, new Entry(uuid != null ? UUID.fromString(uuid) : null, expiresAt));
+            }
+        }
+    }
+
+    public void save(File file) throws IOException {
+        JSONObject json = new JSONObject();
+        long now = System.currentTimeMillis();
+        synchronized (this) {
+            for (Map.Entry<String, Entry> e : entries.entrySet()) {
+                Entry entry = e.getValue();
+                if (entry.expiresAt() < now) {
+                    continue;
+                }
+                JSONObject data = new JSONObject();
+                if (entry.uuid() != null) {
+                    data.put("uuid", entry.uuid().toString());
+                }
+                data.put("expires", entry.expiresAt());
+                json.put(e.getKey(), data);
+            }
+        }
+        Files.write(file.toPath(), json.toString(4).getBytes(StandardCharsets.UTF_8));
+    }
+}
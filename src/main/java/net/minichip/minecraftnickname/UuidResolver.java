@@ -0,0 +1,57 @@
+package net.minichip.minecraftnickname;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+
+// 이름 -> UUID 조회 창구
+// 캐시에 있으면 네트워크 없이 바로 완료하고, 없을 때만 Mojang API 를 호출합니다.
+// 같은 이름에 대한 조회가 동시에 여러 번 들어오면 요청 하나를 함께 기다립니다.
+public final class UuidResolver {
+
+    private final UuidCache cache;
+    private final Map<String, CompletableFuture<UUID>> inFlight = new ConcurrentHashMap<>();
+
+    public UuidResolver(UuidCache cache) {
+        this.cache = cache;
+    }
+
+    public CompletableFuture<UUID> resolve(String name) {
+        if (!MojangAPI.isValidName(name)) {
+            // 계정 이름이 될 수 없는 값(닉네임 등)은 캐시에도 남기지 않습니다.
+            return CompletableFuture.completedFuture(null);
+        }
+        UuidCache.Entry cached = cache.get(name);
+        if (cached != null) {
+            PluginMetrics.UUID_CACHE_HITS.increment();
+            return CompletableFuture.completedFuture(cached.uuid());
+        }
+        PluginMetrics.UUID_CACHE_MISSES.increment();
+        String key = NicknameKeys.fold(name);
+        CompletableFuture<UUID> pending = inFlight.get(key);
+        if (pending != null) {
+            return pending;
+        }
+        CompletableFuture<UUID> future = new CompletableFuture<>();
+        CompletableFuture<UUID> existing = inFlight.putIfAbsent(key, future);
+        if (existing != null) {
+            return existing;
+        }
+        MojangAPI.getUUIDAsync(name).whenComplete((uuid, error) -> {
+            inFlight.remove(key);
+            if (error != null) {
+                // 오류는 캐시하지 않습니다. 다음 조회에서 다시 시도합니다.
+                future.completeExceptionally(error);
+                return;
+            }
+            if (uuid != null) {
+                cache.put(name, uuid);
+            } else {
+                cache.putMiss(name);
+            }
+            future.complete(uuid);
+        });
+        return future;
+    }
+}
@@ -0,0 +1,36 @@
+package net.minichip.minecraftnickname;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+// user-020: 일괄 가져오기 CSV 한 줄 나누기
+class BulkNicknameFileTest {
+
+    @Test
+    void splitsPlainFields() {
+        assertEquals(List.of("uuid", "name", "nick"), BulkNicknameFile.splitCsv("uuid,name,nick"));
+    }
+
+    @Test
+    void keepsEmptyFields() {
+        assertEquals(List.of("", "Alice", ""), BulkNicknameFile.splitCsv(",Alice,"));
+        assertEquals(List.of(""), BulkNicknameFile.splitCsv(""));
+    }
+
+    @Test
+    void handlesQuotedFields() {
+        // 따옴표 안의 쉼표는 구분자가 아니고, "" 는 따옴표 하나입니다.
+        assertEquals(List.of("Alice", "앨리스, 두번째", "말 \"따옴표\""),
+                BulkNicknameFile.splitCsv("Alice,\"앨리스, 두번째\",\"말 \"\"따옴표\"\"\""));
+        assertEquals(List.of("", "x"), BulkNicknameFile.splitCsv("\"\",x"));
+    }
+
+    @Test
+    void keepsSurroundingSpaces() {
+        // 공백 정리는 필드를 꺼낼 때 합니다.
+        assertEquals(List.of(" Alice ", " 앨리스"), BulkNicknameFile.splitCsv(" Alice , 앨리스"));
+    }
+}
@@ -0,0 +1,118 @@
+package net.minichip.minecraftnickname;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// user-020: commit 단계의 닉네임 충돌 확인 (맞바꾸기와 거절이 이어지는 경우)
+class BulkNicknameImportTest {
+
+    private final UUID a = UUID.randomUUID();
+    private final UUID b = UUID.randomUUID();
+    private final UUID c = UUID.randomUUID();
+    private final UUID d = UUID.randomUUID();
+
+    private NicknameStore store;
+    private final List<BulkNicknameFile.RowError> errors = new ArrayList<>();
+
+    @BeforeEach
+    void createStore() {
+        store = new NicknameStore();
+    }
+
+    private List<NicknameRecord> commit(NicknameRecord... rows) {
+        Map<UUID, Integer> lines = new HashMap<>();
+        for (int i = 0; i < rows.length; i++) {
+            lines.put(rows[i].uuid(), i + 2);
+        }
+        BulkNicknameImport.Plan plan = new BulkNicknameImport.Plan(List.of(rows), new ArrayList<>(), rows.length, lines);
+        return BulkNicknameImport.commit(store, plan, errors);
+    }
+
+    // 모든 닉네임이 한 명에게만 있고 색인이 기록과 일치하는지 확인합니다.
+    private void assertUniqueNicks() {
+        Map<String, UUID> owners = new HashMap<>();
+        for (NicknameRecord record : store.snapshot().records()) {
+            if (record.nick() == null) {
+                continue;
+            }
+            String key = NicknameKeys.fold(record.nick());
+            assertNull(owners.put(key, record.uuid()), "닉네임 중복: " + record.nick());
+            assertEquals(record.uuid(), store.snapshot().ownerOfNick(key));
+        }
+    }
+
+    @Test
+    void acceptsSwap() {
+        store.putAll(List.of(new NicknameRecord(a, "A", "x"), new NicknameRecord(b, "B", "y")));
+
+        List<NicknameRecord> accepted = commit(new NicknameRecord(a, "A", "y"), new NicknameRecord(b, "B", "x"));
+
+        assertEquals(2, accepted.size());
+        assertTrue(errors.isEmpty());
+        assertEquals("y", store.get(a).nick());
+        assertEquals("x", store.get(b).nick());
+        assertUniqueNicks();
+    }
+
+    @Test
+    void acceptsChainWhenEveryHolderMoves() {
+        store.putAll(List.of(new NicknameRecord(a, "A", "x"), new NicknameRecord(b, "B", "y")));
+
+        // D 는 A 의 x 를, A 는 B 의 y 를 가져가고 B 는 비어 있는 w 로 갑니다.
+        List<NicknameRecord> accepted = commit(new NicknameRecord(d, "D", "x"), new NicknameRecord(a, "A", "y"),
+                new NicknameRecord(b, "B", "w"));
+
+        assertEquals(3, accepted.size());
+        assertEquals("x", store.get(d).nick());
+        assertUniqueNicks();
+    }
+
+    @Test
+    void rejectsRowsThatDependOnRejectedRow() {
+        store.putAll(List.of(new NicknameRecord(a, "A", "x"), new NicknameRecord(c, "C", "y")));
+
+        // A->y 는 C 가 y 를 가지고 있어 거절되므로, A 가 x 를 비워 줄 것을 기대한 B->x 도 거절되어야 합니다.
+        List<NicknameRecord> accepted = commit(new NicknameRecord(b, "B", "x"), new NicknameRecord(a, "A", "y"));
+
+        assertTrue(accepted.isEmpty());
+        assertEquals(2, errors.size());
+        assertNull(store.get(b));
+        assertEquals("x", store.get(a).nick());
+        assertEquals(a, store.snapshot().ownerOfNick("x"));
+        assertUniqueNicks();
+    }
+
+    @Test
+    void rejectionPropagatesAlongLongerChain() {
+        store.putAll(List.of(new NicknameRecord(a, "A", "x"), new NicknameRecord(b, "B", "y"),
+                new NicknameRecord(c, "C", "z")));
+
+        // D->x 는 A 에, A->y 는 B 에, B->z 는 C 에 기대는데 C->z2 는 비어 있는 닉네임이므로 모두 받아들여집니다.
+        List<NicknameRecord> accepted = commit(new NicknameRecord(d, "D", "x"), new NicknameRecord(a, "A", "y"),
+                new NicknameRecord(b, "B", "z"), new NicknameRecord(c, "C", "z2"));
+        assertEquals(4, accepted.size());
+        assertUniqueNicks();
+
+        // 이번에는 사슬 끝의 C->x 가 D 의 x 와 부딪혀 거절되고, 그 거절이 B, A 순서로 거슬러 올라갑니다.
+        errors.clear();
+        accepted = commit(new NicknameRecord(a, "A", "z"), new NicknameRecord(b, "B", "z2"),
+                new NicknameRecord(c, "C", "x"));
+
+        assertTrue(accepted.isEmpty());
+        assertEquals(3, errors.size());
+        assertEquals("y", store.get(a).nick());
+        assertEquals("z", store.get(b).nick());
+        assertEquals("z2", store.get(c).nick());
+        assertUniqueNicks();
+    }
+}
@@ -0,0 +1,235 @@
+package net.minichip.minecraftnickname;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.BooleanSupplier;
+import java.util.logging.Logger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// user-014: 두 서버가 같은 SQLite 파일을 함께 쓰는 상황으로 JDBC 저장 방식을 확인합니다.
+class JdbcNicknameStorageTest {
+
+    private static final Logger LOGGER = Logger.getLogger("JdbcNicknameStorageTest");
+    // 테스트가 직접 flush 하도록 주기 기록은 사실상 끕니다.
+    private static final long NO_BATCH = 3_600_000L;
+    private static final long NO_POLL = 3_600_000L;
+    private static final long FAST_POLL = 500L;
+
+    @TempDir
+    Path dir;
+
+    private final List<JdbcNicknameStorage> opened = new ArrayList<>();
+
+    @AfterEach
+    void closeStorages() {
+        for (JdbcNicknameStorage storage : opened) {
+            storage.close();
+        }
+    }
+
+    private String url() {
+        return "jdbc:sqlite:" + dir.resolve("nicknames.db");
+    }
+
+    // 서버 하나: 저장소 변경을 저장 방식에 전달하는 리스너까지 연결합니다. (MinecraftNickname 과 같은 방식)
+    private record Server(NicknameStore store, JdbcNicknameStorage storage) {
+    }
+
+    private Server open(long pollIntervalMillis, File importFile) throws Exception {
+        NicknameStore store = new NicknameStore();
+        JdbcNicknameStorage storage = new JdbcNicknameStorage(store, url(), null, null, NO_BATCH, pollIntervalMillis,
+                importFile, LOGGER);
+        opened.add(storage);
+        store.replaceAll(storage.load());
+        store.addListener(new NicknameStore.Listener() {
+            @Override
+            public void onRecordChanged(UUID uuid, NicknameRecord before, NicknameRecord after) {
+                storage.recordChanged(uuid, before, after);
+            }
+
+            @Override
+            public void onSnapshotReplaced(NicknameSnapshot before, NicknameSnapshot after, Set<UUID> changed) {
+                // 데이터베이스에서 읽어 온 변경은 다시 기록하지 않습니다.
+            }
+        });
+        return new Server(store, storage);
+    }
+
+    private long queryLong(String sql) throws Exception {
+        try (Connection conn = DriverManager.getConnection(url());
+             Statement statement = conn.createStatement();
+             ResultSet rs = statement.executeQuery(sql)) {
+            return rs.next() ? rs.getLong(1) : -1L;
+        }
+    }
+
+    private static void await(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10_000L;
+        while (!condition.getAsBoolean()) {
+            if (System.currentTimeMillis() > deadline) {
+                throw new AssertionError("시간 안에 조건을 만족하지 못했습니다.");
+            }
+            Thread.sleep(50);
+        }
+    }
+
+    @Test
+    void importsJsonOnFirstConnectOnly() throws Exception {
+        UUID alice = UUID.randomUUID();
+        UUID bob = UUID.randomUUID();
+        File json = dir.resolve("nicknames.json").toFile();
+        Files.writeString(json.toPath(), "{\"" + alice + "\": {\"name\": \"Alice\", \"nick\": \"앨리스\", \"changedAt\": 5},"
+                + " \"" + bob + "\": {\"name\": \"Bob\", \"nick\": \"밥\"}}", StandardCharsets.UTF_8);
+
+        Server first = open(NO_POLL, json);
+
+        assertEquals(2, first.store().snapshot().size());
+        assertEquals(2L, queryLong("SELECT COUNT(*) FROM nickname_records"));
+        assertEquals(5L, queryLong("SELECT changed_at FROM nickname_records WHERE uuid = '" + alice + "'"));
+
+        // 데이터베이스에 이미 기록이 있으면 파일을 다시 가져오지 않습니다.
+        Files.writeString(json.toPath(), "{\"" + UUID.randomUUID() + "\": {\"nick\": \"유령\"}}", StandardCharsets.UTF_8);
+        Server second = open(NO_POLL, json);
+        assertEquals(2, second.store().snapshot().size());
+        assertEquals(2L, queryLong("SELECT COUNT(*) FROM nickname_records"));
+    }
+
+    @Test
+    void coalescesChangesIntoOneTransaction() throws Exception {
+        Server server = open(NO_POLL, null);
+        long before = queryLong("SELECT version FROM nickname_meta WHERE id = 1");
+        UUID alice = UUID.randomUUID();
+        UUID bob = UUID.randomUUID();
+        UUID carol = UUID.randomUUID();
+
+        server.store().put(new NicknameRecord(alice, "Alice", "하나"));
+        server.store().put(new NicknameRecord(alice, "Alice", "둘"));
+        server.store().put(new NicknameRecord(alice, "Alice", "셋"));
+        server.store().put(new NicknameRecord(bob, "Bob", "밥"));
+        server.store().put(new NicknameRecord(carol, "Carol", "캐롤"));
+        server.store().remove(carol);
+        // 기록 전에는 데이터베이스에 아무것도 없습니다.
+        assertEquals(0L, queryLong("SELECT COUNT(*) FROM nickname_records"));
+        assertTrue(server.storage().hasPendingWrite(alice));
+
+        server.storage().flush();
+
+        // 여러 변경이 한 트랜잭션(버전 하나)으로 기록되고, 같은 플레이어는 마지막 상태만 남습니다.
+        assertEquals(before + 1, queryLong("SELECT version FROM nickname_meta WHERE id = 1"));
+        assertEquals(2L, queryLong("SELECT COUNT(*) FROM nickname_records WHERE deleted = 0"));
+        assertEquals(before + 1, queryLong("SELECT MAX(version) FROM nickname_records"));
+        assertEquals("셋", server.storage().fetch(alice).nick());
+        assertNull(server.storage().fetch(carol));
+        assertFalse(server.storage().hasPendingWrite(alice));
+    }
+
+    @Test
+    void pollsChangesFromOtherServer() throws Exception {
+        Server a = open(NO_POLL, null);
+        Server b = open(FAST_POLL, null);
+        UUID alice = UUID.randomUUID();
+        UUID bob = UUID.randomUUID();
+
+        a.store().put(new NicknameRecord(alice, "Alice", "앨리스"));
+        a.store().put(new NicknameRecord(bob, "Bob", "밥"));
+        a.storage().flush();
+        await(() -> b.store().get(alice) != null && b.store().get(bob) != null);
+        assertEquals("앨리스", b.store().get(alice).nick());
+
+        a.store().put(new NicknameRecord(alice, "Alice", "새앨리스"));
+        a.store().remove(bob);
+        a.storage().flush();
+        await(() -> b.store().get(bob) == null);
+        assertEquals("새앨리스", b.store().get(alice).nick());
+        assertEquals(alice, b.store().snapshot().ownerOfNick("새앨리스"));
+        assertNull(b.store().snapshot().ownerOfNick("밥"));
+    }
+
+    @Test
+    void keepsUnsavedLocalChangeWhenPolling() throws Exception {
+        Server a = open(NO_POLL, null);
+        Server b = open(FAST_POLL, null);
+        UUID alice = UUID.randomUUID();
+        a.store().put(new NicknameRecord(alice, "Alice", "원격"));
+        // b 가 아직 기록하지 않은 변경
+        b.store().put(new NicknameRecord(alice, "Alice", "로컬"));
+        a.storage().flush();
+        long version = queryLong("SELECT version FROM nickname_meta WHERE id = 1");
+
+        // b 가 a 의 기록을 본 뒤에도 자신의 변경을 유지합니다.
+        Thread.sleep(FAST_POLL * 3);
+        assertEquals("로컬", b.store().get(alice).nick());
+        b.storage().flush();
+        assertEquals(version + 1, queryLong("SELECT version FROM nickname_meta WHERE id = 1"));
+        assertEquals("로컬", a.storage().fetch(alice).nick());
+    }
+
+    @Test
+    void revertsOnlyTheRowThatViolatesUniqueNick() throws Exception {
+        Server a = open(NO_POLL, null);
+        Server b = open(NO_POLL, null);
+        UUID alice = UUID.randomUUID();
+        UUID bob = UUID.randomUUID();
+        UUID carol = UUID.randomUUID();
+        b.store().put(new NicknameRecord(bob, "Bob", "밥"));
+        b.storage().flush();
+
+        // a 가 먼저 "Star" 를 가져갑니다. b 는 아직 모르고 같은 닉네임(대소문자만 다름)을 씁니다.
+        a.store().put(new NicknameRecord(alice, "Alice", "Star"));
+        a.storage().flush();
+        b.store().put(new NicknameRecord(bob, "Bob", "STAR"));
+        b.store().put(new NicknameRecord(carol, "Carol", "캐롤"));
+        b.storage().flush();
+
+        // 충돌한 bob 만 데이터베이스의 값으로 되돌아가고, 같은 묶음의 carol 은 기록됩니다.
+        assertEquals("밥", b.store().get(bob).nick());
+        assertEquals(bob, b.store().snapshot().ownerOfNick("밥"));
+        assertFalse(b.storage().hasPendingWrite(bob));
+        assertEquals("밥", a.storage().fetch(bob).nick());
+        assertEquals("캐롤", a.storage().fetch(carol).nick());
+        assertEquals("Star", a.storage().fetch(alice).nick());
+    }
+
+    @Test
+    void revertsNewRecordThatViolatesUniqueNick() throws Exception {
+        Server a = open(NO_POLL, null);
+        Server b = open(NO_POLL, null);
+        UUID alice = UUID.randomUUID();
+        UUID dave = UUID.randomUUID();
+        a.store().put(new NicknameRecord(alice, "Alice", "star"));
+        a.storage().flush();
+
+        b.store().put(new NicknameRecord(dave, "Dave", "star"));
+        b.storage().flush();
+
+        // 데이터베이스에 없던 기록이므로 메모리에서도 지워집니다.
+        assertNull(b.store().get(dave));
+        assertNull(b.store().snapshot().ownerOfName("dave"));
+        Map<UUID, NicknameRecord> rows = new HashMap<>();
+        for (NicknameRecord record : b.storage().readAll()) {
+            rows.put(record.uuid(), record);
+        }
+        assertEquals(1, rows.size());
+        assertEquals("star", rows.get(alice).nick());
+    }
+}
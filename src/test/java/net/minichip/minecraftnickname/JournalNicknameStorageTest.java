@@ -0,0 +1,139 @@
+package net.minichip.minecraftnickname;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.logging.Logger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// user-010: 저널 저장 방식 (스냅샷 위에 저널 다시 적용, 잘린 끝과 손상된 항목 처리)
+class JournalNicknameStorageTest {
+
+    private static final Logger LOGGER = Logger.getLogger("JournalNicknameStorageTest");
+    // 테스트 도중 정리(compact)가 일어나지 않도록 크게 잡습니다.
+    private static final long NO_COMPACT = 1L << 30;
+
+    @TempDir
+    Path dir;
+
+    private File snapshotFile() {
+        return dir.resolve("nicknames.json").toFile();
+    }
+
+    private File journalFile() {
+        return dir.resolve("nicknames.json.journal").toFile();
+    }
+
+    // 저장소를 열어 읽은 기록을 UUID 별로 반환합니다.
+    private Map<UUID, NicknameRecord> reopen() throws Exception {
+        JournalNicknameStorage storage = new JournalNicknameStorage(new NicknameStore(), snapshotFile(), NO_COMPACT, LOGGER);
+        try {
+            return byUuid(storage.load());
+        } finally {
+            storage.close();
+        }
+    }
+
+    private static Map<UUID, NicknameRecord> byUuid(List<NicknameRecord> records) {
+        Map<UUID, NicknameRecord> result = new HashMap<>();
+        for (NicknameRecord record : records) {
+            result.put(record.uuid(), record);
+        }
+        return result;
+    }
+
+    // 변경을 저널에 덧붙이고 닫습니다.
+    private void append(NicknameRecord... changes) throws Exception {
+        NicknameStore store = new NicknameStore();
+        JournalNicknameStorage storage = new JournalNicknameStorage(store, snapshotFile(), NO_COMPACT, LOGGER);
+        store.replaceAll(storage.load());
+        for (NicknameRecord change : changes) {
+            storage.recordChanged(change.uuid(), store.get(change.uuid()), change);
+        }
+        storage.close();
+    }
+
+    private void appendDelete(UUID uuid) throws Exception {
+        NicknameStore store = new NicknameStore();
+        JournalNicknameStorage storage = new JournalNicknameStorage(store, snapshotFile(), NO_COMPACT, LOGGER);
+        store.replaceAll(storage.load());
+        storage.recordChanged(uuid, store.get(uuid), null);
+        storage.close();
+    }
+
+    @Test
+    void replaysJournalOverSnapshot() throws Exception {
+        UUID alice = UUID.randomUUID();
+        UUID bob = UUID.randomUUID();
+        UUID carol = UUID.randomUUID();
+        Files.writeString(snapshotFile().toPath(), "{\"" + alice + "\": {\"name\": \"Alice\", \"nick\": \"앨리스\"},"
+                + " \"" + bob + "\": {\"name\": \"Bob\", \"nick\": \"밥\"}}");
+
+        append(new NicknameRecord(alice, "Alice", "새앨리스", 1700000000L), new NicknameRecord(carol, "Carol", null));
+        appendDelete(bob);
+
+        Map<UUID, NicknameRecord> records = reopen();
+        assertEquals(2, records.size());
+        assertEquals(new NicknameRecord(alice, "Alice", "새앨리스", 1700000000L), records.get(alice));
+        assertEquals(new NicknameRecord(carol, "Carol", null), records.get(carol));
+        assertFalse(records.containsKey(bob));
+        // 스냅샷 파일은 정리 전까지 그대로입니다.
+        assertTrue(Files.readString(snapshotFile().toPath()).contains("\"밥\""));
+    }
+
+    @Test
+    void truncatesTornTail() throws Exception {
+        UUID alice = UUID.randomUUID();
+        UUID bob = UUID.randomUUID();
+        append(new NicknameRecord(alice, "Alice", "앨리스"));
+        long validLength = journalFile().length();
+        append(new NicknameRecord(bob, "Bob", "밥"));
+        // 두 번째 항목을 쓰는 도중 꺼진 것처럼 끝부분을 잘라냅니다.
+        byte[] journal = Files.readAllBytes(journalFile().toPath());
+        Files.write(journalFile().toPath(), Arrays.copyOf(journal, journal.length - 3));
+
+        Map<UUID, NicknameRecord> records = reopen();
+
+        assertEquals(1, records.size());
+        assertEquals("앨리스", records.get(alice).nick());
+        assertEquals(validLength, journalFile().length());
+    }
+
+    @Test
+    void stopsAtCorruptEntryAndKeepsAppending() throws Exception {
+        UUID alice = UUID.randomUUID();
+        UUID bob = UUID.randomUUID();
+        append(new NicknameRecord(alice, "Alice", "앨리스"));
+        long validLength = journalFile().length();
+        // 길이와 체크섬이 맞지 않는 쓰레기 바이트
+        Files.write(journalFile().toPath(), new byte[]{0, 0, 0, 4, 1, 2, 3, 4, 9, 9, 9, 9}, StandardOpenOption.APPEND);
+
+        assertEquals(1, reopen().size());
+        assertEquals(validLength, journalFile().length());
+
+        // 잘라낸 뒤 덧붙인 항목은 다음 재생에서 읽힙니다.
+        append(new NicknameRecord(bob, "Bob", "밥"));
+        Map<UUID, NicknameRecord> records = reopen();
+        assertEquals(2, records.size());
+        assertEquals("밥", records.get(bob).nick());
+    }
+
+    @Test
+    void createsEmptySnapshotWhenMissing() throws Exception {
+        assertTrue(reopen().isEmpty());
+        assertTrue(snapshotFile().exists());
+        assertTrue(journalFile().exists());
+    }
+}
@@ -0,0 +1,257 @@
+package net.minichip.minecraftnickname;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.util.AbstractList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+import java.util.logging.Handler;
+import java.util.logging.LogRecord;
+import java.util.logging.Logger;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// user-009: nicknames.json write-behind 저장 (변경 묶기, 종료 시 저장, 원자적 교체)
+class JsonNicknameStorageTest {
+
+    @TempDir
+    Path dir;
+
+    private final Logger logger = Logger.getAnonymousLogger();
+    // "닉네임 데이터가 업데이트되었습니다." 로그 수 = 파일을 쓴 횟수
+    private final AtomicInteger saves = new AtomicInteger();
+    private NicknameStore store;
+    private JsonNicknameStorage storage;
+
+    @BeforeEach
+    void countSaves() {
+        logger.setUseParentHandlers(false);
+        logger.addHandler(new Handler() {
+            @Override
+            public void publish(LogRecord record) {
+                if (record.getMessage().startsWith("닉네임 데이터가 업데이트")) {
+                    saves.incrementAndGet();
+                }
+            }
+
+            @Override
+            public void flush() {
+            }
+
+            @Override
+            public void close() {
+            }
+        });
+    }
+
+    @AfterEach
+    void closeStorage() {
+        if (storage != null) {
+            storage.close();
+        }
+    }
+
+    private File file() {
+        return dir.resolve("nicknames.json").toFile();
+    }
+
+    // MinecraftNickname 과 같은 방식으로 저장소 변경을 저장 방식에 전달합니다.
+    private void open(long intervalMillis) throws Exception {
+        store = new NicknameStore();
+        storage = new JsonNicknameStorage(store, file(), intervalMillis, logger);
+        store.replaceAll(storage.load());
+        store.addListener(new NicknameStore.Listener() {
+            @Override
+            public void onRecordChanged(UUID uuid, NicknameRecord before, NicknameRecord after) {
+                storage.recordChanged(uuid, before, after);
+            }
+
+            @Override
+            public void onSnapshotReplaced(NicknameSnapshot before, NicknameSnapshot after, Set<UUID> changed) {
+            }
+        });
+    }
+
+    private String nickInFile(UUID uuid) throws Exception {
+        for (NicknameRecord record : JsonNicknameStorage.readFile(file(), logger)) {
+            if (record.uuid().equals(uuid)) {
+                return record.nick();
+            }
+        }
+        return null;
+    }
+
+    private static void await(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10_000L;
+        while (!condition.getAsBoolean()) {
+            if (System.currentTimeMillis() > deadline) {
+                throw new AssertionError("시간 안에 조건을 만족하지 못했습니다.");
+            }
+            Thread.sleep(20);
+        }
+    }
+
+    @Test
+    void coalescesChangesWithinInterval() throws Exception {
+        open(1_000L);
+        UUID alice = UUID.randomUUID();
+        store.put(new NicknameRecord(alice, "Alice", "처음"));
+        await(() -> saves.get() == 1);
+        assertEquals("처음", nickInFile(alice));
+
+        // 저장 간격 안에 들어온 변경은 모두 다음 저장 한 번으로 묶입니다.
+        for (int i = 0; i < 50; i++) {
+            store.put(new NicknameRecord(alice, "Alice", "닉" + i));
+            store.put(new NicknameRecord(UUID.randomUUID(), "Player" + i, "플레이어" + i));
+        }
+        assertEquals("처음", nickInFile(alice));
+        await(() -> saves.get() == 2);
+        Thread.sleep(300);
+
+        assertEquals(2, saves.get());
+        assertEquals("닉49", nickInFile(alice));
+        assertEquals(51, JsonNicknameStorage.readFile(file(), logger).size());
+    }
+
+    @Test
+    void flushesPendingChangesOnClose() throws Exception {
+        open(60_000L);
+        UUID alice = UUID.randomUUID();
+        store.put(new NicknameRecord(alice, "Alice", "처음"));
+        await(() -> saves.get() == 1);
+        store.put(new NicknameRecord(alice, "Alice", "마지막"));
+        assertEquals("처음", nickInFile(alice));
+
+        long startedAt = System.currentTimeMillis();
+        storage.close();
+        storage = null;
+
+        // 예약된 저장을 기다리지 않고 바로 마지막 저장을 합니다.
+        assertTrue(System.currentTimeMillis() - startedAt < 2_000L);
+        assertEquals("마지막", nickInFile(alice));
+        assertEquals(2, saves.get());
+    }
+
+    @Test
+    void doesNotOverwriteExternalEdit() throws Exception {
+        open(60_000L);
+        UUID alice = UUID.randomUUID();
+        UUID bob = UUID.randomUUID();
+        store.put(new NicknameRecord(alice, "Alice", "앨리스"));
+        await(() -> saves.get() == 1);
+
+        // 관리자가 파일을 직접 고친 뒤 메모리의 변경을 저장하려고 하면 덮어쓰지 않습니다.
+        Files.writeString(file().toPath(), "{\"" + bob + "\": {\"name\": \"Bob\", \"nick\": \"밥\"}}", StandardCharsets.UTF_8);
+        store.put(new NicknameRecord(alice, "Alice", "새앨리스"));
+        storage.flush();
+        assertEquals("밥", nickInFile(bob));
+
+        // 다시 불러오면 파일 내용과 아직 저장하지 않은 변경이 합쳐지고, 그 뒤에는 저장됩니다.
+        store.replaceAll(storage.load());
+        storage.flush();
+        assertEquals("밥", nickInFile(bob));
+        assertEquals("새앨리스", nickInFile(alice));
+    }
+
+    // user-013: 수정 시각/크기가 달라도 내용이 같으면 자기 저장으로 봅니다. 크기가 같아도 내용이 다르면 외부 변경입니다.
+    @Test
+    void detectsOwnWriteByContentWhenStampChanges() throws Exception {
+        open(60_000L);
+        UUID alice = UUID.randomUUID();
+        store.put(new NicknameRecord(alice, "Alice", "앨리스"));
+        await(() -> saves.get() == 1);
+        Path path = file().toPath();
+        assertTrue(storage.isOwnWrite());
+
+        Files.setLastModifiedTime(path, FileTime.fromMillis(Files.getLastModifiedTime(path).toMillis() + 10_000L));
+        assertTrue(storage.isOwnWrite());
+
+        String edited = Files.readString(path, StandardCharsets.UTF_8).replace("Alice", "Alica");
+        Files.writeString(path, edited, StandardCharsets.UTF_8);
+        Files.setLastModifiedTime(path, FileTime.fromMillis(Files.getLastModifiedTime(path).toMillis() + 20_000L));
+        assertFalse(storage.isOwnWrite());
+    }
+
+    // user-013: 다시 불러오는 중(load)에 발견한 외부 변경으로 또 다시 불러오기를 요청하지 않습니다.
+    @Test
+    void loadDoesNotRequestReloadOnConflict() throws Exception {
+        open(60_000L);
+        AtomicInteger reloads = new AtomicInteger();
+        storage.setExternalChangeHandler(reloads::incrementAndGet);
+        UUID alice = UUID.randomUUID();
+        UUID bob = UUID.randomUUID();
+        store.put(new NicknameRecord(alice, "Alice", "앨리스"));
+        await(() -> saves.get() == 1);
+
+        Files.writeString(file().toPath(), "{\"" + bob + "\": {\"name\": \"Bob\", \"nick\": \"밥\"}}", StandardCharsets.UTF_8);
+        store.put(new NicknameRecord(alice, "Alice", "새앨리스"));
+        List<NicknameRecord> loaded = storage.load();
+
+        assertEquals(0, reloads.get());
+        assertEquals(2, loaded.size());
+        assertEquals("밥", nickInFile(bob));
+
+        // 저장 경로에서 발견하면 한 번만 요청합니다.
+        storage.flush();
+        storage.flush();
+        assertEquals(1, reloads.get());
+    }
+
+    @Test
+    void replacesFileAtomically() throws Exception {
+        Path target = file().toPath();
+        Files.writeString(target, "{\"예전\": 1}", StandardCharsets.UTF_8);
+        UUID alice = UUID.randomUUID();
+        MessageDigest digest = MessageDigest.getInstance("SHA-256");
+
+        long bytes = NicknameJsonWriter.writeAtomically(List.of(new NicknameRecord(alice, "Alice", "앨리스")), target, digest);
+
+        byte[] written = Files.readAllBytes(target);
+        assertEquals(written.length, bytes);
+        assertArrayEquals(MessageDigest.getInstance("SHA-256").digest(written), digest.digest());
+        assertEquals("앨리스", nickInFile(alice));
+        assertFalse(Files.exists(target.resolveSibling("nicknames.json.tmp")));
+    }
+
+    @Test
+    void keepsOldFileWhenWriteFails() throws Exception {
+        Path target = file().toPath();
+        String old = "{\"" + UUID.randomUUID() + "\": {\"nick\": \"예전\"}}";
+        Files.writeString(target, old, StandardCharsets.UTF_8);
+        // 두 번째 기록을 쓰는 도중 실패하는 목록
+        List<NicknameRecord> failing = new AbstractList<>() {
+            @Override
+            public NicknameRecord get(int index) {
+                if (index == 1) {
+                    throw new IllegalStateException("쓰기 실패");
+                }
+                return new NicknameRecord(UUID.randomUUID(), "Player", "닉");
+            }
+
+            @Override
+            public int size() {
+                return 3;
+            }
+        };
+
+        assertThrows(IllegalStateException.class, () -> NicknameJsonWriter.writeAtomically(failing, target));
+
+        assertEquals(old, Files.readString(target, StandardCharsets.UTF_8));
+    }
+}
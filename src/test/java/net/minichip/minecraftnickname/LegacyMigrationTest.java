@@ -0,0 +1,221 @@
+package net.minichip.minecraftnickname;
+
+import com.sun.net.httpserver.HttpServer;
+import org.json.JSONArray;
+import org.json.JSONObject;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Logger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// 로컬 HTTP 서버를 Mojang 대량 조회 API 대신 띄워 변환 작업 전체를 확인합니다.
+class LegacyMigrationTest {
+
+    private static final Logger LOGGER = Logger.getLogger("LegacyMigrationTest");
+
+    @TempDir
+    Path dir;
+
+    private HttpServer server;
+    // 서버가 아는 계정 (이름 -> UUID)
+    private final Map<String, UUID> accounts = new HashMap<>();
+    // 서버가 받은 이름 (요청 순서대로)
+    private final List<String> requestedNames = Collections.synchronizedList(new ArrayList<>());
+    // 앞에서부터 이 횟수만큼은 429 로 응답합니다.
+    private final AtomicInteger rateLimitedResponses = new AtomicInteger();
+    // true 면 모든 요청에 500 으로 응답합니다. (Mojang 장애)
+    private volatile boolean down;
+
+    @BeforeEach
+    void startServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        server.createContext("/lookup", exchange -> {
+            byte[] body;
+            int status;
+            if (down) {
+                status = 500;
+                body = new byte[0];
+            } else if (rateLimitedResponses.getAndUpdate(n -> Math.max(0, n - 1)) > 0) {
+                exchange.getResponseHeaders().add("Retry-After", "0");
+                status = 429;
+                body = new byte[0];
+            } else {
+                JSONArray names = new JSONArray(new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8));
+                JSONArray profiles = new JSONArray();
+                for (int i = 0; i < names.length(); i++) {
+                    String name = names.getString(i);
+                    requestedNames.add(name);
+                    UUID uuid = accounts.get(name);
+                    if (uuid != null) {
+                        JSONObject profile = new JSONObject();
+                        profile.put("id", uuid.toString().replace("-", ""));
+                        profile.put("name", name);
+                        profiles.put(profile);
+                    }
+                }
+                status = 200;
+                body = profiles.toString().getBytes(StandardCharsets.UTF_8);
+            }
+            exchange.sendResponseHeaders(status, body.length == 0 ? -1 : body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        server.start();
+    }
+
+    @AfterEach
+    void stopServer() {
+        server.stop(0);
+    }
+
+    private LegacyMigration migration(File checkpoint) {
+        String endpoint = "http://127.0.0.1:" + server.getAddress().getPort() + "/lookup";
+        return new LegacyMigration(new MojangBulkProfileResolver(endpoint, 2), checkpoint, 2, 3, LOGGER);
+    }
+
+    @Test
+    void resolvesNamesAndReportsMissingAccounts() throws Exception {
+        UUID alice = UUID.randomUUID();
+        UUID bob = UUID.randomUUID();
+        accounts.put("Alice", alice);
+        accounts.put("Bob", bob);
+        Map<String, String> legacy = new LinkedHashMap<>();
+        legacy.put("Alice", "앨리스");
+        legacy.put("Bob", "밥");
+        legacy.put("Ghost", "유령");
+
+        File checkpoint = dir.resolve("checkpoint.json").toFile();
+        LegacyMigration.Result result = migration(checkpoint).run(legacy);
+
+        Map<UUID, String> nicks = new HashMap<>();
+        for (NicknameRecord record : result.records()) {
+            nicks.put(record.uuid(), record.nick());
+        }
+        assertEquals(Map.of(alice, "앨리스", bob, "밥"), nicks);
+        assertEquals(List.of("Ghost"), result.missing());
+        assertTrue(result.failed().isEmpty());
+        // 묶음마다 덧붙인 줄은 끝나면 한 줄로 합쳐집니다.
+        assertEquals(1, Files.readAllLines(checkpoint.toPath()).size());
+    }
+
+    @Test
+    void resumesFromAppendedCheckpointAndSkipsTornLine() throws Exception {
+        UUID alice = UUID.randomUUID();
+        UUID bob = UUID.randomUUID();
+        accounts.put("Alice", alice);
+        accounts.put("Bob", bob);
+        Path checkpoint = dir.resolve("checkpoint.json");
+        // 앞 묶음 두 줄은 온전하고, 마지막 줄은 쓰는 도중 꺼져 잘렸습니다.
+        Files.writeString(checkpoint,
+                "{\"resolved\":{\"alice\":\"" + alice + "\"},\"missing\":[]}\n"
+                        + "{\"resolved\":{},\"missing\":[\"ghost\"]}\n"
+                        + "{\"resolved\":{\"bob\":", StandardCharsets.UTF_8);
+        Map<String, String> legacy = new LinkedHashMap<>();
+        legacy.put("Alice", "앨리스");
+        legacy.put("Ghost", "유령");
+        legacy.put("Bob", "밥");
+
+        LegacyMigration.Result result = migration(checkpoint.toFile()).run(legacy);
+
+        // 체크포인트에 있던 이름은 다시 조회하지 않습니다.
+        assertEquals(List.of("Bob"), requestedNames);
+        assertEquals(2, result.records().size());
+        assertEquals(List.of("Ghost"), result.missing());
+    }
+
+    @Test
+    void retriesAfterRateLimit() throws Exception {
+        UUID alice = UUID.randomUUID();
+        accounts.put("Alice", alice);
+        rateLimitedResponses.set(1);
+
+        LegacyMigration.Result result = migration(dir.resolve("checkpoint.json").toFile()).run(Map.of("Alice", "앨리스"));
+
+        assertEquals(1, result.records().size());
+        assertEquals(alice, result.records().get(0).uuid());
+        assertTrue(result.failed().isEmpty());
+        assertFalse(requestedNames.isEmpty());
+    }
+
+    @Test
+    void deleteCheckpointRemovesFile() throws Exception {
+        accounts.put("Alice", UUID.randomUUID());
+        File checkpoint = dir.resolve("checkpoint.json").toFile();
+        LegacyMigration migration = migration(checkpoint);
+        migration.run(Map.of("Alice", "앨리스"));
+        assertTrue(checkpoint.exists());
+
+        migration.deleteCheckpoint();
+
+        assertFalse(checkpoint.exists());
+    }
+
+    @Test
+    void doesNotSendInvalidNames() throws Exception {
+        UUID alice = UUID.randomUUID();
+        accounts.put("Alice", alice);
+        Map<String, String> legacy = new LinkedHashMap<>();
+        legacy.put("홍길동", "길동");
+        legacy.put("Alice", "앨리스");
+        legacy.put("bad name!", "나쁨");
+
+        LegacyMigration.Result result = migration(dir.resolve("checkpoint.json").toFile()).run(legacy);
+
+        // 규칙에 맞지 않는 이름이 묶음에 섞여 묶음 전체가 실패하지 않도록 보내지 않습니다.
+        assertEquals(List.of("Alice"), requestedNames);
+        assertEquals(1, result.records().size());
+        assertEquals(List.of("홍길동", "bad name!"), result.missing());
+        assertTrue(result.failed().isEmpty());
+    }
+
+    @Test
+    void keepsFailedNamesForNextRun() throws Exception {
+        UUID alice = UUID.randomUUID();
+        accounts.put("Alice", alice);
+        down = true;
+        File checkpoint = dir.resolve("checkpoint.json").toFile();
+        LegacyMigration migration = migration(checkpoint);
+
+        LegacyMigration.Result result = migration.run(Map.of("Alice", "앨리스"));
+
+        assertEquals(List.of("Alice"), result.failed());
+        // 조회하지 못한 이름은 없는 계정으로 보지 않습니다.
+        assertTrue(result.missing().isEmpty());
+        migration.retryLater(Map.of("Alice", "앨리스"));
+        assertEquals(Map.of("Alice", "앨리스"), LegacyMigration.readRetry(checkpoint, LOGGER));
+
+        // 다음 실행: 남겨 둔 항목을 다시 변환하고, 모두 반영되면 체크포인트를 지웁니다.
+        down = false;
+        LegacyMigration next = migration(checkpoint);
+        LegacyMigration.Result retried = next.run(LegacyMigration.readRetry(checkpoint, LOGGER));
+        assertEquals(alice, retried.records().get(0).uuid());
+        assertEquals("앨리스", retried.records().get(0).nick());
+        // 조회 중에는 retry 항목이 체크포인트에 그대로 남아 있습니다.
+        assertEquals(Map.of("Alice", "앨리스"), LegacyMigration.readRetry(checkpoint, LOGGER));
+        next.retryLater(Map.of());
+        assertFalse(checkpoint.exists());
+    }
+}
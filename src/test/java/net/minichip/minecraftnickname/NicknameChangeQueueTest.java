@@ -0,0 +1,126 @@
+package net.minichip.minecraftnickname;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// user-021: 닉네임 변경 요청 큐 (한 번에 적용, 같은 닉네임 중복 요청 거절, 요청 제한)
+class NicknameChangeQueueTest {
+
+    private static final long COOLDOWN_SECONDS = 3600L;
+
+    private NicknameStore store;
+    private NicknameChangeQueue queue;
+    // 큐가 reply 로 알린 결과 (UUID 별)
+    private final Map<UUID, NicknameChangeQueue.Status> replies = new HashMap<>();
+
+    @BeforeEach
+    void createQueue() {
+        store = new NicknameStore();
+        queue = new NicknameChangeQueue(store, COOLDOWN_SECONDS, new TokenBucket(100, 0.0), 100);
+    }
+
+    private Consumer<NicknameChangeQueue.Status> replyTo(UUID uuid) {
+        return status -> replies.put(uuid, status);
+    }
+
+    private NicknameChangeQueue.Status submit(UUID uuid, String nick) {
+        return queue.submit(uuid, "player-" + uuid.toString().substring(0, 8), nick, false, replyTo(uuid));
+    }
+
+    @Test
+    void appliesQueuedChangesOnFlush() {
+        UUID alice = UUID.randomUUID();
+        store.put(new NicknameRecord(alice, "Alice", "앨리스"));
+
+        assertEquals(NicknameChangeQueue.Status.QUEUED, submit(alice, "새앨리스"));
+        // flush 전에는 바뀌지 않습니다.
+        assertEquals("앨리스", store.get(alice).nick());
+
+        long before = System.currentTimeMillis() / 1000L;
+        queue.flush();
+
+        assertEquals(NicknameChangeQueue.Status.APPLIED, replies.get(alice));
+        NicknameRecord record = store.get(alice);
+        assertEquals("새앨리스", record.nick());
+        assertEquals("Alice", record.name());
+        assertTrue(record.changedAt() >= before);
+        assertTrue(queue.cooldownRemaining(alice) > 0L);
+    }
+
+    @Test
+    void rejectsSameNickClaimedTwiceInOneBatch() {
+        UUID alice = UUID.randomUUID();
+        UUID bob = UUID.randomUUID();
+
+        assertEquals(NicknameChangeQueue.Status.QUEUED, submit(alice, "Star"));
+        // 아직 반영 전이므로 둘 다 접수됩니다. (대소문자만 다른 닉네임도 같은 닉네임입니다)
+        assertEquals(NicknameChangeQueue.Status.QUEUED, submit(bob, "STAR"));
+        queue.flush();
+
+        // 먼저 접수된 요청이 가져갑니다.
+        assertEquals(NicknameChangeQueue.Status.APPLIED, replies.get(alice));
+        assertEquals(NicknameChangeQueue.Status.TAKEN, replies.get(bob));
+        assertEquals(alice, store.snapshot().ownerOfNick("star"));
+        assertNull(store.get(bob));
+    }
+
+    @Test
+    void rejectsNickTakenWhileQueued() {
+        UUID alice = UUID.randomUUID();
+        UUID bob = UUID.randomUUID();
+        UUID carol = UUID.randomUUID();
+
+        assertEquals(NicknameChangeQueue.Status.QUEUED, submit(alice, "Star"));
+        assertEquals(NicknameChangeQueue.Status.QUEUED, submit(carol, "Moon"));
+        // 기다리는 동안 관리자 명령 등으로 다른 플레이어가 먼저 가져갔습니다.
+        store.put(new NicknameRecord(bob, "Bob", "star"));
+        queue.flush();
+
+        assertEquals(NicknameChangeQueue.Status.TAKEN, replies.get(alice));
+        assertNull(store.get(alice));
+        // 같은 묶음의 다른 요청은 그대로 반영됩니다.
+        assertEquals(NicknameChangeQueue.Status.APPLIED, replies.get(carol));
+        assertEquals("Moon", store.get(carol).nick());
+    }
+
+    @Test
+    void checksRequestsBeforeQueueing() {
+        UUID alice = UUID.randomUUID();
+        UUID bob = UUID.randomUUID();
+        store.put(new NicknameRecord(alice, "Alice", "앨리스"));
+
+        assertEquals(NicknameChangeQueue.Status.UNCHANGED, submit(alice, "앨리스"));
+        assertEquals(NicknameChangeQueue.Status.TAKEN, submit(bob, "앨리스"));
+        assertEquals(NicknameChangeQueue.Status.QUEUED, submit(bob, "밥"));
+        assertEquals(NicknameChangeQueue.Status.ALREADY_QUEUED, submit(bob, "바비"));
+        queue.flush();
+
+        // 방금 바꿨으므로 대기 시간이 적용되고, 관리자 권한은 무시합니다.
+        assertEquals(NicknameChangeQueue.Status.COOLDOWN, submit(bob, "바비"));
+        assertEquals(NicknameChangeQueue.Status.QUEUED, queue.submit(bob, "Bob", "바비", true, replyTo(bob)));
+    }
+
+    @Test
+    void limitsRequestsWithBucketAndQueueSize() {
+        NicknameChangeQueue limited = new NicknameChangeQueue(store, 0L, new TokenBucket(1, 0.0), 100);
+        List<NicknameChangeQueue.Status> statuses = new ArrayList<>();
+        statuses.add(limited.submit(UUID.randomUUID(), "A", "a", false, status -> { }));
+        statuses.add(limited.submit(UUID.randomUUID(), "B", "b", false, status -> { }));
+        assertEquals(List.of(NicknameChangeQueue.Status.QUEUED, NicknameChangeQueue.Status.BUSY), statuses);
+
+        NicknameChangeQueue small = new NicknameChangeQueue(store, 0L, new TokenBucket(100, 0.0), 1);
+        assertEquals(NicknameChangeQueue.Status.QUEUED, small.submit(UUID.randomUUID(), "C", "c", false, status -> { }));
+        assertEquals(NicknameChangeQueue.Status.BUSY, small.submit(UUID.randomUUID(), "D", "d", false, status -> { }));
+    }
+}
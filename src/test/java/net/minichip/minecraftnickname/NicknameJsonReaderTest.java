@@ -0,0 +1,114 @@
+package net.minichip.minecraftnickname;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.UUID;
+import java.util.logging.Logger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// user-011: 스트리밍 nicknames.json 읽기 (현재/이전 형식, 깨진 파일)
+class NicknameJsonReaderTest {
+
+    private static final Logger LOGGER = Logger.getLogger("NicknameJsonReaderTest");
+
+    @TempDir
+    Path dir;
+
+    private NicknameJsonReader.Result read(String json) throws IOException {
+        File file = dir.resolve("nicknames.json").toFile();
+        Files.writeString(file.toPath(), json, StandardCharsets.UTF_8);
+        return NicknameJsonReader.read(file, LOGGER);
+    }
+
+    @Test
+    void readsCurrentFormat() throws Exception {
+        UUID alice = UUID.randomUUID();
+        UUID bob = UUID.randomUUID();
+        NicknameJsonReader.Result result = read("{\n"
+                + "  \"" + alice + "\": {\"name\": \"Alice\", \"nick\": \"앨리스\", \"changedAt\": 1700000000},\n"
+                + "  \"" + bob + "\": {\"nick\": \"밥\\n\\\"\", \"extra\": [1, {\"x\": \"}\"}]}\n"
+                + "}");
+
+        assertFalse(result.isLegacy());
+        assertEquals(0, result.skipped());
+        assertEquals(2, result.records().size());
+        assertEquals(new NicknameRecord(alice, "Alice", "앨리스", 1700000000L), result.records().get(0));
+        // 모르는 필드는 건너뛰고, 없는 필드는 null / 0 으로 읽습니다.
+        assertEquals(new NicknameRecord(bob, null, "밥\n\"", 0L), result.records().get(1));
+    }
+
+    @Test
+    void readsLegacyFormat() throws Exception {
+        NicknameJsonReader.Result result = read("{\"Alice\": \"앨리스\", \"Bob\": \"밥\"}");
+
+        assertTrue(result.isLegacy());
+        assertTrue(result.records().isEmpty());
+        assertEquals(Map.of("Alice", "앨리스", "Bob", "밥"), result.legacy());
+    }
+
+    @Test
+    void separatesMixedFormats() throws Exception {
+        UUID alice = UUID.randomUUID();
+        NicknameJsonReader.Result result = read("{\"" + alice + "\": {\"name\": \"Alice\", \"nick\": \"앨리스\"},"
+                + " \"Bob\": \"밥\"}");
+
+        assertTrue(result.isLegacy());
+        assertEquals(1, result.records().size());
+        assertEquals(alice, result.records().get(0).uuid());
+        assertEquals(Map.of("Bob", "밥"), result.legacy());
+    }
+
+    @Test
+    void skipsUnknownValuesAndInvalidUuids() throws Exception {
+        UUID alice = UUID.randomUUID();
+        NicknameJsonReader.Result result = read("{\"" + alice + "\": {\"nick\": \"앨리스\"},"
+                + " \"not-a-uuid\": {\"nick\": \"유령\"}, \"count\": 3, \"list\": [\"a\"], \"flag\": null}");
+
+        assertEquals(1, result.records().size());
+        assertEquals(4, result.skipped());
+        assertFalse(result.isLegacy());
+    }
+
+    @Test
+    void acceptsByteOrderMarkAndEmptyFiles() throws Exception {
+        UUID alice = UUID.randomUUID();
+        NicknameJsonReader.Result withBom = read("\uFEFF{\"" + alice + "\": {\"nick\": \"앨리스\"}}");
+        assertEquals(1, withBom.records().size());
+
+        NicknameJsonReader.Result empty = read("");
+        assertTrue(empty.records().isEmpty());
+        assertFalse(empty.isLegacy());
+
+        NicknameJsonReader.Result emptyObject = read("  { }  ");
+        assertTrue(emptyObject.records().isEmpty());
+    }
+
+    @Test
+    void readsNumbersWithFractionAsWholeSeconds() throws Exception {
+        UUID alice = UUID.randomUUID();
+        NicknameJsonReader.Result result = read("{\"" + alice + "\": {\"changedAt\": 12.5e0, \"nick\": \"앨리스\"}}");
+
+        assertEquals(12L, result.records().get(0).changedAt());
+        assertNull(result.records().get(0).name());
+    }
+
+    @Test
+    void rejectsBrokenFiles() {
+        // 쓰는 도중 잘린 파일
+        assertThrows(IOException.class, () -> read("{\"" + UUID.randomUUID() + "\": {\"nick\": \"앨"));
+        assertThrows(IOException.class, () -> read("[]"));
+        assertThrows(IOException.class, () -> read("{\"a\": \"b\" \"c\": \"d\"}"));
+    }
+}
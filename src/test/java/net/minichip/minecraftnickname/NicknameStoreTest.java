@@ -0,0 +1,176 @@
+package net.minichip.minecraftnickname;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// user-015: 지연 로딩에서 메모리에 없는 기록의 외부 변경과 색인(역색인 포함) 일관성
+class NicknameStoreTest {
+
+    @Test
+    void ignoresExternalDeleteOfUnknownPlayer() {
+        NicknameStore store = new NicknameStore();
+        store.put(new NicknameRecord(UUID.randomUUID(), "Alice", "앨리스"));
+        NicknameSnapshot before = store.snapshot();
+
+        assertTrue(store.applyExternal(singleton(UUID.randomUUID(), null), uuid -> true).isEmpty());
+        assertEquals(before, store.snapshot());
+    }
+
+    @Test
+    void removesIndexOfEvictedPlayerOnExternalDelete() {
+        NicknameStore store = new NicknameStore();
+        UUID alice = UUID.randomUUID();
+        store.put(new NicknameRecord(alice, "Alice", "앨리스"));
+        store.evict(List.of(alice));
+        assertNull(store.get(alice));
+        assertEquals(alice, store.snapshot().ownerOfNick("앨리스"));
+
+        assertEquals(Set.of(alice), store.applyExternal(singleton(alice, null), uuid -> true));
+
+        assertNull(store.snapshot().ownerOfNick("앨리스"));
+        assertNull(store.snapshot().ownerOfName("alice"));
+        assertFalse(store.snapshot().hasIndexEntries(alice));
+    }
+
+    @Test
+    void replacesStaleIndexOfEvictedPlayer() {
+        NicknameStore store = new NicknameStore();
+        store.setResidentFilter(uuid -> false);
+        UUID alice = UUID.randomUUID();
+        store.replaceAll(List.of(new NicknameRecord(alice, "Alice", "앨리스")));
+
+        store.applyExternal(singleton(alice, new NicknameRecord(alice, "Alice2", "새앨리스")), uuid -> true);
+
+        NicknameSnapshot snapshot = store.snapshot();
+        assertNull(snapshot.ownerOfNick("앨리스"));
+        assertNull(snapshot.ownerOfName("alice"));
+        assertEquals(alice, snapshot.ownerOfNick("새앨리스"));
+        assertEquals(alice, snapshot.ownerOfName("alice2"));
+        assertEquals(0, snapshot.size());
+    }
+
+    // 무작위 작업 뒤에도 색인이 전체 기록(메모리에 없는 것 포함)과 정확히 일치하는지 확인합니다.
+    @Test
+    void keepsIndexConsistentUnderRandomOperations() {
+        Random random = new Random(42);
+        List<UUID> players = new ArrayList<>();
+        for (int i = 0; i < 40; i++) {
+            players.add(UUID.randomUUID());
+        }
+        Set<UUID> resident = new HashSet<>();
+        NicknameStore store = new NicknameStore();
+        store.setResidentFilter(resident::contains);
+        // 기대하는 전체 기록 (메모리에 없는 기록 포함)
+        Map<UUID, NicknameRecord> truth = new HashMap<>();
+
+        for (int step = 0; step < 5000; step++) {
+            UUID uuid = players.get(random.nextInt(players.size()));
+            NicknameRecord record = randomRecord(random, uuid, truth);
+            switch (random.nextInt(5)) {
+                case 0:
+                    // 플러그인처럼 메모리에 올린 뒤 바꿉니다.
+                    if (record != null) {
+                        load(store, truth, uuid);
+                        store.put(record);
+                        truth.put(uuid, record);
+                    }
+                    break;
+                case 1:
+                    load(store, truth, uuid);
+                    store.remove(uuid);
+                    truth.remove(uuid);
+                    break;
+                case 2:
+                    resident.remove(uuid);
+                    store.evict(List.of(uuid));
+                    break;
+                case 3:
+                    if (random.nextBoolean()) {
+                        resident.add(uuid);
+                    }
+                    store.applyExternal(singleton(uuid, record), any -> true);
+                    if (record != null) {
+                        truth.put(uuid, record);
+                    } else {
+                        truth.remove(uuid);
+                    }
+                    break;
+                default:
+                    load(store, truth, uuid);
+                    break;
+            }
+            assertIndexMatches(store.snapshot(), truth, players);
+        }
+    }
+
+    private static void load(NicknameStore store, Map<UUID, NicknameRecord> truth, UUID uuid) {
+        NicknameRecord record = truth.get(uuid);
+        if (record != null) {
+            store.loadResident(record);
+        }
+    }
+
+    // 다른 플레이어가 쓰지 않는 닉네임/이름으로 기록을 만듭니다. 가끔 null(삭제)을 반환합니다.
+    private static NicknameRecord randomRecord(Random random, UUID uuid, Map<UUID, NicknameRecord> truth) {
+        if (random.nextInt(6) == 0) {
+            return null;
+        }
+        String nick = random.nextInt(5) == 0 ? null : "닉" + random.nextInt(60);
+        String name = random.nextInt(5) == 0 ? null : "Player" + random.nextInt(60);
+        for (NicknameRecord other : truth.values()) {
+            if (other.uuid().equals(uuid)) {
+                continue;
+            }
+            if (nick != null && nick.equals(other.nick())) {
+                nick = null;
+            }
+            if (name != null && name.equals(other.name())) {
+                name = null;
+            }
+        }
+        return new NicknameRecord(uuid, name, nick);
+    }
+
+    private static void assertIndexMatches(NicknameSnapshot snapshot, Map<UUID, NicknameRecord> truth, List<UUID> players) {
+        Map<String, UUID> nicks = new HashMap<>();
+        Map<String, UUID> names = new HashMap<>();
+        for (NicknameRecord record : truth.values()) {
+            if (record.nick() != null) {
+                nicks.put(NicknameKeys.fold(record.nick()), record.uuid());
+            }
+            if (record.name() != null) {
+                names.put(NicknameKeys.fold(record.name()), record.uuid());
+            }
+        }
+        assertEquals(nicks, new HashMap<>(snapshot.nickIndex()));
+        assertEquals(names, new HashMap<>(snapshot.nameIndex()));
+        for (UUID uuid : players) {
+            NicknameRecord record = truth.get(uuid);
+            boolean indexed = record != null && (record.nick() != null || record.name() != null);
+            assertEquals(indexed, snapshot.hasIndexEntries(uuid));
+            NicknameRecord loaded = snapshot.get(uuid);
+            if (loaded != null) {
+                assertEquals(record, loaded);
+            }
+        }
+    }
+
+    private static Map<UUID, NicknameRecord> singleton(UUID uuid, NicknameRecord record) {
+        Map<UUID, NicknameRecord> changes = new HashMap<>();
+        changes.put(uuid, record);
+        return changes;
+    }
+}
@@ -0,0 +1,155 @@
+package net.minichip.minecraftnickname;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// user-005: 구조를 공유하는 스냅샷 맵 (해시 충돌, minus 후 노드 정리, 순회, HashMap 과의 비교)
+class PersistentHashMapTest {
+
+    // 해시 값을 직접 정하는 키 (충돌과 깊은 트리를 만들기 위해)
+    private record Key(String id, int hash) {
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Key && ((Key) o).id.equals(id);
+        }
+    }
+
+    @Test
+    void keepsKeysWithSameHash() {
+        Key a = new Key("a", 7);
+        Key b = new Key("b", 7);
+        Key c = new Key("c", 7);
+        PersistentHashMap<Key, String> map = PersistentHashMap.<Key, String>empty().plus(a, "A").plus(b, "B").plus(c, "C");
+
+        assertEquals(3, map.size());
+        assertEquals("A", map.get(a));
+        assertEquals("B", map.get(b));
+        assertEquals("C", map.get(c));
+        assertNull(map.get(new Key("d", 7)));
+
+        PersistentHashMap<Key, String> replaced = map.plus(b, "B2");
+        assertEquals(3, replaced.size());
+        assertEquals("B2", replaced.get(b));
+        assertEquals("B", map.get(b));
+
+        PersistentHashMap<Key, String> removed = map.minus(a).minus(c);
+        assertEquals(Map.of(b, "B"), removed);
+        assertEquals(3, map.size());
+        assertSame(removed, removed.minus(new Key("d", 7)));
+    }
+
+    @Test
+    void collapsesNodesAfterMinus() {
+        // 아래 비트가 같은 해시는 여러 단계 내려가서야 갈라집니다.
+        Key shallow = new Key("shallow", 1);
+        Key deep1 = new Key("deep1", 2 | (3 << 5) | (4 << 10));
+        Key deep2 = new Key("deep2", 2 | (3 << 5) | (5 << 10));
+        Key collide = new Key("collide", deep2.hash());
+        PersistentHashMap<Key, Integer> base = PersistentHashMap.<Key, Integer>empty().plus(shallow, 0);
+        PersistentHashMap<Key, Integer> map = base.plus(deep1, 1).plus(deep2, 2).plus(collide, 3);
+
+        PersistentHashMap<Key, Integer> removed = map.minus(deep2).minus(collide).minus(deep1);
+        assertEquals(base, removed);
+        assertEquals(1, removed.size());
+        assertEquals(0, removed.get(shallow));
+
+        // 정리된 트리에 다시 넣어도 모든 키를 찾을 수 있습니다.
+        PersistentHashMap<Key, Integer> again = removed.plus(deep2, 2).plus(collide, 3);
+        assertEquals(Map.of(shallow, 0, deep2, 2, collide, 3), again);
+        assertEquals(3, again.minus(deep1).size());
+
+        PersistentHashMap<Key, Integer> empty = again.minus(shallow).minus(deep2).minus(collide);
+        assertTrue(empty.isEmpty());
+        assertFalse(empty.entrySet().iterator().hasNext());
+        assertSame(PersistentHashMap.empty(), empty);
+    }
+
+    @Test
+    void returnsSameMapWhenNothingChanges() {
+        String value = "값";
+        PersistentHashMap<String, String> map = PersistentHashMap.<String, String>empty().plus("k", value);
+
+        assertSame(map, map.plus("k", value));
+        assertSame(map, map.minus("없음"));
+    }
+
+    @Test
+    void iteratesEveryEntryAfterRemovals() {
+        PersistentHashMap<Key, Integer> map = PersistentHashMap.empty();
+        for (int i = 0; i < 500; i++) {
+            // 해시를 64개로 줄여 충돌과 깊은 경로가 섞이게 합니다.
+            map = map.plus(new Key("k" + i, (i % 64) * 0x01010101), i);
+        }
+        for (int i = 0; i < 500; i += 3) {
+            map = map.minus(new Key("k" + i, (i % 64) * 0x01010101));
+        }
+
+        Set<Integer> seen = new HashSet<>();
+        int count = 0;
+        for (Map.Entry<Key, Integer> entry : map.entrySet()) {
+            assertTrue(seen.add(entry.getValue()), "두 번 나온 항목: " + entry);
+            assertEquals("k" + entry.getValue(), entry.getKey().id());
+            count++;
+        }
+        assertEquals(500 - 167, count);
+        assertEquals(count, map.size());
+        for (int i = 0; i < 500; i++) {
+            assertEquals(i % 3 != 0, seen.contains(i));
+        }
+    }
+
+    // 무작위 plus/minus 를 HashMap 과 똑같이 적용하고 매번 내용을 비교합니다. 이전 버전이 바뀌지 않는지도 확인합니다.
+    @Test
+    void matchesHashMapUnderRandomOperations() {
+        Random random = new Random(5);
+        List<Key> keys = new ArrayList<>();
+        for (int i = 0; i < 300; i++) {
+            keys.add(new Key("k" + i, random.nextInt(200)));
+        }
+        PersistentHashMap<Key, Integer> map = PersistentHashMap.empty();
+        Map<Key, Integer> expected = new HashMap<>();
+        PersistentHashMap<Key, Integer> saved = map;
+        Map<Key, Integer> savedExpected = new HashMap<>();
+
+        for (int step = 0; step < 20000; step++) {
+            Key key = keys.get(random.nextInt(keys.size()));
+            if (random.nextInt(3) == 0) {
+                map = map.minus(key);
+                expected.remove(key);
+            } else {
+                int value = random.nextInt(1000);
+                map = map.plus(key, value);
+                expected.put(key, value);
+            }
+            assertEquals(expected.size(), map.size());
+            assertEquals(expected.get(key), map.get(key));
+            assertEquals(expected.containsKey(key), map.containsKey(key));
+            if (step % 500 == 0) {
+                assertEquals(expected, map);
+                assertEquals(new HashMap<>(map), expected);
+                assertEquals(savedExpected, saved);
+                saved = map;
+                savedExpected = new HashMap<>(expected);
+            }
+        }
+        assertEquals(expected, map);
+    }
+}
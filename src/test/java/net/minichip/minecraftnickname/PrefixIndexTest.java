@@ -0,0 +1,87 @@
+package net.minichip.minecraftnickname;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// user-019: 닉네임 자동 완성용 앞부분/초성 색인
+class PrefixIndexTest {
+
+    private static PrefixIndex index(NicknameRecord... records) {
+        NicknameStore store = new NicknameStore();
+        store.replaceAll(List.of(records));
+        return PrefixIndex.build(store.snapshot());
+    }
+
+    private static List<String> values(List<PrefixIndex.Entry> entries) {
+        List<String> values = new ArrayList<>();
+        for (PrefixIndex.Entry entry : entries) {
+            values.add(entry.value());
+        }
+        return values;
+    }
+
+    @Test
+    void foldsKeys() {
+        String lower = "alice";
+        assertSame(lower, NicknameKeys.fold(lower));
+        assertEquals("alice", NicknameKeys.fold("ALICE"));
+        assertEquals("strasse", NicknameKeys.fold("STRASSE"));
+        assertEquals(NicknameKeys.fold("STRAßE"), NicknameKeys.fold("strasse"));
+        // 조합형(자모 분리) 한글도 완성형과 같은 키가 됩니다.
+        assertEquals("한", NicknameKeys.fold("\u1112\u1161\u11AB"));
+        assertNull(NicknameKeys.fold(null));
+    }
+
+    @Test
+    void extractsChoseong() {
+        assertEquals("ㅎㄱㄷ", NicknameKeys.choseong("홍길동"));
+        assertEquals("ㄲㅆ", NicknameKeys.choseong("꿀쌀"));
+        assertEquals("abㅎ1", NicknameKeys.choseong("ab한1"));
+        assertNull(NicknameKeys.choseong("alice"));
+        assertTrue(NicknameKeys.hasChoseong("홍ㄱ"));
+        assertFalse(NicknameKeys.hasChoseong("홍길"));
+    }
+
+    @Test
+    void searchesByPrefixInKeyOrder() {
+        PrefixIndex index = index(
+                new NicknameRecord(UUID.randomUUID(), "Steve", "Alpha"),
+                new NicknameRecord(UUID.randomUUID(), "Alex", "Beta"),
+                new NicknameRecord(UUID.randomUUID(), "alice2", "Gamma"));
+
+        assertEquals(6, index.size());
+        // 닉네임과 이름을 함께 찾고, 메모리에 있는 기록은 원래 표기로 보여 줍니다.
+        assertEquals(List.of("Alex", "alice2", "Alpha"), values(index.search("AL", 10)));
+        assertEquals(List.of("Alex", "alice2"), values(index.search("al", 2)));
+        assertEquals(List.of("Beta"), values(index.search("b", 10)));
+        assertTrue(index.search("zzz", 10).isEmpty());
+        assertTrue(PrefixIndex.EMPTY.search("a", 10).isEmpty());
+    }
+
+    @Test
+    void searchesByChoseong() {
+        UUID hong = UUID.randomUUID();
+        PrefixIndex index = index(
+                new NicknameRecord(hong, "Hong", "홍길동"),
+                new NicknameRecord(UUID.randomUUID(), "Han", "한국인"),
+                new NicknameRecord(UUID.randomUUID(), "Kim", "김철수"));
+
+        // 초성 키 순서: ㅎㄱㄷ < ㅎㄱㅇ
+        assertEquals(List.of("홍길동", "한국인"), values(index.search("ㅎㄱ", 10)));
+        // 음절과 초성을 섞어 써도 초성으로 바꿔 찾습니다.
+        assertEquals(List.of("홍길동"), values(index.search("홍ㄱㄷ", 10)));
+        assertEquals(hong, index.search("홍ㄱ", 10).get(0).owner());
+        assertTrue(index.search("ㄱ", 10).get(0).nick());
+        // 초성이 없으면 일반 접두어 검색입니다.
+        assertEquals(List.of("김철수"), values(index.search("김", 10)));
+    }
+}
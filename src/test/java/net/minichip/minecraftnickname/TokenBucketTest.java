@@ -0,0 +1,49 @@
+package net.minichip.minecraftnickname;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// user-021: 닉네임 변경 요청 제한용 토큰 버킷
+class TokenBucketTest {
+
+    @Test
+    void startsFullAndRunsOut() {
+        // 채우는 속도가 0 이면 처음 토큰만 쓸 수 있습니다.
+        TokenBucket bucket = new TokenBucket(3, 0.0);
+        assertTrue(bucket.tryAcquire());
+        assertTrue(bucket.tryAcquire());
+        assertTrue(bucket.tryAcquire());
+        assertFalse(bucket.tryAcquire());
+        assertFalse(bucket.tryAcquire());
+    }
+
+    @Test
+    void refillsOverTime() throws Exception {
+        TokenBucket bucket = new TokenBucket(1, 100.0);
+        assertTrue(bucket.tryAcquire());
+        // 초당 100개이므로 50ms 면 토큰이 다시 찹니다.
+        Thread.sleep(50);
+        assertTrue(bucket.tryAcquire());
+    }
+
+    @Test
+    void neverHoldsMoreThanCapacity() throws Exception {
+        TokenBucket bucket = new TokenBucket(2, 1000.0);
+        Thread.sleep(50);
+        int acquired = 0;
+        while (bucket.tryAcquire() && acquired < 100) {
+            acquired++;
+        }
+        // 오래 쉬어도 capacity 이상은 쌓이지 않습니다. (확인하는 동안 채워지는 몇 개는 허용)
+        assertTrue(acquired < 100, "acquired=" + acquired);
+    }
+
+    @Test
+    void treatsNonPositiveCapacityAsOne() {
+        TokenBucket bucket = new TokenBucket(0, 0.0);
+        assertTrue(bucket.tryAcquire());
+        assertFalse(bucket.tryAcquire());
+    }
+}